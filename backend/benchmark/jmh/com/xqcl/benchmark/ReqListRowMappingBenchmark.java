@@ -0,0 +1,209 @@
+package com.xqcl.benchmark;
+
+import com.xqcl.entity.ReqList;
+import com.xqcl.util.ContentHash;
+import com.xqcl.util.ExcelImportUtil;
+import com.xqcl.util.ExcelValueConverter;
+import com.xqcl.util.StringDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 需求列表行映射基准：按表头编译的列映射 对比 按固定列号手写的行解析（原 parseReqListRow 的写法）
+ * <p>
+ * 两边做同样的事：48 列赋值，时间列和数值列经 ExcelValueConverter 转换，低基数列经字典去重，按列顺序计算内容哈希。
+ * 每次调用映射 1000 行，结果以每行平均耗时给出。
+ * <p>
+ * 用法（backend 目录）：mvn -Pbenchmark test-compile exec:exec
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReqListRowMappingBenchmark {
+
+    private static final int ROWS = 1000;
+
+    /**
+     * 导入模板的列名，按模板列顺序
+     */
+    private static final String[] TITLES = {
+            "需求评估单号",
+            "项目名称",
+            "商机编号",
+            "行业",
+            "子行业",
+            "区域",
+            "国家或地区",
+            "产品线",
+            "产品系列",
+            "产品型号",
+            "软件名称",
+            "软件版本",
+            "状态",
+            "是否排期",
+            "是否复用方案",
+            "紧急程度",
+            "评估类型",
+            "评估单创建人",
+            "创建人部门",
+            "需求负责人",
+            "负责人所属部门",
+            "当前处理人",
+            "评估单创建时间",
+            "评估单提交时间",
+            "最后提交时间",
+            "评估时间",
+            "最后评估时间",
+            "总评估用时（小时）",
+            "评估停留时间（天）",
+            "排期开始时间",
+            "排期结束时间",
+            "总工作量（人天）",
+            "开发资源分布总部工作量(人天)",
+            "开发资源分布区域",
+            "开发资源分布区域工作量(人天)",
+            "总订单核算工作量（人天）",
+            "订单核算总部工作量(人天)",
+            "订单核算区域",
+            "订单核算区域工作量(人天)",
+            "系统测试工作量（人天）",
+            "集成测试工作量（人天）",
+            "学习成本工作量（人天）",
+            "流程管理工作量（人天）",
+            "其他工作量详情",
+            "期望完成时间",
+            "定制单号",
+            "JKN单号",
+            "开发单号"
+    };
+
+    private String[][] rows;
+    private Function<String[], ReqList> compiled;
+    private StringDictionary dictionary;
+
+    @Setup
+    public void setUp() {
+        dictionary = new StringDictionary();
+        // 表头按模板列顺序，两种解析读取的列位置相同
+        compiled = ExcelImportUtil.REQ_LIST_COLUMNS.compile(TITLES.clone(), dictionary);
+
+        rows = new String[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            String[] cells = new String[TITLES.length];
+            for (int c = 0; c < cells.length; c++) {
+                cells[c] = sample(TITLES[c], i);
+            }
+            rows[i] = cells;
+        }
+    }
+
+    /**
+     * 按列类型生成单元格值：时间列为 Excel 日期序列号，工作量等数值列为两位小数，其余为少量重复的文本
+     */
+    private static String sample(String title, int row) {
+        if (title.equals("需求评估单号")) {
+            return "PG" + (20240000 + row);
+        }
+        if (title.contains("时间") && !title.contains("用时") && !title.contains("停留")) {
+            return (45292 + row % 300) + ".5";
+        }
+        if ((title.contains("工作量") && !title.contains("详情")) || title.contains("用时") || title.contains("停留")) {
+            return (row % 97) + ".25";
+        }
+        return title + (row % 7);
+    }
+
+    @Benchmark
+    public void compiledMapping(Blackhole blackhole) {
+        for (String[] row : rows) {
+            blackhole.consume(compiled.apply(row));
+        }
+    }
+
+    @Benchmark
+    public void handWrittenParser(Blackhole blackhole) {
+        for (String[] row : rows) {
+            blackhole.consume(parseReqListRow(row));
+        }
+    }
+
+    /**
+     * 按固定列号手写的行解析
+     */
+    private ReqList parseReqListRow(String[] c) {
+        ReqList reqList = new ReqList();
+        reqList.setReqNo(c[0]);
+        reqList.setProjectName(c[1]);
+        reqList.setOpportunityNo(c[2]);
+        reqList.setIndustry(dictionary.intern(c[3]));
+        reqList.setSubIndustry(dictionary.intern(c[4]));
+        reqList.setRegion(dictionary.intern(c[5]));
+        reqList.setCountry(dictionary.intern(c[6]));
+        reqList.setProductLine(dictionary.intern(c[7]));
+        reqList.setProductSeries(dictionary.intern(c[8]));
+        reqList.setProductModel(c[9]);
+        reqList.setSoftwareName(c[10]);
+        reqList.setSoftwareVersion(c[11]);
+        reqList.setStatus(dictionary.intern(c[12]));
+        reqList.setIsScheduled(dictionary.intern(c[13]));
+        reqList.setIsReuse(dictionary.intern(c[14]));
+        reqList.setUrgency(dictionary.intern(c[15]));
+        reqList.setEvalType(dictionary.intern(c[16]));
+        reqList.setCreator(dictionary.intern(c[17]));
+        reqList.setCreatorDept(dictionary.intern(c[18]));
+        reqList.setReqOwner(dictionary.intern(c[19]));
+        reqList.setOwnerDept(dictionary.intern(c[20]));
+        reqList.setCurrentHandler(dictionary.intern(c[21]));
+        reqList.setCreateTime(ExcelValueConverter.toDateTime(c[22]));
+        reqList.setSubmitTime(ExcelValueConverter.toDateTime(c[23]));
+        reqList.setLastSubmitTime(ExcelValueConverter.toDateTime(c[24]));
+        reqList.setEvalTime(ExcelValueConverter.toDateTime(c[25]));
+        reqList.setLastEvalTime(ExcelValueConverter.toDateTime(c[26]));
+        reqList.setTotalEvalHours(ExcelValueConverter.toDecimal(c[27]));
+        reqList.setEvalStayDays(ExcelValueConverter.toDecimal(c[28]));
+        reqList.setScheduleStartTime(ExcelValueConverter.toDateTime(c[29]));
+        reqList.setScheduleEndTime(ExcelValueConverter.toDateTime(c[30]));
+        reqList.setTotalWorkload(ExcelValueConverter.toDecimal(c[31]));
+        reqList.setDevHqWorkload(ExcelValueConverter.toDecimal(c[32]));
+        reqList.setDevRegion(dictionary.intern(c[33]));
+        reqList.setDevRegionWorkload(ExcelValueConverter.toDecimal(c[34]));
+        reqList.setTotalOrderWorkload(ExcelValueConverter.toDecimal(c[35]));
+        reqList.setOrderHqWorkload(ExcelValueConverter.toDecimal(c[36]));
+        reqList.setOrderRegion(dictionary.intern(c[37]));
+        reqList.setOrderRegionWorkload(ExcelValueConverter.toDecimal(c[38]));
+        reqList.setSystemTestWorkload(ExcelValueConverter.toDecimal(c[39]));
+        reqList.setIntegrationTestWorkload(ExcelValueConverter.toDecimal(c[40]));
+        reqList.setLearningCostWorkload(ExcelValueConverter.toDecimal(c[41]));
+        reqList.setProcessManageWorkload(ExcelValueConverter.toDecimal(c[42]));
+        reqList.setOtherWorkloadDetail(c[43]);
+        reqList.setExpectedCompleteTime(ExcelValueConverter.toDateTime(c[44]));
+        reqList.setCustomNo(c[45]);
+        reqList.setJknNo(c[46]);
+        reqList.setDevNo(c[47]);
+        MessageDigest digest = ContentHash.begin();
+        for (int i = 0; i < 48; i++) {
+            ContentHash.update(digest, i < c.length ? c[i] : null);
+        }
+        reqList.setContentHash(ContentHash.finish(digest));
+        return reqList;
+    }
+}
@@ -0,0 +1,99 @@
+-- 需求列表筛选分页基准：30 万行，对比有无 pg_trgm 索引时筛选分页查询的耗时
+-- Database: PostgreSQL 11+
+--
+-- 用法：psql -d xqcl -f benchmark/req_list_search_benchmark.sql
+-- 数据建在独立的 bench schema 中，不影响业务表，结束时删除。
+-- 查询语句与 ReqListService.pageQuery 生成的 SQL 相同：数据页 LIMIT 10 + 总条数 COUNT(*)。
+-- 每组查询先执行一次预热，再看 EXPLAIN ANALYZE 的 Execution Time。
+
+\timing on
+SET client_min_messages = warning;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path = bench, public;
+
+CREATE TABLE req_list (LIKE public.req_list INCLUDING DEFAULTS);
+ALTER TABLE req_list ADD PRIMARY KEY (req_no);
+
+-- 30 万行：单号、项目名称、负责人等按业务数据的格式生成，行业和区域取自小字典
+INSERT INTO req_list (req_no, project_name, opportunity_no, industry, region, product_series,
+                      software_version, status, req_owner, owner_dept, dev_no, jkn_no, submit_time)
+SELECT 'PG' || to_char(DATE '2020-01-01' + (i % 1800), 'YYYYMMDD') || lpad(i::text, 6, '0'),
+       (ARRAY['智慧城市', '轨道交通', '电力调度', '金融数据中心', '园区网络', '运营商核心网'])[1 + i % 6]
+           || '项目' || (i % 5000),
+       'OPP-' || lpad((i * 7 % 999983)::text, 7, '0'),
+       (ARRAY['政府', '金融', '能源', '交通', '运营商', '教育', '医疗', '制造'])[1 + i % 8],
+       (ARRAY['华东', '华南', '华北', '西南', '西北', '东北', '海外'])[1 + i % 7],
+       'S' || (i % 40) * 100 || '系列',
+       'V' || (1 + i % 5) || '.' || (i % 10) || '.' || (i % 30),
+       (ARRAY['待评估', '评估中', '已评估', '已排期', '已关闭'])[1 + i % 5],
+       '负责人' || (i % 2000),
+       '研发' || (i % 60) || '部',
+       CASE WHEN i % 3 = 0 THEN 'DEV-' || (100000 + i) END,
+       CASE WHEN i % 4 = 0 THEN 'JKN' || (200000 + i) END,
+       TIMESTAMP '2020-01-01' + (i % 1800) * INTERVAL '1 day' + (i % 86400) * INTERVAL '1 second'
+FROM generate_series(1, 300000) AS i;
+
+CREATE INDEX idx_req_list_submit_time_req_no ON req_list(submit_time DESC, req_no DESC);
+CREATE INDEX idx_req_list_project_name ON req_list(project_name);
+CREATE INDEX idx_req_list_req_owner ON req_list(req_owner);
+CREATE INDEX idx_req_list_industry ON req_list(industry);
+CREATE INDEX idx_req_list_region ON req_list(region);
+ANALYZE req_list;
+
+-- ---------------------------------------------------------------------------
+-- 第一组：只有 B-tree 索引（包含匹配只能全表扫描）
+-- ---------------------------------------------------------------------------
+\echo '== 无三元组索引：项目名称包含 "电力调度项目12"'
+SELECT count(*) FROM req_list WHERE project_name LIKE '%电力调度项目12%';
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM req_list WHERE project_name LIKE '%电力调度项目12%'
+ORDER BY submit_time DESC, req_no DESC LIMIT 10;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM req_list WHERE project_name LIKE '%电力调度项目12%';
+
+\echo '== 无三元组索引：单号包含 "0412" + 负责人包含 "负责人17"'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM req_list WHERE req_no LIKE '%0412%' AND req_owner LIKE '%负责人17%'
+ORDER BY submit_time DESC, req_no DESC LIMIT 10;
+
+-- ---------------------------------------------------------------------------
+-- 第二组：加上 V1_6__req_list_trgm_index.sql 中的三元组索引
+-- ---------------------------------------------------------------------------
+CREATE INDEX idx_req_list_req_no_trgm ON req_list USING gin (req_no gin_trgm_ops);
+CREATE INDEX idx_req_list_project_name_trgm ON req_list USING gin (project_name gin_trgm_ops);
+CREATE INDEX idx_req_list_opportunity_no_trgm ON req_list USING gin (opportunity_no gin_trgm_ops);
+CREATE INDEX idx_req_list_product_series_trgm ON req_list USING gin (product_series gin_trgm_ops);
+CREATE INDEX idx_req_list_software_version_trgm ON req_list USING gin (software_version gin_trgm_ops);
+CREATE INDEX idx_req_list_req_owner_trgm ON req_list USING gin (req_owner gin_trgm_ops);
+CREATE INDEX idx_req_list_owner_dept_trgm ON req_list USING gin (owner_dept gin_trgm_ops);
+CREATE INDEX idx_req_list_dev_no_trgm ON req_list USING gin (dev_no gin_trgm_ops);
+CREATE INDEX idx_req_list_jkn_no_trgm ON req_list USING gin (jkn_no gin_trgm_ops);
+ANALYZE req_list;
+
+\echo '== 三元组索引：项目名称包含 "电力调度项目12"'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM req_list WHERE project_name LIKE '%电力调度项目12%'
+ORDER BY submit_time DESC, req_no DESC LIMIT 10;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM req_list WHERE project_name LIKE '%电力调度项目12%';
+
+\echo '== 三元组索引：单号包含 "0412" + 负责人包含 "负责人17"'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM req_list WHERE req_no LIKE '%0412%' AND req_owner LIKE '%负责人17%'
+ORDER BY submit_time DESC, req_no DESC LIMIT 10;
+
+\echo '== 短值：开发单号前缀 "DE"（前缀匹配，锚定开头的三元组走索引）'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM req_list WHERE dev_no LIKE 'DE%'
+ORDER BY submit_time DESC, req_no DESC LIMIT 10;
+
+\echo '== 短值：区域 "华东"（字典列等值匹配）'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM req_list WHERE region = '华东'
+ORDER BY submit_time DESC, req_no DESC LIMIT 10;
+
+RESET search_path;
+DROP SCHEMA bench CASCADE;
@@ -0,0 +1,16 @@
+package com.xqcl.common;
+
+/**
+ * 导入被取消异常（抛出后导入事务回滚）
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class ImportCancelledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ImportCancelledException() {
+        super("导入已取消");
+    }
+}
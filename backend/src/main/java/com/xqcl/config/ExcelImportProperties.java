@@ -0,0 +1,183 @@
+package com.xqcl.config;
+
+import com.xqcl.util.ExcelImportUtil;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Excel 导入配置（app.excel-import）
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.excel-import")
+public class ExcelImportProperties {
+
+    /**
+     * 读取模式：DOM（XSSFWorkbook 全量加载）或 SAX（事件模型流式读取）
+     */
+    private ExcelImportUtil.ReaderMode readerMode = ExcelImportUtil.ReaderMode.SAX;
+
+    /**
+     * 表头未匹配任何已知列时按导入模板的列顺序解析（仅用于没有表头的旧文件），默认拒绝导入
+     */
+    private boolean positionalFallback = false;
+
+    /**
+     * 写入模式：BATCH（INSERT ... ON CONFLICT 批量新增或更新）、COPY（COPY 到暂存表后集合合并）、
+     * PIPELINE（解析/转换/写入流水线，多写线程按批提交）或 CHECKPOINT（按批提交并记录检查点，失败后可续传）
+     */
+    private WriteMode writeMode = WriteMode.BATCH;
+
+    /**
+     * 已存在行的更新方式：FULL（ON CONFLICT 全列更新）或 DIRTY（与库中数据比较，只更新变化的列）
+     */
+    private UpdateMode updateMode = UpdateMode.FULL;
+
+    /**
+     * 提交策略（BATCH、CHECKPOINT 写入模式生效）：ALL（整个导入一个事务）、EVERY_N_BATCHES（每 commitBatches 批提交一次）
+     * 或 EVERY_BATCH（每批提交）
+     */
+    private CommitPolicy commitPolicy = CommitPolicy.ALL;
+
+    /**
+     * EVERY_N_BATCHES 提交策略下每次提交包含的批数
+     */
+    private int commitBatches = 10;
+
+    /**
+     * 是否按每批写入耗时自适应调整批次大小（BATCH、PIPELINE、CHECKPOINT 写入模式生效），关闭时固定为 batchSizeInitial
+     */
+    private boolean adaptiveBatch = true;
+
+    /**
+     * 批次大小下限
+     */
+    private int batchSizeMin = 100;
+
+    /**
+     * 批次大小上限，另受单条语句 32767 个绑定参数限制
+     */
+    private int batchSizeMax = 5000;
+
+    /**
+     * 初始批次大小
+     */
+    private int batchSizeInitial = ExcelImportUtil.BATCH_SIZE;
+
+    /**
+     * 每批目标写入耗时（毫秒），明显低于目标时放大批次，高于目标时缩小
+     */
+    private long batchTargetMillis = 200;
+
+    /**
+     * 分片上传：单个文件大小上限（字节）
+     */
+    private long uploadMaxSize = 2L * 1024 * 1024 * 1024;
+
+    /**
+     * 分片上传：单个分片大小上限（字节）
+     */
+    private int uploadChunkMaxSize = 16 * 1024 * 1024;
+
+    /**
+     * 分片上传：未完成的上传闲置超过该小时数后清理
+     */
+    private int uploadExpireHours = 24;
+
+    /**
+     * 异步导入任务线程数
+     */
+    private int jobPoolSize = 2;
+
+    /**
+     * 异步导入任务排队上限，超出时拒绝提交
+     */
+    private int jobQueueCapacity = 16;
+
+    /**
+     * 流水线模式：行转换线程数
+     */
+    private int pipelineConverters = 2;
+
+    /**
+     * 流水线模式：写入线程数（同一业务键固定由同一写线程处理）
+     */
+    private int pipelineWriters = 4;
+
+    /**
+     * 流水线模式：各阶段之间排队的批次数上限，队列满时上游阻塞（背压）
+     */
+    private int pipelineQueueCapacity = 4;
+
+    /**
+     * 每次提交包含的批数，0 表示整个导入一个事务
+     */
+    public int getBatchesPerCommit() {
+        switch (commitPolicy) {
+            case EVERY_BATCH:
+                return 1;
+            case EVERY_N_BATCHES:
+                return Math.max(1, commitBatches);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 写入模式
+     */
+    public enum WriteMode {
+        /**
+         * 每批一条 INSERT ... ON CONFLICT，按提交策略提交（默认整个导入一个事务）
+         */
+        BATCH,
+        /**
+         * PostgreSQL COPY 到临时暂存表，导入结束时一条语句合并
+         */
+        COPY,
+        /**
+         * 读取线程 → 转换线程池 → 多个写线程，每批独立事务提交
+         */
+        PIPELINE,
+        /**
+         * 按提交策略提交（ALL 时按每批），同一事务内记录已提交的最后一行；同一文件重新上传时从该行之后继续
+         */
+        CHECKPOINT
+    }
+
+    /**
+     * 已存在行的更新方式（BATCH、PIPELINE、CHECKPOINT 写入模式生效）
+     */
+    public enum UpdateMode {
+        /**
+         * INSERT ... ON CONFLICT DO UPDATE，所有非空字段整行写回
+         */
+        FULL,
+        /**
+         * 先查询已有数据逐字段比较，只 SET 变化的列，变更列相同的行合并为一次 JDBC 批量执行
+         */
+        DIRTY
+    }
+
+    /**
+     * 提交策略：失败时已提交的批次保留，未提交的回滚，任务失败信息中给出已提交的行范围
+     */
+    public enum CommitPolicy {
+        /**
+         * 整个导入一个事务，失败时全部回滚
+         */
+        ALL,
+        /**
+         * 每 commitBatches 批提交一次
+         */
+        EVERY_N_BATCHES,
+        /**
+         * 每批提交一次
+         */
+        EVERY_BATCH
+    }
+}
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.xqcl.handler.StringDictionaryInterceptor;
 import org.apache.ibatis.reflection.MetaObject;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,6 +31,14 @@ public class MybatisPlusConfig {
         return interceptor;
     }
 
+    /**
+     * 查询结果低基数字段去重（配合 DictionaryStringTypeHandler）
+     */
+    @Bean
+    public StringDictionaryInterceptor stringDictionaryInterceptor() {
+        return new StringDictionaryInterceptor();
+    }
+
     /**
      * 自动填充处理器
      */
@@ -0,0 +1,90 @@
+package com.xqcl.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 列表查询配置（app.query）
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.query")
+public class QueryProperties {
+
+    /**
+     * 分页总条数的统计方式，请求中未指定时使用
+     */
+    private CountStrategy countStrategy = CountStrategy.CACHED;
+
+    /**
+     * CACHED：最多缓存的筛选条件个数
+     */
+    private int countCacheSize = 1000;
+
+    /**
+     * CACHED：缓存有效期（秒），导入提交后无论是否到期都失效
+     */
+    private long countCacheTtlSeconds = 300;
+
+    /**
+     * ESTIMATED：估算值低于此值时改为精确统计
+     */
+    private long countExactThreshold = 10000;
+
+    /**
+     * 工作量统计：最多缓存的统计条件个数
+     */
+    private int analyticsCacheSize = 200;
+
+    /**
+     * 工作量统计：缓存有效期（秒），导入提交后无论是否到期都失效
+     */
+    private long analyticsCacheTtlSeconds = 600;
+
+    /**
+     * 按需求评估单号的查询缓存：需求列表、需求详情列表各自最多缓存的需求个数
+     */
+    private int lookupCacheSize = 2000;
+
+    /**
+     * 按需求评估单号的查询缓存：有效期（秒），写入的需求在提交后立即失效
+     */
+    private long lookupCacheTtlSeconds = 600;
+
+    /**
+     * 多实例部署时是否通过 PostgreSQL LISTEN/NOTIFY 在实例间广播缓存失效
+     */
+    private boolean invalidationBusEnabled = true;
+
+    /**
+     * 缓存失效广播的通知通道名
+     */
+    private String invalidationChannel = "req_changed";
+
+    /**
+     * 监听连接断开后重连的间隔（秒）
+     */
+    private long invalidationReconnectSeconds = 5;
+
+    /**
+     * 总条数统计方式
+     */
+    public enum CountStrategy {
+        /**
+         * 每次执行 COUNT(*)
+         */
+        EXACT,
+        /**
+         * 按筛选条件缓存精确值，导入提交后失效
+         */
+        CACHED,
+        /**
+         * 无筛选条件时取 pg_class 中的估算行数，有筛选条件时取执行计划的估算行数
+         */
+        ESTIMATED
+    }
+}
@@ -0,0 +1,196 @@
+package com.xqcl.controller;
+
+import com.xqcl.common.Result;
+import com.xqcl.dto.BatchSizeStatsDTO;
+import com.xqcl.dto.ChunkUploadDTO;
+import com.xqcl.dto.ImportJobDTO;
+import com.xqcl.entity.ImportJob;
+import com.xqcl.service.ChunkUploadService;
+import com.xqcl.service.ImportExecutor;
+import com.xqcl.service.ImportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * 异步导入任务 Controller
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@RestController
+@RequestMapping("/req/import/job")
+@Tag(name = "导入任务", description = "异步导入任务相关接口")
+public class ImportJobController {
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ImportExecutor importExecutor;
+
+    @Autowired
+    private ChunkUploadService chunkUploadService;
+
+    /**
+     * 提交需求列表导入任务
+     */
+    @PostMapping("/list")
+    @Operation(summary = "提交需求列表导入任务", description = "上传文件后立即返回任务ID，导入在后台执行；force 为 true 时相同文件已导入成功也重新导入")
+    public Result<Long> submitList(@RequestParam("file") MultipartFile file,
+                                   @RequestParam(value = "force", defaultValue = "false") Boolean force) {
+        return submit(ImportJob.JobType.LIST, file, force);
+    }
+
+    /**
+     * 提交需求详情导入任务
+     */
+    @PostMapping("/detail")
+    @Operation(summary = "提交需求详情导入任务", description = "上传文件后立即返回任务ID，导入在后台执行；force 为 true 时相同文件已导入成功也重新导入")
+    public Result<Long> submitDetail(@RequestParam("file") MultipartFile file,
+                                     @RequestParam(value = "force", defaultValue = "false") Boolean force) {
+        return submit(ImportJob.JobType.DETAIL, file, force);
+    }
+
+    /**
+     * 登记分片上传
+     */
+    @PostMapping("/upload")
+    @Operation(summary = "登记分片上传", description = "大文件按分片上传，返回上传ID和分片数；单个分片和文件大小受 app.excel-import 配置限制")
+    public Result<ChunkUploadDTO> initUpload(@RequestParam("fileName") String fileName,
+                                             @RequestParam("totalSize") Long totalSize,
+                                             @RequestParam("chunkSize") Integer chunkSize) {
+        try {
+            return Result.ok(chunkUploadService.init(fileName, totalSize, chunkSize));
+        } catch (Exception e) {
+            log.error("登记分片上传失败", e);
+            return Result.fail("登记失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 上传一个分片（请求体为分片的原始字节）
+     */
+    @PutMapping("/upload/{uploadId}/{index}")
+    @Operation(summary = "上传分片", description = "请求体为分片原始字节（application/octet-stream），重发同一序号覆盖原内容")
+    public Result<ChunkUploadDTO> uploadChunk(@PathVariable String uploadId, @PathVariable Integer index,
+                                              HttpServletRequest request) {
+        try {
+            return Result.ok(chunkUploadService.writeChunk(uploadId, index, request.getInputStream()));
+        } catch (Exception e) {
+            log.error("上传分片失败: id={}, index={}", uploadId, index, e);
+            return Result.fail("上传分片失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询分片上传状态
+     */
+    @GetMapping("/upload/{uploadId}")
+    @Operation(summary = "查询分片上传状态", description = "返回已收到的分片序号，续传时只补传缺少的分片")
+    public Result<ChunkUploadDTO> uploadStatus(@PathVariable String uploadId) {
+        try {
+            return Result.ok(chunkUploadService.status(uploadId));
+        } catch (IllegalArgumentException e) {
+            return Result.fail(404, e.getMessage());
+        }
+    }
+
+    /**
+     * 完成分片上传并提交导入任务
+     */
+    @PostMapping("/upload/{uploadId}/complete")
+    @Operation(summary = "完成分片上传", description = "分片收齐后提交导入任务（type: list / detail），返回任务ID；force 为 true 时相同文件已导入成功也重新导入")
+    public Result<Long> completeUpload(@PathVariable String uploadId, @RequestParam("type") String type,
+                                       @RequestParam(value = "force", defaultValue = "false") Boolean force) {
+        ImportJob.JobType jobType;
+        if ("list".equalsIgnoreCase(type)) {
+            jobType = ImportJob.JobType.LIST;
+        } else if ("detail".equalsIgnoreCase(type)) {
+            jobType = ImportJob.JobType.DETAIL;
+        } else {
+            return Result.fail(400, "不支持的导入类型: " + type + "，应为 list 或 detail");
+        }
+        try {
+            return Result.ok(chunkUploadService.complete(uploadId, jobType, force));
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
+        } catch (Exception e) {
+            log.error("完成分片上传失败: id={}", uploadId, e);
+            return Result.fail("提交失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 取消分片上传
+     */
+    @DeleteMapping("/upload/{uploadId}")
+    @Operation(summary = "取消分片上传", description = "删除已上传的分片")
+    public Result<Boolean> abortUpload(@PathVariable String uploadId) {
+        if (!chunkUploadService.abort(uploadId)) {
+            return Result.fail("上传不存在或已结束: " + uploadId);
+        }
+        return Result.ok(true);
+    }
+
+    /**
+     * 查询任务进度
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "查询导入任务进度", description = "返回解析、新增、更新、跳过行数及速率和预计剩余时间")
+    public Result<ImportJobDTO> getProgress(@PathVariable Long jobId) {
+        ImportJobDTO dto = importJobService.getProgress(jobId);
+        if (dto == null) {
+            return Result.fail(404, "导入任务不存在: " + jobId);
+        }
+        return Result.ok(dto);
+    }
+
+    /**
+     * 取消任务
+     */
+    @PostMapping("/{jobId}/cancel")
+    @Operation(summary = "取消导入任务", description = "排队中的任务直接取消，运行中的任务中止并回滚")
+    public Result<Boolean> cancel(@PathVariable Long jobId) {
+        if (!importJobService.cancel(jobId)) {
+            return Result.fail("任务不存在或已结束: " + jobId);
+        }
+        return Result.ok(true);
+    }
+
+    /**
+     * 查询导入历史
+     */
+    @GetMapping("/history")
+    @Operation(summary = "查询导入历史", description = "按提交时间倒序返回最近的导入任务")
+    public Result<List<ImportJob>> history(@RequestParam(value = "limit", defaultValue = "20") Integer limit) {
+        return Result.ok(importJobService.listRecent(limit));
+    }
+
+    /**
+     * 写入批次指标
+     */
+    @GetMapping("/batch-stats")
+    @Operation(summary = "查询写入批次指标", description = "返回各类数据当前的自适应批次大小、每批写入耗时和吞吐量")
+    public Result<List<BatchSizeStatsDTO>> batchStats() {
+        return Result.ok(importExecutor.batchSizeStats());
+    }
+
+    private Result<Long> submit(ImportJob.JobType jobType, MultipartFile file, boolean force) {
+        try {
+            return Result.ok(importJobService.submit(jobType, file, force));
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
+        } catch (Exception e) {
+            log.error("提交导入任务失败", e);
+            return Result.fail("提交失败: " + e.getMessage());
+        }
+    }
+}
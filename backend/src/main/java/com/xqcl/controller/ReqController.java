@@ -2,12 +2,27 @@ package com.xqcl.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xqcl.common.Result;
+import com.xqcl.dto.CacheStatsDTO;
+import com.xqcl.dto.CombinedImportResultDTO;
+import com.xqcl.dto.CountedPageDTO;
+import com.xqcl.dto.CursorPageDTO;
 import com.xqcl.dto.ExportMarkdownDTO;
+import com.xqcl.dto.FacetResultDTO;
+import com.xqcl.dto.ImportResultDTO;
 import com.xqcl.dto.QueryReqDTO;
+import com.xqcl.dto.ReqDetailHitDTO;
+import com.xqcl.dto.ReqListSummaryDTO;
+import com.xqcl.dto.WorkloadQueryDTO;
+import com.xqcl.dto.WorkloadRollupDTO;
+import com.xqcl.entity.ImportJob;
 import com.xqcl.entity.ReqDetail;
 import com.xqcl.entity.ReqList;
+import com.xqcl.service.ImportJobService;
+import com.xqcl.service.ReqAnalyticsService;
 import com.xqcl.service.ReqDetailService;
+import com.xqcl.service.ReqFacetService;
 import com.xqcl.service.ReqListService;
+import com.xqcl.service.ReqLookupCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
@@ -39,14 +54,104 @@ public class ReqController {
     @Autowired
     private ReqDetailService reqDetailService;
 
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ReqFacetService reqFacetService;
+
+    @Autowired
+    private ReqAnalyticsService reqAnalyticsService;
+
+    @Autowired
+    private ReqLookupCache reqLookupCache;
+
     /**
      * 分页查询需求列表
      */
     @PostMapping("/list/page")
-    @Operation(summary = "分页查询需求列表", description = "支持多条件筛选")
-    public Result<Page<ReqList>> pageQuery(@RequestBody QueryReqDTO dto) {
-        Page<ReqList> page = reqListService.pageQuery(dto);
-        return Result.ok(page);
+    @Operation(summary = "分页查询需求列表", description = "支持多条件筛选；countStrategy 指定总条数统计方式，返回结果中注明总条数的来源；"
+            + "fields 指定只查询的字段")
+    public Result<CountedPageDTO<ReqList>> pageQuery(@RequestBody QueryReqDTO dto) {
+        try {
+            CountedPageDTO<ReqList> page = reqListService.pageQuery(dto);
+            return Result.ok(page);
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 分页查询需求列表摘要
+     */
+    @PostMapping("/list/page/summary")
+    @Operation(summary = "分页查询需求列表摘要", description = "条件和分页同分页查询，只返回列表页表格展示的列")
+    public Result<CountedPageDTO<ReqListSummaryDTO>> pageSummary(@RequestBody QueryReqDTO dto) {
+        return Result.ok(reqListService.pageSummary(dto));
+    }
+
+    /**
+     * 需求列表筛选项计数
+     */
+    @PostMapping("/list/facets")
+    @Operation(summary = "需求列表筛选项计数", description = "状态、行业、区域、产品系列、负责人部门各自条数最多的取值；"
+            + "每个筛选项的计数应用其余条件，不应用自身的条件")
+    public Result<FacetResultDTO> facets(@RequestBody QueryReqDTO dto,
+                                         @RequestParam(value = "top", defaultValue = "20") int top) {
+        return Result.ok(reqFacetService.facets(dto, top));
+    }
+
+    /**
+     * 游标分页查询需求列表
+     */
+    @PostMapping("/list/page/cursor")
+    @Operation(summary = "游标分页查询需求列表", description = "按提交时间倒序的键集分页，传入上一次返回的 nextCursor/prevCursor 翻页，"
+            + "深分页耗时与第一页相当；withTotal 为 true 时统计总条数")
+    public Result<CursorPageDTO<ReqList>> cursorQuery(@RequestBody QueryReqDTO dto) {
+        try {
+            return Result.ok(reqListService.cursorQuery(dto));
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 工作量统计
+     */
+    @PostMapping("/analytics/workload")
+    @Operation(summary = "工作量统计", description = "按提交月份、负责人部门、产品线、区域分组统计各工作量字段的条数、合计、平均、最小、最大值；"
+            + "withPercentiles 为 true 时另统计 P50 / P90 / P95")
+    public Result<List<WorkloadRollupDTO>> workload(@RequestBody WorkloadQueryDTO dto) {
+        try {
+            return Result.ok(reqAnalyticsService.workload(dto));
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 查询缓存指标
+     */
+    @GetMapping("/cache/stats")
+    @Operation(summary = "查询缓存指标", description = "按需求评估单号缓存的需求列表、需求详情的条目数、命中和未命中次数")
+    public Result<List<CacheStatsDTO>> cacheStats() {
+        return Result.ok(reqLookupCache.stats());
+    }
+
+    /**
+     * 全文检索需求详情
+     */
+    @GetMapping("/detail/search")
+    @Operation(summary = "全文检索需求详情", description = "检索需求描述、需求场景和研发评估，多个关键词以空格分隔须全部命中；"
+            + "按相关度排序分页，highlights 中为命中字段的高亮片段（<em> 标记）")
+    public Result<Page<ReqDetailHitDTO>> searchDetail(@RequestParam("q") String q,
+                                                     @RequestParam(value = "current", defaultValue = "1") long current,
+                                                     @RequestParam(value = "size", defaultValue = "10") long size) {
+        try {
+            return Result.ok(reqDetailService.search(q, current, size));
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
+        }
     }
 
     /**
@@ -63,11 +168,14 @@ public class ReqController {
      * 导入需求列表 Excel
      */
     @PostMapping("/import/list")
-    @Operation(summary = "导入需求列表 Excel", description = "上传需求列表 Excel 文件进行导入")
-    public Result<Integer> importList(@RequestParam("file") MultipartFile file) {
+    @Operation(summary = "导入需求列表 Excel", description = "上传需求列表 Excel 文件进行导入，相同文件已导入成功时直接返回原结果，force 为 true 时重新导入")
+    public Result<ImportResultDTO> importList(@RequestParam("file") MultipartFile file,
+                                              @RequestParam(value = "force", defaultValue = "false") Boolean force) {
         try {
-            int count = reqListService.importExcel(file);
-            return Result.ok(count);
+            ImportResultDTO result = importJobService.importNow(ImportJob.JobType.LIST, file, force);
+            return Result.ok(result);
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
         } catch (Exception e) {
             log.error("导入需求列表失败", e);
             return Result.fail("导入失败: " + e.getMessage());
@@ -78,17 +186,44 @@ public class ReqController {
      * 导入需求详情 Excel
      */
     @PostMapping("/import/detail")
-    @Operation(summary = "导入需求详情 Excel", description = "上传需求详情 Excel 文件进行导入")
-    public Result<Integer> importDetail(@RequestParam("file") MultipartFile file) {
+    @Operation(summary = "导入需求详情 Excel", description = "上传需求详情 Excel 文件进行导入，相同文件已导入成功时直接返回原结果，force 为 true 时重新导入")
+    public Result<ImportResultDTO> importDetail(@RequestParam("file") MultipartFile file,
+                                                @RequestParam(value = "force", defaultValue = "false") Boolean force) {
         try {
-            int count = reqDetailService.importExcel(file);
-            return Result.ok(count);
+            ImportResultDTO result = importJobService.importNow(ImportJob.JobType.DETAIL, file, force);
+            return Result.ok(result);
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
         } catch (Exception e) {
             log.error("导入需求详情失败", e);
             return Result.fail("导入失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 同时导入需求列表和需求详情
+     */
+    @PostMapping("/import/combined")
+    @Operation(summary = "同时导入需求列表和需求详情",
+            description = "上传 listFile + detailFile 两个文件，或一个包含两个工作表的 file（第 1 个为需求列表，第 2 个为需求详情），"
+                    + "两类数据并行解析和写入；checkReference 为 true 时检查需求详情的需求评估单号是否都在需求列表中；force 为 true 时已导入成功的文件也重新导入")
+    public Result<CombinedImportResultDTO> importCombined(
+            @RequestParam(value = "listFile", required = false) MultipartFile listFile,
+            @RequestParam(value = "detailFile", required = false) MultipartFile detailFile,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "checkReference", defaultValue = "true") Boolean checkReference,
+            @RequestParam(value = "force", defaultValue = "false") Boolean force) {
+        try {
+            CombinedImportResultDTO result = importJobService.importCombined(listFile, detailFile, file, checkReference, force);
+            return Result.ok(result);
+        } catch (IllegalArgumentException e) {
+            return Result.fail(400, e.getMessage());
+        } catch (Exception e) {
+            log.error("合并导入失败", e);
+            return Result.fail("导入失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 导出单个需求的 Markdown 文件（返回文件路径）
      */
@@ -0,0 +1,52 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 导入写入批次指标 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "导入写入批次指标")
+public class BatchSizeStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "数据名称")
+    private String label;
+
+    @Schema(description = "是否自适应调整")
+    private Boolean adaptive;
+
+    @Schema(description = "当前批次大小")
+    private Integer batchSize;
+
+    @Schema(description = "批次下限")
+    private Integer minSize;
+
+    @Schema(description = "批次上限（已按单条语句参数个数收紧）")
+    private Integer maxSize;
+
+    @Schema(description = "每批目标写入耗时（毫秒）")
+    private Long targetMillis;
+
+    @Schema(description = "累计写入批数")
+    private Long batches;
+
+    @Schema(description = "累计写入行数")
+    private Long rows;
+
+    @Schema(description = "最近一批写入耗时（毫秒）")
+    private Double lastLatencyMillis;
+
+    @Schema(description = "平均每批写入耗时（毫秒）")
+    private Double avgLatencyMillis;
+
+    @Schema(description = "写入吞吐量（行/秒，指数滑动平均）")
+    private Double rowsPerSecond;
+}
@@ -0,0 +1,46 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 缓存指标 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "缓存指标")
+public class CacheStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "缓存名称")
+    private String name;
+
+    @Schema(description = "当前条目数")
+    private Integer size;
+
+    @Schema(description = "容量上限")
+    private Integer capacity;
+
+    @Schema(description = "有效期（秒），0 表示不过期")
+    private Long ttlSeconds;
+
+    @Schema(description = "累计命中次数")
+    private Long hits;
+
+    @Schema(description = "累计未命中次数")
+    private Long misses;
+
+    @Schema(description = "命中率")
+    private Double hitRate;
+
+    @Schema(description = "累计按键失效的条目数")
+    private Long invalidations;
+
+    @Schema(description = "累计整体清空次数")
+    private Long flushes;
+}
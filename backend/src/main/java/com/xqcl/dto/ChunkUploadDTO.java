@@ -0,0 +1,41 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 分片上传状态 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "分片上传状态")
+public class ChunkUploadDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "上传ID")
+    private String uploadId;
+
+    @Schema(description = "原始文件名")
+    private String fileName;
+
+    @Schema(description = "文件总大小（字节）")
+    private Long totalSize;
+
+    @Schema(description = "分片大小（字节），最后一片可以更小")
+    private Integer chunkSize;
+
+    @Schema(description = "分片总数")
+    private Integer totalChunks;
+
+    @Schema(description = "已收到的分片序号（从 0 开始），续传时跳过这些分片")
+    private List<Integer> receivedChunks;
+
+    @Schema(description = "已收到的字节数")
+    private Long receivedBytes;
+}
@@ -0,0 +1,41 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 需求列表 + 需求详情合并导入结果 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "合并导入结果")
+public class CombinedImportResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "需求列表导入结果，失败时为空")
+    private ImportResultDTO list;
+
+    @Schema(description = "需求列表导入失败原因")
+    private String listError;
+
+    @Schema(description = "需求详情导入结果，失败时为空")
+    private ImportResultDTO detail;
+
+    @Schema(description = "需求详情导入失败原因")
+    private String detailError;
+
+    @Schema(description = "需求详情中在需求列表里不存在的需求评估单号个数，未检查时为空")
+    private Long orphanReqNoCount;
+
+    @Schema(description = "在需求列表里不存在的需求评估单号（最多 100 个）")
+    private List<String> orphanReqNos;
+
+    @Schema(description = "总耗时（毫秒）")
+    private Long elapsedMillis;
+}
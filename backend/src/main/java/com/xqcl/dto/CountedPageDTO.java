@@ -0,0 +1,29 @@
+package com.xqcl.dto;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.xqcl.config.QueryProperties;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 分页结果，附带总条数的来源
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Getter
+@Setter
+@Schema(description = "分页结果")
+public class CountedPageDTO<T> extends Page<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "总条数的来源：EXACT（精确统计）、CACHED（缓存的精确值）、ESTIMATED（估算值）")
+    private QueryProperties.CountStrategy countStrategy;
+
+    public CountedPageDTO(long current, long size) {
+        // 总条数由 ReqCountService 统计，分页插件不再附带 COUNT 查询
+        super(current, size, false);
+    }
+}
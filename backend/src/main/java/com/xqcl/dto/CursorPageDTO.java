@@ -0,0 +1,45 @@
+package com.xqcl.dto;
+
+import com.xqcl.config.QueryProperties;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "游标分页结果")
+public class CursorPageDTO<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "当前页数据")
+    private List<T> records;
+
+    @Schema(description = "每页大小")
+    private Integer size;
+
+    @Schema(description = "下一页游标，没有下一页时为空")
+    private String nextCursor;
+
+    @Schema(description = "上一页游标，没有上一页时为空")
+    private String prevCursor;
+
+    @Schema(description = "是否有下一页")
+    private Boolean hasNext;
+
+    @Schema(description = "是否有上一页")
+    private Boolean hasPrev;
+
+    @Schema(description = "总条数，未请求时为空")
+    private Long total;
+
+    @Schema(description = "总条数的来源：EXACT（精确统计）、CACHED（缓存的精确值）、ESTIMATED（估算值）")
+    private QueryProperties.CountStrategy countStrategy;
+}
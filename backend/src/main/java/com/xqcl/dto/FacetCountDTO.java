@@ -0,0 +1,25 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 筛选项取值及条数 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "筛选项取值及条数")
+public class FacetCountDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "取值，为空表示未填写")
+    private String value;
+
+    @Schema(description = "条数")
+    private Long count;
+}
@@ -0,0 +1,27 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 筛选项计数结果 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "筛选项计数结果")
+public class FacetResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "计数来源：AGGREGATE（组合计数表）、SCAN（有非筛选项条件时按条件分组统计）")
+    private String source;
+
+    @Schema(description = "各筛选项的取值及条数，键为字段名（status / industry / region / productSeries / ownerDept），按条数倒序")
+    private Map<String, List<FacetCountDTO>> facets;
+}
@@ -0,0 +1,29 @@
+package com.xqcl.dto;
+
+import com.xqcl.entity.ImportJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 导入任务进度 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "导入任务进度")
+public class ImportJobDTO extends ImportJob {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "解析速率（行/秒）")
+    private Double rowsPerSecond;
+
+    @Schema(description = "预计剩余时间（秒），未知为 -1")
+    private Long etaSeconds;
+
+    @Schema(description = "已用时（毫秒）")
+    private Long elapsedMillis;
+}
@@ -0,0 +1,40 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 导入结果 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "导入结果")
+public class ImportResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "导入任务ID")
+    private Long jobId;
+
+    @Schema(description = "相同文件此前已导入成功，本次未重复导入，计数为原任务的结果")
+    private boolean duplicate;
+
+    @Schema(description = "解析行数")
+    private long parsed;
+
+    @Schema(description = "新增条数")
+    private long inserted;
+
+    @Schema(description = "更新条数")
+    private long updated;
+
+    @Schema(description = "未变化条数（内容哈希相同，未写入）")
+    private long unchanged;
+
+    @Schema(description = "跳过行数（空行或解析失败）")
+    private long skipped;
+}
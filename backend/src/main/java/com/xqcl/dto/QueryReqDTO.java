@@ -1,9 +1,11 @@
 package com.xqcl.dto;
 
+import com.xqcl.config.QueryProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * 需求列表查询条件 DTO
@@ -58,4 +60,16 @@ public class QueryReqDTO implements Serializable {
 
     @Schema(description = "每页大小", example = "10")
     private Integer size = 10;
+
+    @Schema(description = "分页游标（游标分页），为空时取第一页")
+    private String cursor;
+
+    @Schema(description = "是否统计总条数（游标分页）", example = "false")
+    private Boolean withTotal = false;
+
+    @Schema(description = "总条数统计方式：EXACT / CACHED / ESTIMATED，为空时使用配置")
+    private QueryProperties.CountStrategy countStrategy;
+
+    @Schema(description = "只查询的字段（实体属性名，如 reqNo、projectName），为空时查询全部字段；未查询的字段返回 null")
+    private List<String> fields;
 }
@@ -0,0 +1,28 @@
+package com.xqcl.dto;
+
+import com.xqcl.entity.ReqDetail;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.Map;
+
+/**
+ * 需求详情全文检索命中
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "需求详情全文检索命中")
+public class ReqDetailHitDTO extends ReqDetail {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "相关度得分（需求描述 > 需求场景 > 研发评估）")
+    private Double score;
+
+    @Schema(description = "高亮片段，键为字段名（reqDesc / reqScene / rdEval），命中处用 <em> 标记")
+    private Map<String, String> highlights;
+}
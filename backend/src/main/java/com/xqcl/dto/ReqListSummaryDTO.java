@@ -0,0 +1,86 @@
+package com.xqcl.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 需求列表摘要 DTO（列表页表格展示的列）
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "需求列表摘要")
+public class ReqListSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "需求评估单号")
+    private String reqNo;
+
+    @Schema(description = "项目名称")
+    private String projectName;
+
+    @Schema(description = "商机编号")
+    private String opportunityNo;
+
+    @Schema(description = "行业")
+    private String industry;
+
+    @Schema(description = "区域")
+    private String region;
+
+    @Schema(description = "产品系列")
+    private String productSeries;
+
+    @Schema(description = "软件版本")
+    private String softwareVersion;
+
+    @Schema(description = "状态")
+    private String status;
+
+    @Schema(description = "需求负责人")
+    private String reqOwner;
+
+    @Schema(description = "负责人所属部门")
+    private String ownerDept;
+
+    @Schema(description = "开发单号")
+    private String devNo;
+
+    @Schema(description = "JKN单号")
+    private String jknNo;
+
+    @Schema(description = "评估单提交时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime submitTime;
+
+    @Schema(description = "总工作量（人天）")
+    private BigDecimal totalWorkload;
+
+    @Schema(description = "开发资源分布总部工作量(人天)")
+    private BigDecimal devHqWorkload;
+
+    @Schema(description = "开发资源分布区域工作量(人天)")
+    private BigDecimal devRegionWorkload;
+
+    @Schema(description = "总订单核算工作量")
+    private BigDecimal totalOrderWorkload;
+
+    @Schema(description = "订单总部工作量")
+    private BigDecimal orderHqWorkload;
+
+    @Schema(description = "订单区域工作量")
+    private BigDecimal orderRegionWorkload;
+
+    @Schema(description = "集成测试工作量")
+    private BigDecimal integrationTestWorkload;
+
+    @Schema(description = "其他工作量详情")
+    private String otherWorkloadDetail;
+}
@@ -0,0 +1,36 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 新增或更新结果
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "新增或更新结果")
+public class UpsertResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "新增条数")
+    private long inserted;
+
+    @Schema(description = "更新条数")
+    private long updated;
+
+    @Schema(description = "未变化条数（内容哈希相同，未写入）")
+    private long unchanged;
+
+    public UpsertResult(long inserted, long updated) {
+        this(inserted, updated, 0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 工作量统计条件 DTO
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "工作量统计条件")
+public class WorkloadQueryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "分组维度：month（提交月份）/ ownerDept / productLine / region，为空时不分组")
+    private List<String> groupBy;
+
+    @Schema(description = "统计的工作量指标（实体属性名，如 totalWorkload、devHqWorkload），为空时统计全部工作量字段")
+    private List<String> metrics;
+
+    @Schema(description = "提交月份起（含），格式 yyyy-MM", example = "2024-01")
+    private String startMonth;
+
+    @Schema(description = "提交月份止（含），格式 yyyy-MM", example = "2024-12")
+    private String endMonth;
+
+    @Schema(description = "负责人所属部门（等值匹配）")
+    private String ownerDept;
+
+    @Schema(description = "产品线（等值匹配）")
+    private String productLine;
+
+    @Schema(description = "区域（等值匹配）")
+    private String region;
+
+    @Schema(description = "是否统计分位数（P50 / P90 / P95），分位数按明细计算，耗时高于只取合计", example = "false")
+    private Boolean withPercentiles = false;
+}
@@ -0,0 +1,59 @@
+package com.xqcl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * 工作量统计结果 DTO（一个分组的一个工作量指标）
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@Schema(description = "工作量统计结果")
+public class WorkloadRollupDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "提交月份（yyyy-MM），未按月份分组或提交时间为空时为空")
+    private String month;
+
+    @Schema(description = "负责人所属部门，未按此维度分组或未填写时为空")
+    private String ownerDept;
+
+    @Schema(description = "产品线，未按此维度分组或未填写时为空")
+    private String productLine;
+
+    @Schema(description = "区域，未按此维度分组或未填写时为空")
+    private String region;
+
+    @Schema(description = "工作量指标（实体属性名）")
+    private String metric;
+
+    @Schema(description = "有值的需求条数")
+    private Long count;
+
+    @Schema(description = "合计（人天）")
+    private BigDecimal sum;
+
+    @Schema(description = "平均值（人天）")
+    private BigDecimal avg;
+
+    @Schema(description = "最小值（人天）")
+    private BigDecimal min;
+
+    @Schema(description = "最大值（人天）")
+    private BigDecimal max;
+
+    @Schema(description = "中位数（人天），未统计分位数时为空")
+    private BigDecimal p50;
+
+    @Schema(description = "P90（人天），未统计分位数时为空")
+    private BigDecimal p90;
+
+    @Schema(description = "P95（人天），未统计分位数时为空")
+    private BigDecimal p95;
+}
@@ -0,0 +1,113 @@
+package com.xqcl.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 导入任务实体类
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Data
+@TableName("import_job")
+@Schema(description = "导入任务")
+public class ImportJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 任务类型
+     */
+    public enum JobType {
+        /**
+         * 需求列表
+         */
+        LIST,
+        /**
+         * 需求详情
+         */
+        DETAIL
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        PENDING, RUNNING, SUCCESS, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCESS || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    @Schema(description = "任务ID")
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    @Schema(description = "任务类型")
+    private JobType jobType;
+
+    @Schema(description = "原始文件名")
+    private String fileName;
+
+    @Schema(description = "上传文件存储路径")
+    private String filePath;
+
+    @Schema(description = "文件 SHA-256 指纹")
+    private String fileHash;
+
+    @Schema(description = "任务状态")
+    private Status status;
+
+    @Schema(description = "数据总行数（不含表头），未知为 -1")
+    private Long totalRows;
+
+    @Schema(description = "已解析行数")
+    private Long parsedRows;
+
+    @Schema(description = "新增行数")
+    private Long insertedRows;
+
+    @Schema(description = "更新行数")
+    private Long updatedRows;
+
+    @Schema(description = "未变化行数（内容哈希相同，未写入）")
+    private Long unchangedRows;
+
+    @Schema(description = "跳过行数")
+    private Long skippedRows;
+
+    @Schema(description = "检查点：已提交的最后一行 Excel 行号（CHECKPOINT 写入模式），0 表示尚未提交")
+    private Long checkpointRow;
+
+    @Schema(description = "失败原因")
+    private String errorMessage;
+
+    @Schema(description = "开始时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "结束时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "创建时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    @Schema(description = "更新时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
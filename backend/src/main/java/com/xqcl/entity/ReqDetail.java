@@ -6,10 +6,13 @@ import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.xqcl.handler.DictionaryStringTypeHandler;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * 需求详情实体类
@@ -18,7 +21,7 @@ import java.io.Serializable;
  * @since 2024-01-15
  */
 @Data
-@TableName("req_detail")
+@TableName(value = "req_detail", autoResultMap = true)
 @Schema(description = "需求详情")
 public class ReqDetail implements Serializable {
 
@@ -41,18 +44,23 @@ public class ReqDetail implements Serializable {
     private String opportunityNo;
 
     @Schema(description = "行业")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String industry;
 
     @Schema(description = "子行业")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String subIndustry;
 
     @Schema(description = "区域")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String region;
 
     @Schema(description = "产品线")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String productLine;
 
     @Schema(description = "产品系列")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String productSeries;
 
     @Schema(description = "产品型号")
@@ -65,6 +73,7 @@ public class ReqDetail implements Serializable {
     private String softwareVersion;
 
     @Schema(description = "状态")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String status;
 
     @Schema(description = "需求场景")
@@ -83,70 +92,86 @@ public class ReqDetail implements Serializable {
     private String componentVersion;
 
     @Schema(description = "需求分类")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String reqCategory;
 
     @Schema(description = "需求标签")
     private String reqTag;
 
     @Schema(description = "是否复用方案")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String isReuse;
 
     @Schema(description = "评估单创建人")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String creator;
 
     @Schema(description = "需求负责人")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String reqOwner;
 
     @Schema(description = "负责人所属部门")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String ownerDept;
 
     @Schema(description = "评估人")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String evaluator;
 
     @Schema(description = "评估人所属部门")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String evaluatorDept;
 
     @Schema(description = "评估单创建时间")
-    private String createTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
 
     @Schema(description = "评估单提交时间")
-    private String submitTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime submitTime;
 
     @Schema(description = "评估单完成时间")
-    private String completeTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime completeTime;
 
     @Schema(description = "组件评估开始时间")
-    private String componentEvalStartTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime componentEvalStartTime;
 
     @Schema(description = "组件评估完成时间")
-    private String componentEvalEndTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime componentEvalEndTime;
 
     @Schema(description = "组件评估周期")
     private String componentEvalCycle;
 
     @Schema(description = "评估用时(h)")
-    private String evalHours;
+    private BigDecimal evalHours;
 
     @Schema(description = "停留时间")
-    private String stayTime;
+    private BigDecimal stayTime;
 
     @Schema(description = "评估工作量")
-    private String evalWorkload;
+    private BigDecimal evalWorkload;
 
     @Schema(description = "工作量详情")
     private String workloadDetail;
 
     @Schema(description = "排期开始时间（研发评估）")
-    private String rdScheduleStartTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime rdScheduleStartTime;
 
     @Schema(description = "排期结束时间（研发评估）")
-    private String rdScheduleEndTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime rdScheduleEndTime;
 
     @Schema(description = "排期开始时间")
-    private String scheduleStartTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime scheduleStartTime;
 
     @Schema(description = "排期结束时间")
-    private String scheduleEndTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime scheduleEndTime;
 
     @Schema(description = "定制单号")
     private String customNo;
@@ -154,6 +179,9 @@ public class ReqDetail implements Serializable {
     @Schema(description = "开发单号")
     private String devNo;
 
+    @Schema(description = "业务字段内容哈希（重复导入时识别未变化的行）")
+    private String contentHash;
+
     @Schema(description = "创建时间")
     @TableField(fill = FieldFill.INSERT)
     private String createdAt;
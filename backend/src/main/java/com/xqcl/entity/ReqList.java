@@ -1,10 +1,14 @@
 package com.xqcl.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.xqcl.handler.DictionaryStringTypeHandler;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * 需求列表实体类
@@ -13,7 +17,7 @@ import java.io.Serializable;
  * @since 2024-01-15
  */
 @Data
-@TableName("req_list")
+@TableName(value = "req_list", autoResultMap = true)
 @Schema(description = "需求列表")
 public class ReqList implements Serializable {
 
@@ -30,21 +34,27 @@ public class ReqList implements Serializable {
     private String opportunityNo;
 
     @Schema(description = "行业")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String industry;
 
     @Schema(description = "子行业")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String subIndustry;
 
     @Schema(description = "区域")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String region;
 
     @Schema(description = "国家或地区")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String country;
 
     @Schema(description = "产品线")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String productLine;
 
     @Schema(description = "产品系列")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String productSeries;
 
     @Schema(description = "产品型号")
@@ -57,103 +67,123 @@ public class ReqList implements Serializable {
     private String softwareVersion;
 
     @Schema(description = "状态")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String status;
 
     @Schema(description = "是否排期")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String isScheduled;
 
     @Schema(description = "是否复用方案")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String isReuse;
 
     @Schema(description = "紧急程度")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String urgency;
 
     @Schema(description = "评估类型")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String evalType;
 
     @Schema(description = "评估单创建人")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String creator;
 
     @Schema(description = "创建人部门")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String creatorDept;
 
     @Schema(description = "需求负责人")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String reqOwner;
 
     @Schema(description = "负责人所属部门")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String ownerDept;
 
     @Schema(description = "当前处理人")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String currentHandler;
 
     @Schema(description = "评估单创建时间")
-    private String createTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
 
     @Schema(description = "评估单提交时间")
-    private String submitTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime submitTime;
 
     @Schema(description = "最后提交时间")
-    private String lastSubmitTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastSubmitTime;
 
     @Schema(description = "评估时间")
-    private String evalTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime evalTime;
 
     @Schema(description = "最后评估时间")
-    private String lastEvalTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastEvalTime;
 
     @Schema(description = "总评估用时（小时）")
-    private String totalEvalHours;
+    private BigDecimal totalEvalHours;
 
     @Schema(description = "评估停留时间（天）")
-    private String evalStayDays;
+    private BigDecimal evalStayDays;
 
     @Schema(description = "排期开始时间")
-    private String scheduleStartTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime scheduleStartTime;
 
     @Schema(description = "排期结束时间")
-    private String scheduleEndTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime scheduleEndTime;
 
     @Schema(description = "总工作量（人天）")
-    private String totalWorkload;
+    private BigDecimal totalWorkload;
 
     @Schema(description = "开发资源分布总部工作量(人天)")
-    private String devHqWorkload;
+    private BigDecimal devHqWorkload;
 
     @Schema(description = "开发资源分布区域")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String devRegion;
 
     @Schema(description = "开发资源分布区域工作量(人天)")
-    private String devRegionWorkload;
+    private BigDecimal devRegionWorkload;
 
     @Schema(description = "总订单核算工作量（人天）")
-    private String totalOrderWorkload;
+    private BigDecimal totalOrderWorkload;
 
     @Schema(description = "订单核算总部工作量(人天)")
-    private String orderHqWorkload;
+    private BigDecimal orderHqWorkload;
 
     @Schema(description = "订单核算区域")
+    @TableField(typeHandler = DictionaryStringTypeHandler.class)
     private String orderRegion;
 
     @Schema(description = "订单核算区域工作量(人天)")
-    private String orderRegionWorkload;
+    private BigDecimal orderRegionWorkload;
 
     @Schema(description = "系统测试工作量（人天）")
-    private String systemTestWorkload;
+    private BigDecimal systemTestWorkload;
 
     @Schema(description = "集成测试工作量（人天）")
-    private String integrationTestWorkload;
+    private BigDecimal integrationTestWorkload;
 
     @Schema(description = "学习成本工作量（人天）")
-    private String learningCostWorkload;
+    private BigDecimal learningCostWorkload;
 
     @Schema(description = "流程管理工作量（人天）")
-    private String processManageWorkload;
+    private BigDecimal processManageWorkload;
 
     @Schema(description = "其他工作量详情")
     private String otherWorkloadDetail;
 
     @Schema(description = "期望完成时间")
-    private String expectedCompleteTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime expectedCompleteTime;
 
     @Schema(description = "定制单号")
     private String customNo;
@@ -164,6 +194,9 @@ public class ReqList implements Serializable {
     @Schema(description = "开发单号")
     private String devNo;
 
+    @Schema(description = "业务字段内容哈希（重复导入时识别未变化的行）")
+    private String contentHash;
+
     @Schema(description = "创建时间")
     @TableField(fill = FieldFill.INSERT)
     private String createdAt;
@@ -0,0 +1,44 @@
+package com.xqcl.handler;
+
+import com.xqcl.util.StringDictionary;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 低基数字符串字段类型处理器：读取时通过当前结果集的字典去重，写入同普通字符串
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class DictionaryStringTypeHandler extends BaseTypeHandler<String> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setString(i, parameter);
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return intern(rs.getString(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return intern(rs.getString(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return intern(cs.getString(columnIndex));
+    }
+
+    private static String intern(String value) {
+        StringDictionary dictionary = StringDictionary.current();
+        return dictionary == null ? value : dictionary.intern(value);
+    }
+}
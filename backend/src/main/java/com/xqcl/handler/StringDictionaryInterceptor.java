@@ -0,0 +1,26 @@
+package com.xqcl.handler;
+
+import com.xqcl.util.StringDictionary;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.sql.Statement;
+
+/**
+ * 结果集映射期间为当前线程绑定一个字符串字典，供 {@link DictionaryStringTypeHandler} 使用，
+ * 同一次查询结果中的重复取值共用一个实例，映射结束即释放
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Intercepts(@Signature(type = ResultSetHandler.class, method = "handleResultSets", args = Statement.class))
+public class StringDictionaryInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        return StringDictionary.withCurrent(invocation::proceed);
+    }
+}
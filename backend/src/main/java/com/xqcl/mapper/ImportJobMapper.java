@@ -0,0 +1,15 @@
+package com.xqcl.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xqcl.entity.ImportJob;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 导入任务 Mapper 接口
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Mapper
+public interface ImportJobMapper extends BaseMapper<ImportJob> {
+}
@@ -1,8 +1,13 @@
 package com.xqcl.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xqcl.dto.ReqDetailHitDTO;
+import com.xqcl.dto.UpsertResult;
 import com.xqcl.entity.ReqDetail;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 需求详情 Mapper 接口
@@ -12,4 +17,43 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface ReqDetailMapper extends BaseMapper<ReqDetail> {
+
+    /**
+     * 批量新增或更新（多行 INSERT ... ON CONFLICT (req_no, req_name) DO UPDATE）
+     * <p>
+     * 同一条语句内不能出现重复键，调用方需先按键去重
+     *
+     * @param list 数据列表
+     * @return 新增和更新条数
+     */
+    UpsertResult upsertBatch(@Param("list") List<ReqDetail> list);
+
+    /**
+     * 需求评估单号在 req_list 中不存在的需求详情单号个数（去重，忽略空单号）
+     */
+    long countOrphanReqNos();
+
+    /**
+     * 需求评估单号在 req_list 中不存在的需求详情单号（去重，忽略空单号）
+     *
+     * @param limit 最多返回个数
+     */
+    List<String> selectOrphanReqNos(@Param("limit") int limit);
+
+    /**
+     * 全文检索命中条数
+     *
+     * @param tsQuery to_tsquery('simple', ...) 查询表达式
+     */
+    long countSearch(@Param("tsQuery") String tsQuery);
+
+    /**
+     * 全文检索，按相关度排序分页
+     *
+     * @param tsQuery to_tsquery('simple', ...) 查询表达式
+     * @param offset  跳过条数
+     * @param limit   返回条数
+     */
+    List<ReqDetailHitDTO> selectSearch(@Param("tsQuery") String tsQuery, @Param("offset") long offset,
+                                       @Param("limit") long limit);
 }
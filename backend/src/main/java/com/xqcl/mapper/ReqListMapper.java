@@ -1,8 +1,20 @@
 package com.xqcl.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.xqcl.dto.FacetCountDTO;
+import com.xqcl.dto.ReqListSummaryDTO;
+import com.xqcl.dto.UpsertResult;
+import com.xqcl.dto.WorkloadQueryDTO;
+import com.xqcl.dto.WorkloadRollupDTO;
 import com.xqcl.entity.ReqList;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * 需求列表 Mapper 接口
@@ -12,4 +24,108 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface ReqListMapper extends BaseMapper<ReqList> {
+
+    /**
+     * 批量新增或更新（多行 INSERT ... ON CONFLICT (req_no) DO UPDATE）
+     * <p>
+     * 同一条语句内不能出现重复键，调用方需先按键去重
+     *
+     * @param list 数据列表
+     * @return 新增和更新条数
+     */
+    UpsertResult upsertBatch(@Param("list") List<ReqList> list);
+
+    /**
+     * 表的估算行数（pg_class.reltuples，由 ANALYZE/VACUUM 维护）
+     */
+    long estimateRows();
+
+    /**
+     * 按条件查询的执行计划（EXPLAIN FORMAT JSON），用于估算结果行数
+     *
+     * @param wrapper 筛选条件
+     */
+    String explainSelect(@Param(Constants.WRAPPER) Wrapper<ReqList> wrapper);
+
+    /**
+     * 分页查询摘要列
+     *
+     * @param page    分页参数
+     * @param wrapper 筛选和排序条件
+     */
+    IPage<ReqListSummaryDTO> selectSummaryPage(IPage<ReqListSummaryDTO> page,
+                                               @Param(Constants.WRAPPER) Wrapper<ReqList> wrapper);
+
+    /**
+     * 从组合计数表（含未合并的增量）统计一个筛选项的取值及条数
+     *
+     * @param column  筛选项列名（调用方保证为合法列名）
+     * @param wrapper 其余筛选项的条件，只能引用筛选项列
+     * @param limit   返回条数最多的前 limit 个取值
+     */
+    List<FacetCountDTO> selectFacetCounts(@Param("column") String column,
+                                          @Param(Constants.WRAPPER) Wrapper<ReqList> wrapper,
+                                          @Param("limit") int limit);
+
+    /**
+     * 按条件对需求列表分组统计一个筛选项的取值及条数
+     *
+     * @param column  筛选项列名（调用方保证为合法列名）
+     * @param wrapper 查询条件
+     * @param limit   返回条数最多的前 limit 个取值
+     */
+    List<FacetCountDTO> scanFacetCounts(@Param("column") String column,
+                                        @Param(Constants.WRAPPER) Wrapper<ReqList> wrapper,
+                                        @Param("limit") int limit);
+
+    /**
+     * 把筛选项计数增量合并进计数表（事务级咨询锁，另一个合并进行中时不处理）
+     *
+     * @return 合并的组合数
+     */
+    int foldFacetDelta();
+
+    /**
+     * 删除条数已为 0 的组合
+     */
+    int deleteEmptyFacets();
+
+    /**
+     * 从月度汇总表按维度再聚合工作量（条数、合计、平均、最小、最大）
+     *
+     * @param groups  分组列（调用方保证为合法列名：month / owner_dept / product_line / region）
+     * @param metrics 工作量指标
+     * @param from    提交月份起（含），为 null 不限
+     * @param to      提交月份止（不含），为 null 不限
+     * @param query   部门、产品线、区域等值条件
+     */
+    List<WorkloadRollupDTO> selectWorkloadRollup(@Param("groups") List<String> groups,
+                                                 @Param("metrics") List<String> metrics,
+                                                 @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to,
+                                                 @Param("q") WorkloadQueryDTO query);
+
+    /**
+     * 从工作量明细统计，其余参数同 selectWorkloadRollup
+     *
+     * @param percentiles 是否统计分位数
+     */
+    List<WorkloadRollupDTO> selectWorkloadFacts(@Param("groups") List<String> groups,
+                                                @Param("metrics") List<String> metrics,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("q") WorkloadQueryDTO query,
+                                                @Param("percentiles") boolean percentiles);
+
+    /**
+     * 是否有尚未重算汇总的月份
+     */
+    boolean hasDirtyWorkloadMonths();
+
+    /**
+     * 重算待刷新月份的工作量汇总（事务级咨询锁，另一个刷新进行中时不处理）
+     *
+     * @return 写入的汇总行数
+     */
+    int refreshWorkloadRollup();
 }
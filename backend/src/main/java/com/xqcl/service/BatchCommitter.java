@@ -0,0 +1,134 @@
+package com.xqcl.service;
+
+import com.xqcl.dto.UpsertResult;
+import com.xqcl.util.ImportCheckpoint;
+import com.xqcl.util.ImportProgress;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.function.Supplier;
+
+/**
+ * 按提交策略分组提交导入批次
+ * <p>
+ * 第一批写入时开启事务，累计到指定批数后提交（同一事务内先记录检查点），
+ * 批数为 0 时整个导入一个事务。写入计数在提交后才累加到导入进度，失败时进度中只有已提交的部分。
+ * 只能在解析线程中使用（事务绑定在当前线程）。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+public class BatchCommitter {
+
+    private final PlatformTransactionManager transactionManager;
+    private final String label;
+    private final ImportProgress progress;
+    private final ImportCheckpoint checkpoint;
+    private final int batchesPerCommit;
+    private final Runnable onCommit;
+
+    private TransactionStatus transaction;
+    private UpsertResult pending = new UpsertResult();
+    private int pendingBatches;
+    private int lastRowNum;
+
+    /**
+     * 已提交的最后一行 Excel 行号，尚未提交时为续传起点
+     */
+    private int committedRowNum;
+    private int commits;
+
+    BatchCommitter(PlatformTransactionManager transactionManager, String label, ImportProgress progress,
+                   ImportCheckpoint checkpoint, int batchesPerCommit, Runnable onCommit) {
+        this.transactionManager = transactionManager;
+        this.label = label;
+        this.progress = progress;
+        this.checkpoint = checkpoint;
+        this.batchesPerCommit = batchesPerCommit;
+        this.onCommit = onCommit;
+        this.committedRowNum = Math.max(checkpoint.getResumeAfterRow(), 1);
+    }
+
+    /**
+     * 在当前事务中写入一批，达到批数后提交
+     *
+     * @param lastRowNum 本批最后一行的 Excel 行号
+     * @param work       写入本批，返回新增/更新结果
+     */
+    public void write(int lastRowNum, Supplier<UpsertResult> work) {
+        if (transaction == null) {
+            transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        }
+        UpsertResult result = work.get();
+        pending.setInserted(pending.getInserted() + result.getInserted());
+        pending.setUpdated(pending.getUpdated() + result.getUpdated());
+        pending.setUnchanged(pending.getUnchanged() + result.getUnchanged());
+        pendingBatches++;
+        this.lastRowNum = lastRowNum;
+
+        if (batchesPerCommit > 0 && pendingBatches >= batchesPerCommit) {
+            commit();
+        }
+    }
+
+    /**
+     * 解析结束，提交剩余批次
+     */
+    public void finish() {
+        if (transaction != null) {
+            commit();
+        }
+    }
+
+    /**
+     * 失败时回滚未提交的批次，并把已提交的行范围记录到导入进度
+     */
+    public void rollback() {
+        if (transaction != null) {
+            try {
+                transactionManager.rollback(transaction);
+            } catch (RuntimeException e) {
+                log.warn("回滚{}导入事务失败: {}", label, e.getMessage());
+            }
+            transaction = null;
+        }
+        String report = report();
+        progress.setCommitReport(report);
+        log.error("{}导入中断，{}", label, report);
+    }
+
+    /**
+     * 已提交行范围说明，如“已提交第 2-50001 行（100 次提交），第 50002 行起未提交”
+     */
+    public String report() {
+        int firstRowNum = Math.max(checkpoint.getResumeAfterRow(), 1) + 1;
+        if (commits == 0) {
+            return firstRowNum > 2
+                    ? "本次未提交任何批次，第 " + firstRowNum + " 行起未提交（第 " + (firstRowNum - 1) + " 行及之前已在上次导入中提交）"
+                    : "未提交任何批次，全部回滚";
+        }
+        return "已提交第 " + firstRowNum + "-" + committedRowNum + " 行（" + commits + " 次提交，新增 "
+                + progress.getInsertedRows() + " 条，更新 " + progress.getUpdatedRows() + " 条），第 "
+                + (committedRowNum + 1) + " 行起未提交";
+    }
+
+    private void commit() {
+        checkpoint.commit(lastRowNum, pending);
+        TransactionStatus current = transaction;
+        transaction = null;
+        transactionManager.commit(current);
+        onCommit.run();
+
+        progress.addUpsert(pending);
+        committedRowNum = lastRowNum;
+        commits++;
+        pending = new UpsertResult();
+        pendingBatches = 0;
+        if (batchesPerCommit > 0) {
+            log.debug("{}已提交至第 {} 行", label, committedRowNum);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.xqcl.service;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.xqcl.config.ExcelImportProperties;
+import com.xqcl.dto.ChunkUploadDTO;
+import com.xqcl.entity.ImportJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 分片上传 Service
+ * <p>
+ * 客户端先登记文件大小和分片大小，再按分片序号逐片上传请求体；每片用 FileChannel 直接写到
+ * 临时文件中对应的偏移处，不经过 multipart 解析和内存缓冲。分片可重发、可乱序、可并行，
+ * 网络中断后查询已收到的分片序号，只补传缺少的分片。全部收齐后临时文件链接到上传目录，按路径提交导入任务；
+ * 提交成功后才删除临时文件，提交失败可直接重试。
+ * 上传状态保存在内存中，服务重启后未完成的上传需要重新开始。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+public class ChunkUploadService {
+
+    private static final String PART_SUFFIX = ".part";
+
+    /**
+     * 单个文件的分片数上限
+     */
+    private static final int MAX_CHUNKS = 100_000;
+
+    @Autowired
+    private ExcelImportProperties importProperties;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Value("${app.excel-upload-dir:./temp/excel}")
+    private String excelUploadDir;
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    private File chunkDir;
+
+    @PostConstruct
+    public void init() {
+        chunkDir = FileUtil.mkdir(new File(excelUploadDir, "chunks").getAbsoluteFile());
+        // 上次进程留下的临时文件已无法续传
+        File[] orphans = chunkDir.listFiles((dir, name) -> name.endsWith(PART_SUFFIX));
+        if (orphans != null && orphans.length > 0) {
+            for (File orphan : orphans) {
+                FileUtil.del(orphan);
+            }
+            log.warn("清理未完成的分片上传临时文件: {} 个", orphans.length);
+        }
+    }
+
+    /**
+     * 登记分片上传
+     *
+     * @param fileName  原始文件名
+     * @param totalSize 文件总大小（字节）
+     * @param chunkSize 分片大小（字节），最后一片可以更小
+     */
+    public ChunkUploadDTO init(String fileName, long totalSize, int chunkSize) throws IOException {
+        if (totalSize <= 0 || totalSize > importProperties.getUploadMaxSize()) {
+            throw new IllegalArgumentException("文件大小超出范围: " + totalSize + "，上限 " + importProperties.getUploadMaxSize());
+        }
+        if (chunkSize <= 0 || chunkSize > importProperties.getUploadChunkMaxSize()) {
+            throw new IllegalArgumentException("分片大小超出范围: " + chunkSize + "，上限 " + importProperties.getUploadChunkMaxSize());
+        }
+        if ((totalSize + chunkSize - 1) / chunkSize > MAX_CHUNKS) {
+            throw new IllegalArgumentException("分片过多，请增大分片大小，分片数上限 " + MAX_CHUNKS);
+        }
+        purgeExpired();
+
+        String uploadId = IdUtil.fastSimpleUUID();
+        File part = new File(chunkDir, uploadId + PART_SUFFIX);
+        // 预先扩展到文件总大小：FileChannel.transferFrom 的写入位置超出文件末尾时不写入任何内容，
+        // 先到的靠后分片须落在已有长度之内
+        try (RandomAccessFile file = new RandomAccessFile(part, "rw")) {
+            file.setLength(totalSize);
+        }
+        Upload upload = new Upload(uploadId, StrUtil.blankToDefault(fileName, uploadId + ".xlsx"), part, totalSize, chunkSize);
+        uploads.put(uploadId, upload);
+        log.info("登记分片上传: id={}, file={}, size={}, chunks={}", uploadId, upload.fileName, totalSize, upload.totalChunks);
+        return upload.toDTO();
+    }
+
+    /**
+     * 上传状态，续传时据此跳过已收到的分片
+     */
+    public ChunkUploadDTO status(String uploadId) {
+        return get(uploadId).toDTO();
+    }
+
+    /**
+     * 写入一个分片：请求体按分片大小写到临时文件的对应偏移处，重发的分片覆盖原内容
+     *
+     * @param uploadId 上传ID
+     * @param index    分片序号（从 0 开始）
+     * @param body     请求体输入流
+     */
+    public ChunkUploadDTO writeChunk(String uploadId, int index, InputStream body) throws IOException {
+        Upload upload = get(uploadId);
+        if (upload.isCompleting()) {
+            throw new IllegalStateException("上传正在提交，不能再写入分片: " + uploadId);
+        }
+        if (index < 0 || index >= upload.totalChunks) {
+            throw new IllegalArgumentException("分片序号超出范围: " + index + "，共 " + upload.totalChunks + " 片");
+        }
+        long position = (long) index * upload.chunkSize;
+        long expected = Math.min(upload.chunkSize, upload.totalSize - position);
+
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(upload.part.toPath(), StandardOpenOption.WRITE);
+             ReadableByteChannel in = Channels.newChannel(body)) {
+            while (written < expected) {
+                long n = channel.transferFrom(in, position + written, expected - written);
+                if (n <= 0) {
+                    break;
+                }
+                written += n;
+            }
+            if (written < expected || in.read(ByteBuffer.allocate(1)) > 0) {
+                throw new IllegalArgumentException("分片 " + index + " 大小不符，应为 " + expected + " 字节");
+            }
+        }
+
+        upload.received(index, expected);
+        log.debug("收到分片: id={}, index={}, {} 字节", uploadId, index, expected);
+        return upload.toDTO();
+    }
+
+    /**
+     * 完成上传并提交导入任务：分片须全部收齐，临时文件链接（不支持时复制）到上传目录后交给导入任务。
+     * 导入任务登记或提交失败时会删除交给它的文件，临时文件和上传状态保留，客户端可直接重试提交而不必重传
+     *
+     * @param force 为 true 时相同文件已导入成功也重新导入
+     * @return 导入任务ID
+     */
+    public Long complete(String uploadId, ImportJob.JobType jobType, boolean force) throws IOException {
+        Upload upload = get(uploadId);
+        List<Integer> missing = upload.missingChunks();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("分片未收齐，缺少 " + missing.size() + " 片: "
+                    + StrUtil.maxLength(missing.toString(), 200));
+        }
+        if (!upload.beginComplete()) {
+            throw new IllegalStateException("上传正在提交: " + uploadId);
+        }
+
+        File target = new File(excelUploadDir, IdUtil.fastSimpleUUID() + ".xlsx").getAbsoluteFile();
+        Long jobId;
+        try {
+            link(upload.part, target);
+            jobId = importJobService.submit(jobType, upload.fileName, target, force);
+        } catch (IOException | RuntimeException e) {
+            FileUtil.del(target);
+            upload.endComplete();
+            log.warn("分片上传提交失败，保留已上传的分片: id={}, {}", uploadId, e.getMessage());
+            throw e;
+        }
+
+        uploads.remove(uploadId);
+        FileUtil.del(upload.part);
+        log.info("分片上传完成: id={}, file={}, {} 字节, 导入任务 id={}", uploadId, upload.fileName, upload.totalSize, jobId);
+        return jobId;
+    }
+
+    /**
+     * 硬链接到目标路径（同一文件系统内，不复制数据）；文件系统不支持时复制
+     */
+    private static void link(File source, File target) throws IOException {
+        try {
+            Files.createLink(target.toPath(), source.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("无法创建硬链接，改为复制: {}", e.getMessage());
+            Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 取消上传，删除临时文件
+     */
+    public boolean abort(String uploadId) {
+        Upload upload = uploads.remove(uploadId);
+        if (upload == null) {
+            return false;
+        }
+        FileUtil.del(upload.part);
+        log.info("取消分片上传: id={}", uploadId);
+        return true;
+    }
+
+    private Upload get(String uploadId) {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            throw new IllegalArgumentException("上传不存在或已过期: " + uploadId);
+        }
+        return upload;
+    }
+
+    /**
+     * 清理闲置过久的上传
+     */
+    private void purgeExpired() {
+        long expireBefore = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(importProperties.getUploadExpireHours());
+        uploads.values().removeIf(upload -> {
+            if (upload.lastActive >= expireBefore) {
+                return false;
+            }
+            FileUtil.del(upload.part);
+            log.info("清理过期的分片上传: id={}", upload.uploadId);
+            return true;
+        });
+    }
+
+    /**
+     * 一次分片上传的状态
+     */
+    private static class Upload {
+
+        private final String uploadId;
+        private final String fileName;
+        private final File part;
+        private final long totalSize;
+        private final int chunkSize;
+        private final int totalChunks;
+        private final BitSet chunks;
+
+        private long receivedBytes;
+        private boolean completing;
+        private volatile long lastActive = System.currentTimeMillis();
+
+        Upload(String uploadId, String fileName, File part, long totalSize, int chunkSize) {
+            this.uploadId = uploadId;
+            this.fileName = fileName;
+            this.part = part;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.totalChunks = (int) ((totalSize + chunkSize - 1) / chunkSize);
+            this.chunks = new BitSet(totalChunks);
+        }
+
+        synchronized void received(int index, long bytes) {
+            if (!chunks.get(index)) {
+                chunks.set(index);
+                receivedBytes += bytes;
+            }
+            lastActive = System.currentTimeMillis();
+        }
+
+        /**
+         * 开始提交，已有一个提交在进行时返回 false
+         */
+        synchronized boolean beginComplete() {
+            if (completing) {
+                return false;
+            }
+            completing = true;
+            return true;
+        }
+
+        synchronized void endComplete() {
+            completing = false;
+            lastActive = System.currentTimeMillis();
+        }
+
+        synchronized boolean isCompleting() {
+            return completing;
+        }
+
+        synchronized List<Integer> missingChunks() {
+            List<Integer> missing = new ArrayList<>();
+            for (int i = chunks.nextClearBit(0); i < totalChunks; i = chunks.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            return missing;
+        }
+
+        synchronized ChunkUploadDTO toDTO() {
+            ChunkUploadDTO dto = new ChunkUploadDTO();
+            dto.setUploadId(uploadId);
+            dto.setFileName(fileName);
+            dto.setTotalSize(totalSize);
+            dto.setChunkSize(chunkSize);
+            dto.setTotalChunks(totalChunks);
+            dto.setReceivedChunks(chunks.stream().boxed().collect(Collectors.toList()));
+            dto.setReceivedBytes(receivedBytes);
+            return dto;
+        }
+    }
+}
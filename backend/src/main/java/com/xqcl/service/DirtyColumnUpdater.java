@@ -0,0 +1,164 @@
+package com.xqcl.service;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.xqcl.dto.UpsertResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 按变更列更新：与库中已有数据逐字段比较，只 SET 取值不同的列
+ * <p>
+ * 导入值为 null 的字段不参与比较（与全量更新时“空值不覆盖”一致）；内容哈希相同的行直接跳过。
+ * 变更列集合相同的行拼成同一条 UPDATE 语句，走一次 JDBC 批量执行，
+ * 只改状态的行不会重写长文本列，也不会触碰未变化的索引列。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+public class DirtyColumnUpdater {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 更新已存在的行，返回库中不存在、需要新增的行
+     *
+     * @param entityClass   实体类
+     * @param rows          导入数据（已按业务键去重）
+     * @param stored        库中已有数据，按业务键索引
+     * @param keyFunction   业务键
+     * @param keyProperties WHERE 条件使用的字段（实体属性名）
+     * @param result        更新条数、未变化条数在此累加
+     * @return 库中不存在的行
+     */
+    public <T, K> List<T> update(Class<T> entityClass, List<T> rows, Map<K, T> stored, Function<T, K> keyFunction,
+                                 List<String> keyProperties, UpsertResult result) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        List<TableFieldInfo> fields = new ArrayList<>();
+        String updateFillColumn = null;
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (field.isWithUpdateFill()) {
+                updateFillColumn = field.getColumn();
+            } else if (!field.isWithInsertFill() && !keyProperties.contains(field.getProperty())) {
+                fields.add(field);
+            }
+        }
+        int hashIndex = -1;
+        for (int i = 0; i < fields.size(); i++) {
+            if (PgCopyLoader.CONTENT_HASH_COLUMN.equals(fields.get(i).getColumn())) {
+                hashIndex = i;
+            }
+        }
+
+        List<T> missing = new ArrayList<>();
+        Map<BitSet, List<Object[]>> groups = new LinkedHashMap<>();
+        long updated = 0;
+        long unchanged = 0;
+
+        for (T row : rows) {
+            T current = stored.get(keyFunction.apply(row));
+            if (current == null) {
+                missing.add(row);
+                continue;
+            }
+            if (hashIndex >= 0) {
+                Object hash = tableInfo.getPropertyValue(row, fields.get(hashIndex).getProperty());
+                if (hash != null && hash.equals(tableInfo.getPropertyValue(current, fields.get(hashIndex).getProperty()))) {
+                    unchanged++;
+                    continue;
+                }
+            }
+
+            BitSet dirty = new BitSet(fields.size());
+            List<Object> args = new ArrayList<>();
+            for (int i = 0; i < fields.size(); i++) {
+                String property = fields.get(i).getProperty();
+                Object value = tableInfo.getPropertyValue(row, property);
+                if (value != null && !sameValue(value, tableInfo.getPropertyValue(current, property))) {
+                    dirty.set(i);
+                    args.add(value);
+                }
+            }
+            if (dirty.isEmpty()) {
+                unchanged++;
+                continue;
+            }
+            for (String keyProperty : keyProperties) {
+                args.add(tableInfo.getPropertyValue(row, keyProperty));
+            }
+            groups.computeIfAbsent(dirty, k -> new ArrayList<>()).add(args.toArray());
+            // 只有哈希不同、业务字段均未变化的行仍需写回哈希，但不算作更新
+            if (isHashOnly(dirty, hashIndex)) {
+                unchanged++;
+            } else {
+                updated++;
+            }
+        }
+
+        for (Map.Entry<BitSet, List<Object[]>> group : groups.entrySet()) {
+            BitSet dirty = group.getKey();
+            List<String> sets = new ArrayList<>();
+            for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+                sets.add(fields.get(i).getColumn() + " = ?");
+            }
+            if (updateFillColumn != null && !isHashOnly(dirty, hashIndex)) {
+                sets.add(updateFillColumn + " = CURRENT_TIMESTAMP");
+            }
+            List<String> where = new ArrayList<>();
+            for (String keyProperty : keyProperties) {
+                where.add(columnOf(tableInfo, keyProperty) + " = ?");
+            }
+            String sql = "UPDATE " + tableInfo.getTableName() + " SET " + String.join(", ", sets)
+                    + " WHERE " + String.join(" AND ", where);
+            jdbcTemplate.batchUpdate(sql, group.getValue());
+        }
+
+        if (!groups.isEmpty()) {
+            log.info("按变更列更新 {}: 更新 {} 条，未变化 {} 条，{} 种列组合",
+                    tableInfo.getTableName(), updated, unchanged, groups.size());
+        }
+        result.setUpdated(result.getUpdated() + updated);
+        result.setUnchanged(result.getUnchanged() + unchanged);
+        return missing;
+    }
+
+    /**
+     * 数值按大小比较，不区分小数位数（1.5 与 1.50 相同）
+     */
+    private static boolean sameValue(Object value, Object stored) {
+        if (value instanceof BigDecimal && stored instanceof BigDecimal) {
+            return ((BigDecimal) value).compareTo((BigDecimal) stored) == 0;
+        }
+        return Objects.equals(value, stored);
+    }
+
+    private static boolean isHashOnly(BitSet dirty, int hashIndex) {
+        return hashIndex >= 0 && dirty.cardinality() == 1 && dirty.get(hashIndex);
+    }
+
+    private static String columnOf(TableInfo tableInfo, String property) {
+        if (property.equals(tableInfo.getKeyProperty())) {
+            return tableInfo.getKeyColumn();
+        }
+        return tableInfo.getFieldList().stream()
+                .filter(field -> field.getProperty().equals(property))
+                .map(TableFieldInfo::getColumn)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("未知字段: " + property));
+    }
+}
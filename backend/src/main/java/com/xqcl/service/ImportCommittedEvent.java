@@ -0,0 +1,24 @@
+package com.xqcl.service;
+
+import lombok.Getter;
+
+/**
+ * 导入数据已提交事件
+ * <p>
+ * 导入的每次事务提交后在提交线程中同步发布，依赖表数据的缓存据此失效。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Getter
+public class ImportCommittedEvent {
+
+    /**
+     * 数据名称（需求列表 / 需求详情）
+     */
+    private final String label;
+
+    public ImportCommittedEvent(String label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,452 @@
+package com.xqcl.service;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.core.util.ReflectUtil;
+import cn.hutool.core.util.StrUtil;
+import com.xqcl.config.ExcelImportProperties;
+import com.xqcl.dto.BatchSizeStatsDTO;
+import com.xqcl.dto.UpsertResult;
+import com.xqcl.util.AdaptiveBatchSizer;
+import com.xqcl.util.ExcelColumnMapping;
+import com.xqcl.util.ExcelImportUtil;
+import com.xqcl.util.ImportCheckpoint;
+import com.xqcl.util.ImportProgress;
+import com.xqcl.util.StringDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 导入执行器：事务包装、按提交策略分组提交、自适应批次和流水线导入
+ * <p>
+ * 流水线模式分三段：调用线程读取工作表并按批切分原始行 → 转换线程池把原始行转为实体 →
+ * 分发线程按提交顺序取回转换结果，按业务键哈希分配给固定的写线程，写线程凑满一批后在独立事务中提交。
+ * 各段之间是有界队列，下游处理不过来时上游阻塞。
+ * <ul>
+ *     <li>顺序：同一业务键的行总是进入同一个写线程，且按文件中的先后顺序写入，后出现的行生效</li>
+ *     <li>并发：不同写线程处理的业务键互不相交，不会互相等待行锁</li>
+ *     <li>事务：每批独立提交，任一阶段失败后停止读取，已提交的批次保留，失败信息中给出已提交的条数</li>
+ * </ul>
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+public class ImportExecutor {
+
+    /**
+     * 批量新增或更新语句在 mapper 中的 id，参数名为 list
+     */
+    private static final String UPSERT_STATEMENT = "upsertBatch";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExcelImportProperties importProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 各实体最近一次导入的自适应批次，用于指标展示和下次导入的初始批次
+     */
+    private final Map<Class<?>, AdaptiveBatchSizer> latestSizers = new ConcurrentHashMap<>();
+
+    /**
+     * 各 upsert 语句每行绑定的参数个数
+     */
+    private final Map<String, Integer> upsertParams = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 在一个事务内执行，任何异常都回滚并原样抛出；提交后发布 {@link ImportCommittedEvent}
+     *
+     * @param label 数据名称
+     */
+    public <R> R inTransaction(String label, Callable<R> action) throws Exception {
+        try {
+            R result = transactionTemplate.execute(status -> {
+                try {
+                    return action.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedWrapper(e);
+                }
+            });
+            committed(label);
+            return result;
+        } catch (CheckedWrapper e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    /**
+     * 导入事务已提交，通知依赖表数据的缓存
+     */
+    void committed(String label) {
+        eventPublisher.publishEvent(new ImportCommittedEvent(label));
+    }
+
+    /**
+     * 为一次导入创建自适应批次，并发的导入各用各的实例，互不影响批次大小；
+     * 初始批次沿用该实体上次导入调整后的大小，每行绑定参数个数按 mapper 中 upsertBatch 语句实际绑定的列数计
+     *
+     * @param mapperClass 含 upsertBatch 语句的 mapper
+     * @param entityClass 实体类
+     * @param label       数据名称（日志和指标用）
+     */
+    public AdaptiveBatchSizer batchSizer(Class<?> mapperClass, Class<?> entityClass, String label) {
+        AdaptiveBatchSizer previous = latestSizers.get(entityClass);
+        int initialSize = previous == null ? importProperties.getBatchSizeInitial() : previous.current();
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(label, importProperties.isAdaptiveBatch(),
+                importProperties.getBatchSizeMin(), importProperties.getBatchSizeMax(),
+                initialSize, importProperties.getBatchTargetMillis(), upsertParamsPerRow(mapperClass, entityClass));
+        latestSizers.put(entityClass, sizer);
+        return sizer;
+    }
+
+    /**
+     * 单条 upsertBatch 语句最多写入的行数：批次上限，且绑定参数总数不超过语句参数上限
+     *
+     * @param mapperClass 含 upsertBatch 语句的 mapper
+     * @param entityClass 实体类
+     */
+    public int maxBatchRows(Class<?> mapperClass, Class<?> entityClass) {
+        int statementLimit = AdaptiveBatchSizer.MAX_STATEMENT_PARAMETERS / upsertParamsPerRow(mapperClass, entityClass);
+        return Math.max(1, Math.min(importProperties.getBatchSizeMax(), statementLimit));
+    }
+
+    /**
+     * 各实体最近一次导入的批次大小和写入吞吐量
+     */
+    public List<BatchSizeStatsDTO> batchSizeStats() {
+        return latestSizers.values().stream()
+                .map(AdaptiveBatchSizer::stats)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 按一行数据生成 upsertBatch 的 SQL，取其绑定参数个数，即 VALUES 中每行实际绑定的列数
+     */
+    private int upsertParamsPerRow(Class<?> mapperClass, Class<?> entityClass) {
+        String statementId = mapperClass.getName() + "." + UPSERT_STATEMENT;
+        return upsertParams.computeIfAbsent(statementId, id -> {
+            MappedStatement statement = sqlSessionFactory.getConfiguration().getMappedStatement(id);
+            Map<String, Object> params = new HashMap<>();
+            params.put("list", Collections.singletonList(ReflectUtil.newInstance(entityClass)));
+            return Math.max(1, statement.getBoundSql(params).getParameterMappings().size());
+        });
+    }
+
+    /**
+     * 按批数分组提交的写入器，只能在调用线程中使用
+     *
+     * @param label            数据名称（日志和失败报告用）
+     * @param progress         导入进度，提交后才累加写入计数
+     * @param checkpoint       检查点，每次提交前在同一事务内记录
+     * @param batchesPerCommit 每次提交包含的批数，0 表示整个导入一个事务
+     */
+    public BatchCommitter committer(String label, ImportProgress progress, ImportCheckpoint checkpoint,
+                                    int batchesPerCommit) {
+        return new BatchCommitter(transactionManager, label, progress, checkpoint, batchesPerCommit, () -> committed(label));
+    }
+
+    /**
+     * 流水线导入
+     *
+     * @param label       数据名称（日志用）
+     * @param is          Excel 输入流
+     * @param progress    导入进度
+     * @param mapping     列映射，读到表头后编译，转换线程按此把原始单元格值转为实体
+     * @param keyFunction 业务键，决定由哪个写线程处理
+     * @param sizer       写入批次大小，写线程按每批事务耗时调整
+     * @param writer      写入一批数据（在写线程的独立事务内调用）
+     * @return 解析成功的行数
+     */
+    public <T> int pipeline(String label, InputStream is, ImportProgress progress,
+                            ExcelColumnMapping<T> mapping, Function<T, String> keyFunction,
+                            AdaptiveBatchSizer sizer, Function<List<T>, UpsertResult> writer) throws Exception {
+        int converters = Math.max(1, importProperties.getPipelineConverters());
+        int writers = Math.max(1, importProperties.getPipelineWriters());
+        int capacity = Math.max(1, importProperties.getPipelineQueueCapacity());
+        int batchSize = ExcelImportUtil.BATCH_SIZE;
+
+        ExecutorService convertPool = Executors.newFixedThreadPool(converters,
+                ThreadUtil.newNamedThreadFactory("import-convert-", true));
+        ExecutorService stagePool = Executors.newFixedThreadPool(writers + 1,
+                ThreadUtil.newNamedThreadFactory("import-write-", true));
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger count = new AtomicInteger();
+        StringDictionary dictionary = new StringDictionary();
+        CompletableFuture<List<T>> endOfRows = new CompletableFuture<>();
+        List<T> endOfBatches = new ArrayList<>(0);
+
+        BlockingQueue<Future<List<T>>> convertQueue = new ArrayBlockingQueue<>(capacity);
+        List<BlockingQueue<List<T>>> writeQueues = new ArrayList<>(writers);
+        for (int i = 0; i < writers; i++) {
+            writeQueues.add(new ArrayBlockingQueue<>(capacity));
+        }
+
+        long start = System.currentTimeMillis();
+        List<Future<?>> stageFutures = new ArrayList<>();
+        try {
+            // 写线程：每批一个事务
+            for (BlockingQueue<List<T>> queue : writeQueues) {
+                stageFutures.add(stagePool.submit(guard(failure, () -> {
+                    while (true) {
+                        List<T> batch = take(queue, failure);
+                        if (batch == null || batch == endOfBatches) {
+                            return;
+                        }
+                        progress.checkCancelled();
+                        UpsertResult result = sizer.measure(batch.size(),
+                                () -> transactionTemplate.execute(status -> writer.apply(batch)));
+                        committed(label);
+                        if (result != null) {
+                            progress.addUpsert(result);
+                        }
+                    }
+                })));
+            }
+
+            // 分发线程：按提交顺序取回转换结果，按业务键分配写线程
+            stageFutures.add(stagePool.submit(guard(failure, () -> {
+                List<List<T>> pending = new ArrayList<>(writers);
+                for (int i = 0; i < writers; i++) {
+                    pending.add(new ArrayList<>(batchSize));
+                }
+                while (true) {
+                    Future<List<T>> future = take(convertQueue, failure);
+                    if (future == null) {
+                        return;
+                    }
+                    if (future == endOfRows) {
+                        break;
+                    }
+                    for (T entity : future.get()) {
+                        int index = Math.floorMod(StrUtil.nullToEmpty(keyFunction.apply(entity)).hashCode(), writers);
+                        List<T> batch = pending.get(index);
+                        batch.add(entity);
+                        if (batch.size() >= sizer.current()) {
+                            put(writeQueues.get(index), batch, failure);
+                            pending.set(index, new ArrayList<>(batchSize));
+                        }
+                    }
+                }
+                for (int i = 0; i < writers; i++) {
+                    if (!pending.get(i).isEmpty()) {
+                        put(writeQueues.get(i), pending.get(i), failure);
+                    }
+                    put(writeQueues.get(i), endOfBatches, failure);
+                }
+            })));
+
+            // 读取（调用线程）：原始行按批交给转换线程池；表头先于数据行回调，提交任务前映射已编译
+            List<Object[]> chunk = new ArrayList<>(batchSize);
+            AtomicReference<Function<String[], T>> rowMapper = new AtomicReference<>(mapping.positional(dictionary));
+            ExcelImportUtil.readRows(is, importProperties.getReaderMode(), progress, 0,
+                    header -> rowMapper.set(mapping.compile(header, dictionary)), (rowIndex, cells) -> {
+                rethrowFailure(failure);
+                chunk.add(new Object[]{rowIndex, cells});
+                if (chunk.size() >= batchSize) {
+                    List<Object[]> rows = new ArrayList<>(chunk);
+                    chunk.clear();
+                    Function<String[], T> mapper = rowMapper.get();
+                    put(convertQueue, convertPool.submit(() -> convert(rows, mapper, progress, count)), failure);
+                }
+            });
+            if (!chunk.isEmpty()) {
+                List<Object[]> rows = new ArrayList<>(chunk);
+                Function<String[], T> mapper = rowMapper.get();
+                put(convertQueue, convertPool.submit(() -> convert(rows, mapper, progress, count)), failure);
+            }
+            put(convertQueue, endOfRows, failure);
+
+            for (Future<?> future : stageFutures) {
+                future.get();
+            }
+            rethrowFailure(failure);
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+            Throwable cause = failure.get();
+            // shutdownNow 中断不了正在执行的写入事务，先等各阶段退出（转换线程池保持运行，
+            // 分发线程可能在等待已提交的转换任务），之后不会再有批次提交或计入进度
+            awaitStages(stageFutures);
+            log.error("流水线导入{}失败，已提交新增 {} 条、更新 {} 条；写入中的批次已回滚，排队未写入的批次已丢弃",
+                    label, progress.getInsertedRows(), progress.getUpdatedRows());
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            convertPool.shutdownNow();
+            stagePool.shutdownNow();
+        }
+
+        log.info("流水线导入{}完成，共解析 {} 条，新增 {} 条，更新 {} 条，转换线程 {}，写线程 {}，耗时 {} ms",
+                label, count.get(), progress.getInsertedRows(), progress.getUpdatedRows(),
+                converters, writers, System.currentTimeMillis() - start);
+        log.info("流水线导入{}{}", label, dictionary);
+        log.info("流水线导入{}{}", label, sizer);
+        return count.get();
+    }
+
+    /**
+     * 转换一批原始行
+     */
+    private static <T> List<T> convert(List<Object[]> rows, Function<String[], T> rowMapper,
+                                       ImportProgress progress, AtomicInteger count) {
+        List<T> entities = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            int rowIndex = (Integer) row[0];
+            try {
+                T entity = rowMapper.apply((String[]) row[1]);
+                if (entity == null) {
+                    progress.addSkipped(1);
+                    log.warn("第 {} 行解析失败，跳过", rowIndex + 1);
+                    continue;
+                }
+                entities.add(entity);
+            } catch (Exception e) {
+                progress.addSkipped(1);
+                log.error("第 {} 行解析异常: {}", rowIndex + 1, e.getMessage());
+            }
+        }
+        count.addAndGet(entities.size());
+        progress.addParsed(entities.size());
+        return entities;
+    }
+
+    /**
+     * 等待各阶段任务结束（已记录失败，各阶段在当前批次完成后退出），阶段自身的异常已记入 failure
+     */
+    private static void awaitStages(List<Future<?>> stageFutures) {
+        boolean interrupted = false;
+        for (Future<?> future : stageFutures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 阶段任务：异常记录到 failure，其余阶段据此尽快退出
+     */
+    private static Callable<Void> guard(AtomicReference<Throwable> failure, StageTask task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, e.getCause());
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * 放入有界队列，队列满时阻塞；其他阶段失败时放弃
+     */
+    private static <E> void put(BlockingQueue<E> queue, E element, AtomicReference<Throwable> failure) {
+        try {
+            while (!queue.offer(element, 100, TimeUnit.MILLISECONDS)) {
+                rethrowFailure(failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("流水线导入被中断", e);
+        }
+    }
+
+    /**
+     * 从队列取出，其他阶段失败时返回 null
+     */
+    private static <E> E take(BlockingQueue<E> queue, AtomicReference<Throwable> failure) throws InterruptedException {
+        while (failure.get() == null) {
+            E element = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (element != null) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static void rethrowFailure(AtomicReference<Throwable> failure) {
+        Throwable cause = failure.get();
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause != null) {
+            throw new IllegalStateException("流水线导入失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageTask {
+        void run() throws Exception;
+    }
+
+    /**
+     * 在 TransactionTemplate 回调中携带受检异常
+     */
+    private static class CheckedWrapper extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        CheckedWrapper(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,594 @@
+package com.xqcl.service;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.xqcl.common.ImportCancelledException;
+import com.xqcl.config.ExcelImportProperties;
+import com.xqcl.dto.CombinedImportResultDTO;
+import com.xqcl.dto.ImportJobDTO;
+import com.xqcl.dto.ImportResultDTO;
+import com.xqcl.dto.UpsertResult;
+import com.xqcl.entity.ImportJob;
+import com.xqcl.mapper.ImportJobMapper;
+import com.xqcl.util.ExcelFileInputStream;
+import com.xqcl.util.ExcelImportUtil;
+import com.xqcl.util.ImportCheckpoint;
+import com.xqcl.util.ImportProgress;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步导入任务 Service
+ * <p>
+ * 上传文件先落盘并登记任务，由有界线程池执行导入；运行中的任务进度保存在内存中供轮询，
+ * 结束时将计数和状态写回 import_job 表。
+ * <p>
+ * 登记时计算文件 SHA-256 指纹：同类型的相同文件已导入成功时直接返回原任务；
+ * 上次导入失败或取消且记录了检查点（CHECKPOINT 写入模式）时沿用原任务，从检查点之后继续导入。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+public class ImportJobService extends ServiceImpl<ImportJobMapper, ImportJob> {
+
+    @Autowired
+    private ReqListService reqListService;
+
+    @Autowired
+    private ReqDetailService reqDetailService;
+
+    @Autowired
+    private ExcelImportProperties importProperties;
+
+    @Value("${app.excel-upload-dir:./temp/excel}")
+    private String excelUploadDir;
+
+    /**
+     * 合并导入检查关联时最多返回的缺失单号个数
+     */
+    private static final int ORPHAN_SAMPLE_SIZE = 100;
+
+    /**
+     * 运行中（含排队）任务的进度
+     */
+    private final Map<Long, ImportProgress> progressMap = new ConcurrentHashMap<>();
+
+    /**
+     * 排队中任务的 Future，用于取消尚未开始的任务
+     */
+    private final Map<Long, Future<?>> futureMap = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 合并导入时需求列表和需求详情各占一个线程
+     */
+    private ExecutorService combinedExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                importProperties.getJobPoolSize(), importProperties.getJobPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(importProperties.getJobQueueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, "import-job-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        combinedExecutor = Executors.newCachedThreadPool(ThreadUtil.newNamedThreadFactory("import-combined-", true));
+
+        // 上次进程退出时未完成的任务无法恢复，标记为失败
+        ImportJob interrupted = new ImportJob();
+        interrupted.setStatus(ImportJob.Status.FAILED);
+        interrupted.setErrorMessage("服务重启，任务中断");
+        interrupted.setFinishedAt(LocalDateTime.now());
+        int count = baseMapper.update(interrupted, new LambdaUpdateWrapper<ImportJob>()
+                .in(ImportJob::getStatus, ImportJob.Status.PENDING, ImportJob.Status.RUNNING));
+        if (count > 0) {
+            log.warn("标记中断的导入任务: {} 个", count);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        progressMap.values().forEach(ImportProgress::cancel);
+        executor.shutdownNow();
+        combinedExecutor.shutdownNow();
+    }
+
+    /**
+     * 提交导入任务：保存上传文件并登记任务，立即返回任务ID（相同文件已导入成功时返回原任务ID）
+     *
+     * @param force 为 true 时相同文件已导入成功也重新导入
+     */
+    public Long submit(ImportJob.JobType jobType, MultipartFile file, boolean force) throws Exception {
+        return submit(jobType, file.getOriginalFilename(), save(file), force);
+    }
+
+    /**
+     * 提交导入任务：文件已在上传目录中（如分片上传合并后的文件），由任务接管，结束时删除
+     *
+     * @param force 为 true 时相同文件已导入成功也重新导入
+     */
+    public Long submit(ImportJob.JobType jobType, String fileName, File file, boolean force) {
+        ImportJob job = register(jobType, fileName, file, 0, force);
+        Long jobId = job.getId();
+        if (job.getStatus() == ImportJob.Status.SUCCESS) {
+            return jobId;
+        }
+
+        ImportProgress progress = newProgress(job);
+        progressMap.put(jobId, progress);
+        try {
+            Future<?> future = executor.submit(() -> run(jobId, progress, 0));
+            if (progressMap.containsKey(jobId)) {
+                futureMap.put(jobId, future);
+            }
+        } catch (RejectedExecutionException e) {
+            progressMap.remove(jobId);
+            FileUtil.del(job.getFilePath());
+            finish(jobId, progress, ImportJob.Status.FAILED, "导入任务队列已满，请稍后重试");
+            throw new IllegalStateException("导入任务队列已满，请稍后重试");
+        }
+
+        log.info("提交导入任务: id={}, type={}, file={}", jobId, jobType, job.getFileName());
+        return jobId;
+    }
+
+    /**
+     * 同步导入：登记任务后在当前线程执行，返回导入结果；相同文件已导入成功时直接返回原结果
+     *
+     * @param force 为 true 时相同文件已导入成功也重新导入
+     */
+    public ImportResultDTO importNow(ImportJob.JobType jobType, MultipartFile file, boolean force) throws Exception {
+        return importNow(jobType, file.getOriginalFilename(), save(file), 0, force);
+    }
+
+    /**
+     * 同步导入已保存的文件（由任务接管，结束时删除）
+     *
+     * @param sheetIndex 读取的工作表序号（从 0 开始）
+     * @param force      为 true 时相同文件的同一工作表已导入成功也重新导入
+     */
+    public ImportResultDTO importNow(ImportJob.JobType jobType, String fileName, File file, int sheetIndex, boolean force) {
+        ImportJob job = register(jobType, fileName, file, sheetIndex, force);
+        boolean duplicate = job.getStatus() == ImportJob.Status.SUCCESS;
+        if (!duplicate) {
+            ImportProgress progress = newProgress(job);
+            progressMap.put(job.getId(), progress);
+            run(job.getId(), progress, sheetIndex);
+            job = baseMapper.selectById(job.getId());
+            if (job.getStatus() == ImportJob.Status.CANCELLED) {
+                throw new ImportCancelledException();
+            }
+            if (job.getStatus() != ImportJob.Status.SUCCESS) {
+                throw new IllegalStateException(job.getErrorMessage());
+            }
+        }
+
+        ImportResultDTO result = new ImportResultDTO();
+        result.setJobId(job.getId());
+        result.setDuplicate(duplicate);
+        result.setParsed(job.getParsedRows());
+        result.setInserted(job.getInsertedRows());
+        result.setUpdated(job.getUpdatedRows());
+        result.setUnchanged(job.getUnchangedRows() == null ? 0 : job.getUnchangedRows());
+        result.setSkipped(job.getSkippedRows());
+        return result;
+    }
+
+    /**
+     * 同时导入需求列表和需求详情：两个文件（或同一工作簿的两个工作表）在两个线程上并行解析和写入，
+     * 耗时取决于较慢的一个；各自独立提交，一个失败不影响另一个
+     *
+     * @param listFile       需求列表文件，与 detailFile 一起上传；为 null 时使用 workbook
+     * @param detailFile     需求详情文件
+     * @param workbook       同时包含两类数据的工作簿：第 1 个工作表为需求列表，第 2 个为需求详情
+     * @param checkReference 导入后检查需求详情的需求评估单号是否都有对应的需求列表
+     * @param force          为 true 时已导入成功的文件也重新导入
+     */
+    public CombinedImportResultDTO importCombined(MultipartFile listFile, MultipartFile detailFile,
+                                                  MultipartFile workbook, boolean checkReference,
+                                                  boolean force) throws Exception {
+        File listTarget;
+        File detailTarget;
+        String listName;
+        String detailName;
+        int detailSheet;
+        if (listFile != null && detailFile != null) {
+            listTarget = save(listFile);
+            try {
+                detailTarget = save(detailFile);
+            } catch (Exception e) {
+                FileUtil.del(listTarget);
+                throw e;
+            }
+            listName = listFile.getOriginalFilename();
+            detailName = detailFile.getOriginalFilename();
+            detailSheet = 0;
+        } else if (workbook != null) {
+            // 每个任务结束时删除自己的文件，同一工作簿复制一份给需求详情
+            listTarget = save(workbook);
+            detailTarget = new File(excelUploadDir, IdUtil.fastSimpleUUID() + ".xlsx").getAbsoluteFile();
+            FileUtil.copy(listTarget, detailTarget, false);
+            listName = workbook.getOriginalFilename();
+            detailName = workbook.getOriginalFilename();
+            detailSheet = 1;
+        } else {
+            throw new IllegalArgumentException("请同时上传需求列表和需求详情文件，或上传包含两个工作表的工作簿");
+        }
+
+        long start = System.currentTimeMillis();
+        CompletableFuture<ImportResultDTO> list = CompletableFuture.supplyAsync(
+                () -> importNow(ImportJob.JobType.LIST, listName, listTarget, 0, force), combinedExecutor);
+        CompletableFuture<ImportResultDTO> detail = CompletableFuture.supplyAsync(
+                () -> importNow(ImportJob.JobType.DETAIL, detailName, detailTarget, detailSheet, force), combinedExecutor);
+
+        CombinedImportResultDTO result = new CombinedImportResultDTO();
+        try {
+            result.setList(list.join());
+        } catch (CompletionException e) {
+            result.setListError(errorMessage(e.getCause()));
+        }
+        try {
+            result.setDetail(detail.join());
+        } catch (CompletionException e) {
+            result.setDetailError(errorMessage(e.getCause()));
+        }
+
+        if (checkReference) {
+            result.setOrphanReqNoCount(reqDetailService.countOrphanReqNos());
+            if (result.getOrphanReqNoCount() > 0) {
+                result.setOrphanReqNos(reqDetailService.listOrphanReqNos(ORPHAN_SAMPLE_SIZE));
+                log.warn("需求详情中有 {} 个需求评估单号在需求列表中不存在", result.getOrphanReqNoCount());
+            }
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("合并导入完成: 需求列表 {}，需求详情 {}，耗时 {} ms",
+                result.getListError() == null ? "成功" : "失败", result.getDetailError() == null ? "成功" : "失败",
+                result.getElapsedMillis());
+        return result;
+    }
+
+    private static String errorMessage(Throwable e) {
+        if (e instanceof ImportCancelledException) {
+            return "导入已取消";
+        }
+        return StrUtil.nullToDefault(e.getMessage(), e.getClass().getName());
+    }
+
+    /**
+     * 登记任务：检查文件格式（不支持的格式抛出 IllegalArgumentException），计算已保存文件和工作表的指纹
+     * <ul>
+     *     <li>同类型相同指纹已导入成功：删除本次文件，返回原任务（force 为 true 时跳过此项）</li>
+     *     <li>同类型相同指纹正在导入：拒绝</li>
+     *     <li>同类型相同指纹上次中断且有检查点：沿用原任务续传</li>
+     *     <li>其余情况：新建任务</li>
+     * </ul>
+     */
+    private ImportJob register(ImportJob.JobType jobType, String fileName, File target, int sheetIndex, boolean force) {
+        String fileHash;
+        try {
+            ExcelImportUtil.detectFormat(target);
+            fileHash = fingerprint(target, sheetIndex);
+        } catch (IOException e) {
+            FileUtil.del(target);
+            throw new IllegalStateException("读取上传文件失败: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            FileUtil.del(target);
+            throw e;
+        }
+
+        ImportJob previous = baseMapper.selectOne(new LambdaQueryWrapper<ImportJob>()
+                .eq(ImportJob::getJobType, jobType)
+                .eq(ImportJob::getFileHash, fileHash)
+                .orderByDesc(ImportJob::getId)
+                .last("LIMIT 1"));
+        try {
+            if (previous != null && previous.getStatus() == ImportJob.Status.SUCCESS && !force) {
+                FileUtil.del(target);
+                log.info("文件已导入过，跳过: file={}, 原任务 id={}", fileName, previous.getId());
+                return previous;
+            }
+            if (previous != null && !previous.getStatus().isFinished()) {
+                throw new IllegalStateException("相同文件正在导入，任务ID: " + previous.getId());
+            }
+            if (previous != null && isResumable(previous)) {
+                // 按状态条件认领：并发上传同一文件时只有一个请求能把中断的任务改回 PENDING
+                ImportJob resume = new ImportJob();
+                resume.setFileName(fileName);
+                resume.setFilePath(target.getPath());
+                resume.setStatus(ImportJob.Status.PENDING);
+                int claimed = baseMapper.update(resume, new LambdaUpdateWrapper<ImportJob>()
+                        .eq(ImportJob::getId, previous.getId())
+                        .in(ImportJob::getStatus, ImportJob.Status.FAILED, ImportJob.Status.CANCELLED));
+                if (claimed != 1) {
+                    throw new IllegalStateException("相同文件正在导入，任务ID: " + previous.getId());
+                }
+                previous.setFilePath(target.getPath());
+                previous.setStatus(ImportJob.Status.PENDING);
+                log.info("续传导入任务: id={}, 已提交至第 {} 行", previous.getId(), previous.getCheckpointRow());
+                return previous;
+            }
+
+            ImportJob job = new ImportJob();
+            job.setJobType(jobType);
+            job.setFileName(fileName);
+            job.setFilePath(target.getPath());
+            job.setFileHash(fileHash);
+            job.setStatus(ImportJob.Status.PENDING);
+            job.setTotalRows(-1L);
+            job.setParsedRows(0L);
+            job.setInsertedRows(0L);
+            job.setUpdatedRows(0L);
+            job.setUnchangedRows(0L);
+            job.setSkippedRows(0L);
+            job.setCheckpointRow(0L);
+            baseMapper.insert(job);
+            return job;
+        } catch (DuplicateKeyException e) {
+            // 并发上传同一文件，唯一索引 idx_import_job_active_file 只允许一个进行中的任务
+            FileUtil.del(target);
+            throw new IllegalStateException("相同文件正在导入，请勿重复上传");
+        } catch (RuntimeException e) {
+            FileUtil.del(target);
+            throw e;
+        }
+    }
+
+    /**
+     * 文件指纹：第 1 个工作表为文件内容的 SHA-256（与历史任务兼容）；其他工作表再与工作表序号一起摘要，
+     * 同一工作簿的不同工作表是不同的导入
+     */
+    private static String fingerprint(File file, int sheetIndex) {
+        String fileHash = DigestUtil.sha256Hex(file);
+        return sheetIndex == 0 ? fileHash : DigestUtil.sha256Hex(fileHash + "#sheet" + sheetIndex);
+    }
+
+    /**
+     * 上传文件保存到上传目录
+     */
+    private File save(MultipartFile file) throws Exception {
+        FileUtil.mkdir(excelUploadDir);
+        File target = new File(excelUploadDir, IdUtil.fastSimpleUUID() + ".xlsx").getAbsoluteFile();
+        file.transferTo(target);
+        return target;
+    }
+
+    /**
+     * 中断的任务记录了检查点，且当前为 CHECKPOINT 写入模式时可续传
+     */
+    private boolean isResumable(ImportJob job) {
+        return importProperties.getWriteMode() == ExcelImportProperties.WriteMode.CHECKPOINT
+                && (job.getStatus() == ImportJob.Status.FAILED || job.getStatus() == ImportJob.Status.CANCELLED)
+                && job.getCheckpointRow() != null && job.getCheckpointRow() > 0;
+    }
+
+    /**
+     * 新建进度；续传的任务从检查点记录的计数继续累加
+     */
+    private static ImportProgress newProgress(ImportJob job) {
+        ImportProgress progress = new ImportProgress();
+        if (job.getCheckpointRow() != null && job.getCheckpointRow() > 0) {
+            progress.addParsed(job.getParsedRows());
+            progress.addInserted(job.getInsertedRows());
+            progress.addUpdated(job.getUpdatedRows());
+            progress.addUnchanged(job.getUnchangedRows() == null ? 0 : job.getUnchangedRows());
+            progress.addSkipped(job.getSkippedRows());
+        }
+        return progress;
+    }
+
+    /**
+     * 查询任务进度：运行中的任务返回实时计数
+     */
+    public ImportJobDTO getProgress(Long jobId) {
+        ImportJob job = baseMapper.selectById(jobId);
+        if (job == null) {
+            return null;
+        }
+
+        ImportJobDTO dto = new ImportJobDTO();
+        BeanUtils.copyProperties(job, dto);
+
+        ImportProgress progress = progressMap.get(jobId);
+        if (progress != null && job.getStatus() == ImportJob.Status.RUNNING) {
+            copyCounters(progress, dto);
+            dto.setRowsPerSecond(progress.getRowsPerSecond());
+            dto.setEtaSeconds(progress.getEtaSeconds());
+            dto.setElapsedMillis(progress.getElapsedMillis());
+        } else if (job.getStartedAt() != null && job.getFinishedAt() != null) {
+            long elapsed = Duration.between(job.getStartedAt(), job.getFinishedAt()).toMillis();
+            dto.setElapsedMillis(elapsed);
+            dto.setRowsPerSecond(elapsed > 0 ? job.getParsedRows() * 1000.0 / elapsed : 0);
+            dto.setEtaSeconds(0L);
+        }
+        return dto;
+    }
+
+    /**
+     * 最近的导入任务
+     */
+    public List<ImportJob> listRecent(int limit) {
+        return baseMapper.selectList(new LambdaQueryWrapper<ImportJob>()
+                .orderByDesc(ImportJob::getId)
+                .last("LIMIT " + Math.max(1, Math.min(limit, 200))));
+    }
+
+    /**
+     * 取消任务：排队中的直接移出队列，运行中的在下一行或下一批时中止，未提交的写入回滚
+     *
+     * @return 是否已发出取消
+     */
+    public boolean cancel(Long jobId) {
+        ImportProgress progress = progressMap.get(jobId);
+        if (progress == null) {
+            return false;
+        }
+        progress.cancel();
+
+        Future<?> future = futureMap.get(jobId);
+        if (future != null && future.cancel(false)) {
+            // 尚未开始执行
+            cleanup(jobId);
+            finish(jobId, progress, ImportJob.Status.CANCELLED, null);
+        }
+        log.info("取消导入任务: id={}", jobId);
+        return true;
+    }
+
+    /**
+     * 执行导入任务
+     *
+     * @param sheetIndex 读取的工作表序号（从 0 开始）
+     */
+    private void run(Long jobId, ImportProgress progress, int sheetIndex) {
+        ImportJob job = baseMapper.selectById(jobId);
+        if (progress.isCancelled() || job == null) {
+            cleanup(jobId);
+            finish(jobId, progress, ImportJob.Status.CANCELLED, null);
+            return;
+        }
+
+        ImportJob running = new ImportJob();
+        running.setId(jobId);
+        running.setStatus(ImportJob.Status.RUNNING);
+        running.setStartedAt(LocalDateTime.now());
+        baseMapper.updateById(running);
+
+        ImportJob.Status status = ImportJob.Status.SUCCESS;
+        String errorMessage = null;
+        ImportCheckpoint checkpoint = checkpoint(job, progress);
+        try (InputStream is = new ExcelFileInputStream(new File(job.getFilePath()), sheetIndex)) {
+            if (job.getJobType() == ImportJob.JobType.LIST) {
+                reqListService.importExcel(is, progress, checkpoint);
+            } else {
+                reqDetailService.importExcel(is, progress, checkpoint);
+            }
+        } catch (ImportCancelledException e) {
+            status = ImportJob.Status.CANCELLED;
+        } catch (Throwable e) {
+            log.error("导入任务失败: id={}", jobId, e);
+            status = ImportJob.Status.FAILED;
+            errorMessage = StrUtil.maxLength(StrUtil.nullToDefault(e.getMessage(), e.getClass().getName()), 1000);
+        } finally {
+            cleanup(jobId);
+            FileUtil.del(job.getFilePath());
+        }
+
+        finish(jobId, progress, status, errorMessage);
+        log.info("导入任务结束: id={}, status={}, parsed={}, inserted={}, updated={}, unchanged={}, skipped={}, {} ms",
+                jobId, status, progress.getParsedRows(), progress.getInsertedRows(), progress.getUpdatedRows(),
+                progress.getUnchangedRows(), progress.getSkippedRows(), progress.getElapsedMillis());
+    }
+
+    /**
+     * 任务检查点：与每批数据在同一事务内写回最后一行和截至该批的计数
+     */
+    private ImportCheckpoint checkpoint(ImportJob job, ImportProgress progress) {
+        int resumeAfterRow = job.getCheckpointRow() == null ? 0 : job.getCheckpointRow().intValue();
+        return new ImportCheckpoint() {
+            @Override
+            public int getResumeAfterRow() {
+                return resumeAfterRow;
+            }
+
+            @Override
+            public void commit(int lastRowNum, UpsertResult batchResult) {
+                ImportJob update = new ImportJob();
+                update.setId(job.getId());
+                update.setCheckpointRow((long) lastRowNum);
+                copyCounters(progress, update);
+                update.setInsertedRows(progress.getInsertedRows() + batchResult.getInserted());
+                update.setUpdatedRows(progress.getUpdatedRows() + batchResult.getUpdated());
+                update.setUnchangedRows(progress.getUnchangedRows() + batchResult.getUnchanged());
+                baseMapper.updateById(update);
+            }
+        };
+    }
+
+    private void cleanup(Long jobId) {
+        progressMap.remove(jobId);
+        futureMap.remove(jobId);
+    }
+
+    /**
+     * 写回最终状态和计数
+     */
+    private void finish(Long jobId, ImportProgress progress, ImportJob.Status status, String errorMessage) {
+        ImportJob update = new ImportJob();
+        update.setId(jobId);
+        update.setStatus(status);
+        update.setErrorMessage(errorMessage);
+        update.setFinishedAt(LocalDateTime.now());
+        if (status != ImportJob.Status.SUCCESS && progress.getCommitReport() != null) {
+            // 按批提交的导入中断：失败信息后附已提交的行范围
+            update.setErrorMessage(StrUtil.maxLength(errorMessage == null
+                    ? progress.getCommitReport() : errorMessage + "；" + progress.getCommitReport(), 1000));
+        }
+        ExcelImportProperties.WriteMode writeMode = importProperties.getWriteMode();
+        if (status == ImportJob.Status.SUCCESS) {
+            copyCounters(progress, update);
+        } else if (writeMode == ExcelImportProperties.WriteMode.CHECKPOINT) {
+            // 保留最后一个检查点写入的计数，续传时从这里继续累加
+            update.setTotalRows(progress.getTotalRows());
+        } else if (writeMode == ExcelImportProperties.WriteMode.COPY) {
+            // COPY 导入失败或取消后写入已全部回滚
+            copyCounters(progress, update);
+            update.setInsertedRows(0L);
+            update.setUpdatedRows(0L);
+            update.setUnchangedRows(0L);
+        } else {
+            // PIPELINE、BATCH 的写入计数只包含已提交的批次
+            copyCounters(progress, update);
+        }
+        baseMapper.updateById(update);
+    }
+
+    private static void copyCounters(ImportProgress progress, ImportJob job) {
+        job.setTotalRows(progress.getTotalRows());
+        job.setParsedRows(progress.getParsedRows());
+        job.setInsertedRows(progress.getInsertedRows());
+        job.setUpdatedRows(progress.getUpdatedRows());
+        job.setUnchangedRows(progress.getUnchangedRows());
+        job.setSkippedRows(progress.getSkippedRows());
+    }
+}
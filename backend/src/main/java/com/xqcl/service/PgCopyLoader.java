@@ -0,0 +1,239 @@
+package com.xqcl.service;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.xqcl.dto.UpsertResult;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL COPY 批量导入
+ * <p>
+ * 解析出的数据通过 CopyManager 流式写入临时暂存表（会话私有、不写 WAL），
+ * 导入结束后用一条集合语句合并到目标表：按业务键去重（后出现的行生效），
+ * 已存在的行按非空字段更新，其余行插入。目标表有 content_hash 列时，内容哈希未变的行不更新，计为未变化。
+ * 必须在事务内使用，暂存表随事务结束删除。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+public class PgCopyLoader {
+
+    /**
+     * 内容哈希列，存在时用于跳过未变化的行
+     */
+    public static final String CONTENT_HASH_COLUMN = "content_hash";
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * 开启一次 COPY 导入
+     *
+     * @param entityClass 实体类（通过 MyBatis-Plus 表元数据确定表名和字段）
+     * @param keyColumns  业务键字段，第一个为必填键，为空的行直接插入
+     */
+    public <T> Session<T> open(Class<T> entityClass, String... keyColumns) throws SQLException {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        if (tableInfo == null) {
+            throw new IllegalArgumentException("未找到实体表信息: " + entityClass.getName());
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return new Session<>(connection, tableInfo, Arrays.asList(keyColumns));
+        } catch (SQLException | RuntimeException e) {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+            throw e;
+        }
+    }
+
+    /**
+     * 一次 COPY 导入会话：write 若干次后调用 merge
+     */
+    public class Session<T> implements AutoCloseable {
+
+        private final Connection connection;
+        private final TableInfo tableInfo;
+        private final List<String> keyColumns;
+        private final List<String> copyColumns = new ArrayList<>();
+        private final List<String> copyProperties = new ArrayList<>();
+        private final String stageTable;
+
+        private CopyIn copyIn;
+        private long seq;
+
+        private Session(Connection connection, TableInfo tableInfo, List<String> keyColumns) throws SQLException {
+            this.connection = connection;
+            this.tableInfo = tableInfo;
+            this.keyColumns = keyColumns;
+            this.stageTable = tableInfo.getTableName() + "_stage";
+
+            // 自增主键和自动填充字段不参与 COPY，由数据库默认值和合并语句处理
+            if (tableInfo.havePK() && tableInfo.getIdType() != IdType.AUTO) {
+                copyColumns.add(tableInfo.getKeyColumn());
+                copyProperties.add(tableInfo.getKeyProperty());
+            }
+            for (TableFieldInfo field : tableInfo.getFieldList()) {
+                if (!field.isWithInsertFill() && !field.isWithUpdateFill()) {
+                    copyColumns.add(field.getColumn());
+                    copyProperties.add(field.getProperty());
+                }
+            }
+
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE TEMP TABLE " + stageTable + " ON COMMIT DROP AS SELECT 0::BIGINT AS import_seq, "
+                        + columnList(null) + " FROM " + tableInfo.getTableName() + " WITH NO DATA");
+            }
+
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY " + stageTable + " (import_seq, " + columnList(null) + ") FROM STDIN WITH (FORMAT csv)");
+        }
+
+        /**
+         * 写入一批数据到暂存表
+         */
+        public void write(List<T> batch) {
+            StringBuilder csv = new StringBuilder(batch.size() * 512);
+            for (T entity : batch) {
+                csv.append(++seq);
+                for (String property : copyProperties) {
+                    csv.append(',');
+                    appendCsvValue(csv, tableInfo.getPropertyValue(entity, property));
+                }
+                csv.append('\n');
+            }
+
+            byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw new RuntimeException("COPY 写入暂存表失败: " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * 结束 COPY 并合并暂存表到目标表
+         */
+        public UpsertResult merge() throws SQLException {
+            long rows = copyIn.endCopy();
+            copyIn = null;
+            log.info("COPY 写入暂存表 {}: {} 行", stageTable, rows);
+
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(mergeSql())) {
+                rs.next();
+                return new UpsertResult(rs.getLong("inserted"), rs.getLong("updated"), rs.getLong("unchanged"));
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (copyIn != null && copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            } catch (SQLException e) {
+                log.warn("取消 COPY 失败: {}", e.getMessage());
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        }
+
+        /**
+         * 合并语句：暂存表按业务键去重后，已存在的行更新（空值不覆盖，内容哈希相同的跳过），其余插入
+         */
+        private String mergeSql() {
+            String table = tableInfo.getTableName();
+            String firstKey = keyColumns.get(0);
+            String keyExprs = keyColumns.stream()
+                    .map(k -> k.equals(firstKey) ? k : "COALESCE(" + k + ", '')")
+                    .collect(Collectors.joining(", "));
+            String keyJoin = keyColumns.stream()
+                    .map(k -> k.equals(firstKey) ? "t." + k + " = s." + k
+                            : "COALESCE(t." + k + ", '') = COALESCE(s." + k + ", '')")
+                    .collect(Collectors.joining(" AND "));
+
+            List<String> sets = new ArrayList<>();
+            for (String column : copyColumns) {
+                if (!keyColumns.contains(column)) {
+                    sets.add(column + " = COALESCE(s." + column + ", t." + column + ")");
+                }
+            }
+            for (TableFieldInfo field : tableInfo.getFieldList()) {
+                if (field.isWithUpdateFill()) {
+                    sets.add(field.getColumn() + " = CURRENT_TIMESTAMP");
+                }
+            }
+
+            String changed = copyColumns.contains(CONTENT_HASH_COLUMN)
+                    ? " AND t." + CONTENT_HASH_COLUMN + " IS DISTINCT FROM s." + CONTENT_HASH_COLUMN : "";
+
+            // 各子语句看到的是同一快照，m 中标记的已存在行不受 upd 影响
+            String columns = columnList(null);
+            return "WITH s AS ("
+                    + " SELECT DISTINCT ON (" + keyExprs + ") * FROM " + stageTable
+                    + " WHERE NULLIF(btrim(" + firstKey + "), '') IS NOT NULL"
+                    + " ORDER BY " + keyExprs + ", import_seq DESC"
+                    + "), m AS ("
+                    + " SELECT s.import_seq, EXISTS (SELECT 1 FROM " + table + " t WHERE " + keyJoin + ") AS matched FROM s"
+                    + "), upd AS ("
+                    + " UPDATE " + table + " t SET " + String.join(", ", sets)
+                    + " FROM s WHERE " + keyJoin + changed
+                    + " RETURNING s.import_seq"
+                    + "), ins AS ("
+                    + " INSERT INTO " + table + " (" + columns + ")"
+                    + " SELECT " + columnList("s") + " FROM s"
+                    + " WHERE s.import_seq IN (SELECT import_seq FROM m WHERE NOT matched)"
+                    + " UNION ALL"
+                    + " SELECT " + columns + " FROM " + stageTable + " WHERE NULLIF(btrim(" + firstKey + "), '') IS NULL"
+                    + " RETURNING 1"
+                    + ") SELECT (SELECT COUNT(*) FROM ins) AS inserted, (SELECT COUNT(*) FROM upd) AS updated,"
+                    + " (SELECT COUNT(*) FROM m WHERE matched) - (SELECT COUNT(*) FROM upd) AS unchanged";
+        }
+
+        private String columnList(String alias) {
+            return copyColumns.stream()
+                    .map(column -> alias == null ? column : alias + "." + column)
+                    .collect(Collectors.joining(", "));
+        }
+    }
+
+    /**
+     * 追加 CSV 字段：null 写为空（COPY 解析为 NULL），其余值一律加引号
+     */
+    private static void appendCsvValue(StringBuilder csv, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+        csv.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '"') {
+                csv.append('"');
+            }
+            csv.append(ch);
+        }
+        csv.append('"');
+    }
+}
@@ -0,0 +1,199 @@
+package com.xqcl.service;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.xqcl.config.QueryProperties;
+import com.xqcl.dto.WorkloadQueryDTO;
+import com.xqcl.dto.WorkloadRollupDTO;
+import com.xqcl.mapper.ReqListMapper;
+import com.xqcl.util.BackgroundRefresher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 需求工作量统计
+ * <p>
+ * 按提交月份、负责人部门、产品线、区域分组统计各工作量字段的条数、合计、平均、最小、最大值，
+ * 由月度汇总表 req_workload_rollup 再聚合得到；分位数不能由分组结果合并，按提交时间区间从明细视图计算。
+ * 写入需求列表时触发器记录涉及的提交月份，需求列表导入结束后在后台线程只重算这些月份的汇总；
+ * 查询时仍有未重算的月份则改为从明细统计（同时请求一次后台重算），查询请求不做写入，结果始终与已提交的数据一致。
+ * 统计结果按规范化的统计条件缓存，导入提交后全部失效。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+public class ReqAnalyticsService {
+
+    /**
+     * 分组维度：字段名 → 列名
+     */
+    private static final Map<String, String> GROUPS = new LinkedHashMap<>();
+
+    static {
+        GROUPS.put("month", "month");
+        GROUPS.put("ownerDept", "owner_dept");
+        GROUPS.put("productLine", "product_line");
+        GROUPS.put("region", "region");
+    }
+
+    /**
+     * 工作量指标（与明细视图 req_workload_fact 中的 metric 取值一致）
+     */
+    private static final List<String> METRICS = Collections.unmodifiableList(Arrays.asList(
+            "totalWorkload", "devHqWorkload", "devRegionWorkload",
+            "totalOrderWorkload", "orderHqWorkload", "orderRegionWorkload",
+            "systemTestWorkload", "integrationTestWorkload", "learningCostWorkload", "processManageWorkload"));
+
+    @Autowired
+    private ReqListMapper reqListMapper;
+
+    @Autowired
+    private QueryProperties queryProperties;
+
+    private LRUCache<String, List<WorkloadRollupDTO>> cache;
+
+    /**
+     * 失效代数：统计期间发生失效的结果不写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private BackgroundRefresher refresher;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheUtil.newLRUCache(Math.max(1, queryProperties.getAnalyticsCacheSize()),
+                queryProperties.getAnalyticsCacheTtlSeconds() * 1000);
+        refresher = new BackgroundRefresher("workload-rollup", () -> {
+            int rows = refresh();
+            log.debug("重算工作量汇总 {} 行", rows);
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        refresher.close();
+    }
+
+    /**
+     * 工作量统计
+     *
+     * @throws IllegalArgumentException 分组维度、工作量指标或月份格式不合法
+     */
+    public List<WorkloadRollupDTO> workload(WorkloadQueryDTO dto) {
+        List<String> groups = new ArrayList<>();
+        for (String field : new LinkedHashSet<>(CollUtil.emptyIfNull(dto.getGroupBy()))) {
+            String column = GROUPS.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("不支持的分组维度: " + field);
+            }
+            groups.add(column);
+        }
+        List<String> metrics = CollUtil.isEmpty(dto.getMetrics())
+                ? METRICS : new ArrayList<>(new LinkedHashSet<>(dto.getMetrics()));
+        for (String metric : metrics) {
+            if (!METRICS.contains(metric)) {
+                throw new IllegalArgumentException("不支持的工作量指标: " + metric);
+            }
+        }
+        YearMonth start = parseMonth(dto.getStartMonth());
+        YearMonth end = parseMonth(dto.getEndMonth());
+        LocalDate from = start == null ? null : start.atDay(1);
+        LocalDate to = end == null ? null : end.plusMonths(1).atDay(1);
+        boolean percentiles = Boolean.TRUE.equals(dto.getWithPercentiles());
+
+        String key = StrUtil.join("|", groups, metrics, from, to,
+                StrUtil.trimToEmpty(dto.getOwnerDept()), StrUtil.trimToEmpty(dto.getProductLine()),
+                StrUtil.trimToEmpty(dto.getRegion()), percentiles);
+        List<WorkloadRollupDTO> rows = cache.get(key, false);
+        if (rows != null) {
+            return rows;
+        }
+
+        WorkloadQueryDTO filter = new WorkloadQueryDTO();
+        filter.setOwnerDept(StrUtil.trim(dto.getOwnerDept()));
+        filter.setProductLine(StrUtil.trim(dto.getProductLine()));
+        filter.setRegion(StrUtil.trim(dto.getRegion()));
+        long current = generation.get();
+        if (percentiles || !rollupReady()) {
+            rows = reqListMapper.selectWorkloadFacts(groups, metrics, from, to, filter, percentiles);
+        } else {
+            rows = reqListMapper.selectWorkloadRollup(groups, metrics, from, to, filter);
+        }
+        rows = Collections.unmodifiableList(rows);
+        if (generation.get() == current) {
+            cache.put(key, rows);
+        }
+        return rows;
+    }
+
+    /**
+     * 重算待刷新月份的汇总；另一个刷新正在进行时直接返回
+     *
+     * @return 写入的汇总行数
+     */
+    public int refresh() {
+        return reqListMapper.refreshWorkloadRollup();
+    }
+
+    /**
+     * 汇总表是否已包含全部已提交的写入：有待刷新的月份时返回 false，由调用方改为从明细统计，
+     * 并请求一次后台重算（上次重算被并发的重算跳过时由此补上）
+     */
+    private boolean rollupReady() {
+        if (!reqListMapper.hasDirtyWorkloadMonths()) {
+            return true;
+        }
+        refresher.request();
+        return false;
+    }
+
+    /**
+     * 清空缓存的统计结果
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    @EventListener
+    public void onImportCommitted(ImportCommittedEvent event) {
+        invalidate();
+        log.debug("{}导入已提交，工作量统计缓存失效", event.getLabel());
+    }
+
+    @EventListener
+    public void onReqListImportFinished(ReqListImportFinishedEvent event) {
+        refresher.request();
+    }
+
+    private static YearMonth parseMonth(String month) {
+        if (StrUtil.isBlank(month)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(month.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("月份格式应为 yyyy-MM: " + month);
+        }
+    }
+}
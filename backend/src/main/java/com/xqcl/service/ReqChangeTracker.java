@@ -0,0 +1,70 @@
+package com.xqcl.service;
+
+import cn.hutool.core.util.StrUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 记录当前事务写入的需求评估单号，事务提交后发布 {@link ReqChangedEvent}，回滚时丢弃
+ * <p>
+ * 导入的各种写入方式（批量新增或更新、COPY 合并、流水线写线程）和外部调用的批量保存都在写入时登记，
+ * 每个事务按数据名称各发布一次事件。不在事务中时立即发布。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Component
+public class ReqChangeTracker {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 登记写入的需求评估单号
+     *
+     * @param label  数据名称
+     * @param reqNos 需求评估单号，空值忽略
+     */
+    @SuppressWarnings("unchecked")
+    public void touched(String label, Collection<String> reqNos) {
+        Set<String> keys = reqNos.stream()
+                .filter(StrUtil::isNotBlank)
+                .collect(Collectors.toCollection(HashSet::new));
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new ReqChangedEvent(label, keys));
+            return;
+        }
+
+        Map<String, Set<String>> pending = (Map<String, Set<String>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Set<String>> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    created.forEach((name, changed) -> eventPublisher.publishEvent(new ReqChangedEvent(name, changed)));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReqChangeTracker.this);
+                }
+            });
+            pending = created;
+        }
+        pending.computeIfAbsent(label, name -> new HashSet<>()).addAll(keys);
+    }
+}
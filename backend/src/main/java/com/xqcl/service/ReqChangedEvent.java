@@ -0,0 +1,33 @@
+package com.xqcl.service;
+
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 需求数据已变更事件
+ * <p>
+ * 写入需求列表或需求详情的事务提交后在提交线程中同步发布，携带本事务写入的需求评估单号，
+ * 按需求评估单号缓存的数据据此逐个失效。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Getter
+public class ReqChangedEvent {
+
+    /**
+     * 数据名称（需求列表 / 需求详情）
+     */
+    private final String label;
+
+    /**
+     * 写入的需求评估单号
+     */
+    private final Set<String> reqNos;
+
+    public ReqChangedEvent(String label, Set<String> reqNos) {
+        this.label = label;
+        this.reqNos = reqNos;
+    }
+}
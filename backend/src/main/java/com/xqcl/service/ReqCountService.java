@@ -0,0 +1,138 @@
+package com.xqcl.service;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xqcl.config.QueryProperties;
+import com.xqcl.config.QueryProperties.CountStrategy;
+import com.xqcl.entity.ReqList;
+import com.xqcl.mapper.ReqListMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 需求列表总条数统计
+ * <p>
+ * 分页查询不再由分页插件附带 COUNT(*)，改为按统计方式取总条数：
+ * <ul>
+ *     <li>EXACT：执行 COUNT(*)</li>
+ *     <li>CACHED：按规范化的筛选条件（生成的 SQL 片段和参数值）缓存精确值，导入提交后全部失效</li>
+ *     <li>ESTIMATED：无筛选时取 pg_class.reltuples，有筛选时取 EXPLAIN 的估算行数；估算值较小时直接精确统计</li>
+ * </ul>
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+public class ReqCountService {
+
+    @Autowired
+    private ReqListMapper reqListMapper;
+
+    @Autowired
+    private QueryProperties queryProperties;
+
+    private LRUCache<String, Long> cache;
+
+    /**
+     * 失效代数：统计期间发生失效的结果不写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = CacheUtil.newLRUCache(Math.max(1, queryProperties.getCountCacheSize()),
+                queryProperties.getCountCacheTtlSeconds() * 1000);
+    }
+
+    /**
+     * 统计总条数
+     *
+     * @param wrapper  筛选条件（不含排序）
+     * @param strategy 统计方式，为 null 时使用配置
+     */
+    public Count count(LambdaQueryWrapper<ReqList> wrapper, CountStrategy strategy) {
+        if (strategy == null) {
+            strategy = queryProperties.getCountStrategy();
+        }
+        switch (strategy) {
+            case CACHED:
+                return cached(wrapper);
+            case ESTIMATED:
+                return estimated(wrapper);
+            default:
+                return new Count(reqListMapper.selectCount(wrapper), CountStrategy.EXACT);
+        }
+    }
+
+    /**
+     * 清空缓存的总条数
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    @EventListener
+    public void onImportCommitted(ImportCommittedEvent event) {
+        invalidate();
+        log.debug("{}导入已提交，总条数缓存失效", event.getLabel());
+    }
+
+    private Count cached(LambdaQueryWrapper<ReqList> wrapper) {
+        // 条件顺序固定、空条件不出现，SQL 片段加参数值即为规范化的筛选条件
+        String key = wrapper.getSqlSegment() + new TreeMap<>(wrapper.getParamNameValuePairs());
+        Long total = cache.get(key, false);
+        if (total != null) {
+            return new Count(total, CountStrategy.CACHED);
+        }
+        long current = generation.get();
+        total = reqListMapper.selectCount(wrapper);
+        if (generation.get() == current) {
+            cache.put(key, total);
+        }
+        return new Count(total, CountStrategy.EXACT);
+    }
+
+    private Count estimated(LambdaQueryWrapper<ReqList> wrapper) {
+        long estimate;
+        if (wrapper.isEmptyOfWhere()) {
+            estimate = reqListMapper.estimateRows();
+        } else {
+            String plan = reqListMapper.explainSelect(wrapper);
+            estimate = JSONUtil.parseArray(plan).getJSONObject(0).getJSONObject("Plan").getLong("Plan Rows", 0L);
+        }
+        if (estimate < queryProperties.getCountExactThreshold()) {
+            return new Count(reqListMapper.selectCount(wrapper), CountStrategy.EXACT);
+        }
+        return new Count(estimate, CountStrategy.ESTIMATED);
+    }
+
+    /**
+     * 总条数及其实际来源
+     */
+    @Getter
+    public static class Count {
+
+        private final long total;
+
+        /**
+         * 产生该值的统计方式：EXACT（本次精确统计）、CACHED（缓存命中）、ESTIMATED（估算）
+         */
+        private final CountStrategy strategy;
+
+        Count(long total, CountStrategy strategy) {
+            this.total = total;
+            this.strategy = strategy;
+        }
+    }
+}
@@ -1,20 +1,38 @@
 package com.xqcl.service;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.xqcl.config.ExcelImportProperties;
+import com.xqcl.dto.ImportResultDTO;
+import com.xqcl.dto.ReqDetailHitDTO;
+import com.xqcl.dto.UpsertResult;
 import com.xqcl.entity.ReqDetail;
 import com.xqcl.mapper.ReqDetailMapper;
+import com.xqcl.util.AdaptiveBatchSizer;
+import com.xqcl.util.ExcelColumnMapping;
 import com.xqcl.util.ExcelImportUtil;
+import com.xqcl.util.FullTextQuery;
+import com.xqcl.util.ImportCheckpoint;
+import com.xqcl.util.ImportProgress;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -27,100 +45,200 @@ import java.util.stream.Collectors;
 @Service
 public class ReqDetailService extends ServiceImpl<ReqDetailMapper, ReqDetail> {
 
+    /**
+     * 全文检索高亮片段长度（字符）
+     */
+    private static final int SNIPPET_LENGTH = 120;
+
+    /**
+     * 全文检索每页最大条数
+     */
+    private static final int SEARCH_MAX_SIZE = 100;
+
+    @Autowired
+    private ExcelImportProperties importProperties;
+
+    @Autowired
+    private PgCopyLoader pgCopyLoader;
+
+    @Autowired
+    private ImportExecutor importExecutor;
+
+    @Autowired
+    private DirtyColumnUpdater dirtyColumnUpdater;
+
+    @Autowired
+    private ReqChangeTracker reqChangeTracker;
+
+    @Autowired
+    private ReqLookupCache reqLookupCache;
+
     /**
      * 根据需求评估单号查询需求详情列表
      */
     public List<ReqDetail> listByReqNo(String reqNo) {
-        LambdaQueryWrapper<ReqDetail> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(ReqDetail::getReqNo, reqNo);
-        return baseMapper.selectList(wrapper);
+        return reqLookupCache.reqDetails(reqNo, () -> {
+            LambdaQueryWrapper<ReqDetail> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(ReqDetail::getReqNo, reqNo);
+            return Collections.unmodifiableList(baseMapper.selectList(wrapper));
+        });
     }
 
     /**
-     * 导入需求详情 Excel（优化版 - 批量处理）
+     * 全文检索需求描述、需求场景和研发评估，按相关度分页，命中字段附高亮片段
+     *
+     * @param query   检索词，多个关键词以空格分隔，须全部命中
+     * @param current 页码
+     * @param size    每页条数
+     * @throws IllegalArgumentException 检索词为空
      */
-    @Transactional(rollbackFor = Exception.class)
-    public int importExcel(MultipartFile file) throws Exception {
-        // 使用批量处理方式解析 Excel
-        final int[] totalCount = {0};
-
-        ExcelImportUtil.parseReqDetailExcelBatch(file, batch -> {
-            // 批量处理数据
-            if (CollUtil.isEmpty(batch)) {
-                return;
-            }
+    public Page<ReqDetailHitDTO> search(String query, long current, long size) {
+        FullTextQuery fullTextQuery = FullTextQuery.parse(query);
+        current = Math.max(1, current);
+        size = Math.max(1, Math.min(SEARCH_MAX_SIZE, size));
 
-            // 分离有 reqNo 和无 reqNo 的数据
-            List<ReqDetail> hasReqNo = batch.stream()
-                    .filter(d -> StrUtil.isNotBlank(d.getReqNo()))
-                    .collect(Collectors.toList());
-
-            List<ReqDetail> noReqNo = batch.stream()
-                    .filter(d -> StrUtil.isBlank(d.getReqNo()))
-                    .collect(Collectors.toList());
-
-            // 1. 处理有 reqNo 的数据（查询已存在的）
-            List<ReqDetail> insertList = new ArrayList<>();
-            List<ReqDetail> updateList = new ArrayList<>();
-
-            if (!hasReqNo.isEmpty()) {
-                // 查询已存在的数据
-                List<String> reqNos = hasReqNo.stream()
-                        .map(ReqDetail::getReqNo)
-                        .distinct()
-                        .collect(Collectors.toList());
-
-                LambdaQueryWrapper<ReqDetail> wrapper = new LambdaQueryWrapper<>();
-                wrapper.in(ReqDetail::getReqNo, reqNos);
-                List<ReqDetail> existDetails = baseMapper.selectList(wrapper);
-
-                // 构建已存在数据的映射
-                Map<String, ReqDetail> existMap = existDetails.stream()
-                        .collect(Collectors.toMap(
-                                detail -> {
-                                    String reqName = detail.getReqName();
-                                    return detail.getReqNo() + "_" + (reqName != null ? reqName : "");
-                                },
-                                detail -> detail
-                        ));
-
-                // 分类需要新增和更新的数据
-                for (ReqDetail reqDetail : hasReqNo) {
-                    String reqName = reqDetail.getReqName();
-                    String key = reqDetail.getReqNo() + "_" + (reqName != null ? reqName : "");
-                    ReqDetail existDetail = existMap.get(key);
-
-                    if (existDetail != null) {
-                        // 需要更新
-                        reqDetail.setId(existDetail.getId());
-                        updateList.add(reqDetail);
-                    } else {
-                        // 需要新增
-                        insertList.add(reqDetail);
-                    }
-                }
+        Page<ReqDetailHitDTO> page = new Page<>(current, size, baseMapper.countSearch(fullTextQuery.getTsQuery()));
+        if (page.getTotal() > (current - 1) * size) {
+            List<ReqDetailHitDTO> hits = baseMapper.selectSearch(fullTextQuery.getTsQuery(), (current - 1) * size, size);
+            for (ReqDetailHitDTO hit : hits) {
+                Map<String, String> highlights = new LinkedHashMap<>();
+                putIfNotNull(highlights, "reqDesc", fullTextQuery.highlight(hit.getReqDesc(), SNIPPET_LENGTH));
+                putIfNotNull(highlights, "reqScene", fullTextQuery.highlight(hit.getReqScene(), SNIPPET_LENGTH));
+                putIfNotNull(highlights, "rdEval", fullTextQuery.highlight(hit.getRdEval(), SNIPPET_LENGTH));
+                hit.setHighlights(highlights);
             }
+            page.setRecords(hits);
+        }
+        return page;
+    }
 
-            // 2. 无 reqNo 的数据直接插入（无法判断是否存在）
-            insertList.addAll(noReqNo);
+    private static void putIfNotNull(Map<String, String> map, String key, String value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
 
-            // 3. 批量插入
-            if (!insertList.isEmpty()) {
-                saveBatch(insertList, 500);
-                log.info("批量插入需求详情: {} 条", insertList.size());
-            }
+    /**
+     * 需求评估单号在需求列表中不存在的需求详情单号个数
+     */
+    public long countOrphanReqNos() {
+        return baseMapper.countOrphanReqNos();
+    }
 
-            // 4. 批量更新
-            if (!updateList.isEmpty()) {
-                updateBatchById(updateList, 500);
-                log.info("批量更新需求详情: {} 条", updateList.size());
-            }
+    /**
+     * 需求评估单号在需求列表中不存在的需求详情单号（按单号排序，最多 limit 个）
+     */
+    public List<String> listOrphanReqNos(int limit) {
+        return baseMapper.selectOrphanReqNos(limit);
+    }
 
-            totalCount[0] += batch.size();
-        });
+    /**
+     * 导入需求详情 Excel（优化版 - 批量处理）
+     */
+    public ImportResultDTO importExcel(MultipartFile file) throws Exception {
+        ImportProgress progress = new ImportProgress();
+        try (InputStream is = file.getInputStream()) {
+            importExcel(is, progress);
+        }
+        return progress.toResult();
+    }
 
-        log.info("导入需求详情完成，共处理 {} 条", totalCount[0]);
-        return totalCount[0];
+    /**
+     * 导入需求详情 Excel 输入流，解析和写入进度记录到 progress
+     * <p>
+     * BATCH 模式按提交策略提交；COPY 模式整个导入一个事务；PIPELINE 模式每批独立事务
+     */
+    public int importExcel(InputStream is, ImportProgress progress) throws Exception {
+        return importExcel(is, progress, ImportCheckpoint.NONE);
+    }
+
+    /**
+     * 导入需求详情 Excel 输入流，CHECKPOINT 模式下按 checkpoint 续传并记录检查点
+     */
+    public int importExcel(InputStream is, ImportProgress progress, ImportCheckpoint checkpoint) throws Exception {
+        switch (importProperties.getWriteMode()) {
+            case CHECKPOINT:
+                // 检查点只在提交时记录，ALL 提交策略下按每批提交
+                return batchImport(is, progress, checkpoint, Math.max(1, importProperties.getBatchesPerCommit()));
+            case COPY:
+                return importExecutor.inTransaction("需求详情", () -> copyImport(is, progress));
+            case PIPELINE:
+                return importExecutor.pipeline("需求详情", is, progress, columns(), ReqDetail::getReqNo,
+                        importExecutor.batchSizer(ReqDetailMapper.class, ReqDetail.class, "需求详情"), this::upsertBatch);
+            default:
+                return batchImport(is, progress, ImportCheckpoint.NONE, importProperties.getBatchesPerCommit());
+        }
+    }
+
+    /**
+     * 需求详情列映射，按配置决定无法匹配表头时是否按模板列顺序解析
+     */
+    private ExcelColumnMapping<ReqDetail> columns() {
+        return ExcelImportUtil.REQ_DETAIL_COLUMNS.withPositionalFallback(importProperties.isPositionalFallback());
+    }
+
+    /**
+     * BATCH / CHECKPOINT 方式导入：边解析边按批新增或更新，每 batchesPerCommit 批提交一次（0 为整个导入一个事务），
+     * 提交时在同一事务内记录检查点；失败时回滚未提交的批次，已提交的行范围记录到 progress
+     */
+    private int batchImport(InputStream is, ImportProgress progress, ImportCheckpoint checkpoint,
+                            int batchesPerCommit) throws Exception {
+        ExcelImportUtil.ReaderMode readerMode = importProperties.getReaderMode();
+        int resumeAfterRow = checkpoint.getResumeAfterRow();
+        long start = System.currentTimeMillis();
+        if (resumeAfterRow > 0) {
+            log.info("需求详情从第 {} 行之后继续导入", resumeAfterRow);
+        }
+
+        AdaptiveBatchSizer sizer = importExecutor.batchSizer(ReqDetailMapper.class, ReqDetail.class, "需求详情");
+        BatchCommitter committer = importExecutor.committer("需求详情", progress, checkpoint, batchesPerCommit);
+        int count;
+        try {
+            count = ExcelImportUtil.parseExcelBatch(is, readerMode, progress, columns(),
+                    resumeAfterRow, sizer::current, (batch, lastRowNum) -> {
+                        progress.checkCancelled();
+                        committer.write(lastRowNum, () -> sizer.measure(batch.size(), () -> upsertBatch(batch)));
+                    });
+            committer.finish();
+        } catch (Exception | Error e) {
+            committer.rollback();
+            throw e;
+        }
+
+        log.info("导入需求详情完成，共解析 {} 条，新增 {} 条，更新 {} 条，未变化 {} 条，每次提交 {} 批，读取模式: {}，耗时 {} ms",
+                count, progress.getInsertedRows(), progress.getUpdatedRows(), progress.getUnchangedRows(),
+                batchesPerCommit == 0 ? "全部" : batchesPerCommit, readerMode, System.currentTimeMillis() - start);
+        log.info("导入需求详情{}", sizer);
+        return count;
+    }
+
+    /**
+     * COPY 方式导入：流式写入暂存表，解析结束后一条语句合并到 req_detail
+     */
+    private int copyImport(InputStream is, ImportProgress progress) throws Exception {
+        ExcelImportUtil.ReaderMode readerMode = importProperties.getReaderMode();
+        long start = System.currentTimeMillis();
+
+        try (PgCopyLoader.Session<ReqDetail> session = pgCopyLoader.open(ReqDetail.class, "req_no", "req_name")) {
+            int count = ExcelImportUtil.parseExcelBatch(is, readerMode, progress, columns(), 0, (batch, lastRowNum) -> {
+                // 与 upsertBatch 保持一致：需求名称为空时按空串处理
+                for (ReqDetail reqDetail : batch) {
+                    if (StrUtil.isNotBlank(reqDetail.getReqNo()) && reqDetail.getReqName() == null) {
+                        reqDetail.setReqName("");
+                    }
+                }
+                session.write(batch);
+                reqChangeTracker.touched("需求详情", batch.stream().map(ReqDetail::getReqNo).collect(Collectors.toList()));
+            });
+            progress.checkCancelled();
+            UpsertResult result = session.merge();
+            progress.addUpsert(result);
+
+            log.info("COPY 导入需求详情完成，共解析 {} 条，新增 {} 条，更新 {} 条，未变化 {} 条，读取模式: {}，耗时 {} ms",
+                    count, result.getInserted(), result.getUpdated(), result.getUnchanged(), readerMode,
+                    System.currentTimeMillis() - start);
+            return count;
+        }
     }
 
     /**
@@ -131,46 +249,75 @@ public class ReqDetailService extends ServiceImpl<ReqDetailMapper, ReqDetail> {
         if (CollUtil.isEmpty(list)) {
             return;
         }
+        // 单条 INSERT ... ON CONFLICT 的绑定参数个数有上限，按批次上限拆分
+        int maxRows = importExecutor.maxBatchRows(ReqDetailMapper.class, ReqDetail.class);
+        for (List<ReqDetail> part : ListUtil.partition(list, maxRows)) {
+            upsertBatch(part);
+        }
+    }
 
-        // 查询已存在的数据
-        List<String> reqNos = list.stream()
-                .map(ReqDetail::getReqNo)
-                .distinct()
-                .collect(Collectors.toList());
-
-        LambdaQueryWrapper<ReqDetail> wrapper = new LambdaQueryWrapper<>();
-        wrapper.in(ReqDetail::getReqNo, reqNos);
-        List<ReqDetail> existDetails = baseMapper.selectList(wrapper);
-
-        // 构建已存在数据的映射
-        Map<String, ReqDetail> existMap = existDetails.stream()
-                .collect(Collectors.toMap(
-                        detail -> detail.getReqNo() + "_" + detail.getReqName(),
-                        detail -> detail
-                ));
-
-        // 分类需要新增和更新的数据
-        List<ReqDetail> insertList = new ArrayList<>();
-        List<ReqDetail> updateList = new ArrayList<>();
-
-        for (ReqDetail reqDetail : list) {
-            String key = reqDetail.getReqNo() + "_" + reqDetail.getReqName();
-            ReqDetail existDetail = existMap.get(key);
-
-            if (existDetail != null) {
-                reqDetail.setId(existDetail.getId());
-                updateList.add(reqDetail);
+    /**
+     * 按 (reqNo, reqName) 新增或更新一批需求详情
+     * <p>
+     * 批内重复键后出现的行生效，一条 INSERT ... ON CONFLICT 完成新增和更新，内容哈希与库中一致的行不更新；
+     * 无 reqNo 的数据无法判断是否存在，直接插入
+     */
+    private UpsertResult upsertBatch(List<ReqDetail> batch) {
+        Map<List<String>, ReqDetail> uniqueMap = new LinkedHashMap<>(batch.size() * 2);
+        List<ReqDetail> noReqNo = new ArrayList<>();
+
+        for (ReqDetail reqDetail : batch) {
+            if (StrUtil.isBlank(reqDetail.getReqNo())) {
+                noReqNo.add(reqDetail);
+                continue;
+            }
+            // 唯一索引中 NULL 互不冲突，需求名称为空时按空串处理
+            if (reqDetail.getReqName() == null) {
+                reqDetail.setReqName("");
+            }
+            uniqueMap.put(Arrays.asList(reqDetail.getReqNo(), reqDetail.getReqName()), reqDetail);
+        }
+
+        UpsertResult result = new UpsertResult();
+        if (!uniqueMap.isEmpty()) {
+            List<ReqDetail> rows = new ArrayList<>(uniqueMap.values());
+            reqChangeTracker.touched("需求详情", rows.stream().map(ReqDetail::getReqNo).collect(Collectors.toList()));
+            if (importProperties.getUpdateMode() == ExcelImportProperties.UpdateMode.DIRTY) {
+                result = dirtyUpsert(rows);
             } else {
-                insertList.add(reqDetail);
+                result = baseMapper.upsertBatch(rows);
+                result.setUnchanged(rows.size() - result.getInserted() - result.getUpdated());
             }
+            log.info("批量新增或更新需求详情: 新增 {} 条，更新 {} 条，未变化 {} 条",
+                    result.getInserted(), result.getUpdated(), result.getUnchanged());
         }
 
-        // 批量插入和更新
-        if (!insertList.isEmpty()) {
-            saveBatch(insertList, 500);
+        if (!noReqNo.isEmpty()) {
+            saveBatch(noReqNo, noReqNo.size());
+            result.setInserted(result.getInserted() + noReqNo.size());
+            log.info("批量插入需求详情（无需求评估单号）: {} 条", noReqNo.size());
         }
-        if (!updateList.isEmpty()) {
-            updateBatchById(updateList, 500);
+        return result;
+    }
+
+    /**
+     * DIRTY 更新方式：按 (reqNo, reqName) 找到已存在的行只更新变化的列，其余行新增
+     */
+    private UpsertResult dirtyUpsert(List<ReqDetail> rows) {
+        Set<String> reqNos = rows.stream().map(ReqDetail::getReqNo).collect(Collectors.toSet());
+        Map<List<String>, ReqDetail> stored = new HashMap<>(rows.size() * 2);
+        for (ReqDetail reqDetail : baseMapper.selectList(new LambdaQueryWrapper<ReqDetail>().in(ReqDetail::getReqNo, reqNos))) {
+            stored.put(Arrays.asList(reqDetail.getReqNo(), reqDetail.getReqName()), reqDetail);
+        }
+
+        UpsertResult result = new UpsertResult();
+        List<ReqDetail> missing = dirtyColumnUpdater.update(ReqDetail.class, rows, stored,
+                d -> Arrays.asList(d.getReqNo(), d.getReqName()), Arrays.asList("reqNo", "reqName"), result);
+        if (!missing.isEmpty()) {
+            UpsertResult inserted = baseMapper.upsertBatch(missing);
+            result.setInserted(result.getInserted() + inserted.getInserted());
+            result.setUpdated(result.getUpdated() + inserted.getUpdated());
         }
+        return result;
     }
 }
@@ -0,0 +1,143 @@
+package com.xqcl.service;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xqcl.dto.FacetCountDTO;
+import com.xqcl.dto.FacetResultDTO;
+import com.xqcl.dto.QueryReqDTO;
+import com.xqcl.entity.ReqList;
+import com.xqcl.mapper.ReqListMapper;
+import com.xqcl.util.BackgroundRefresher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * 需求列表筛选项计数
+ * <p>
+ * 计数来自 req_list_facet（按筛选项组合聚合的计数表）加上未合并的 req_list_facet_delta（语句级触发器写入的增量），
+ * 每个筛选项的计数应用其余筛选项的当前条件，不应用自身的条件。筛选项列表和计数条件的匹配规则与分页查询一致。
+ * 查询条件中有单号、项目名称等非筛选项条件时无法用组合计数回答，改为按条件对 req_list 分组统计。
+ * 需求列表导入结束后在后台线程把增量合并进计数表，不占用导入的写入路径。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Service
+public class ReqFacetService {
+
+    /**
+     * 计数来源
+     */
+    public static final String SOURCE_AGGREGATE = "AGGREGATE";
+    public static final String SOURCE_SCAN = "SCAN";
+
+    /**
+     * 每个筛选项最多返回的取值个数上限
+     */
+    private static final int MAX_TOP = 200;
+
+    /**
+     * 筛选项：字段名 → 列名和清除自身条件的方式
+     */
+    private static final Map<String, Facet> FACETS = new LinkedHashMap<>();
+
+    static {
+        FACETS.put("status", new Facet("status", QueryReqDTO::setStatus));
+        FACETS.put("industry", new Facet("industry", QueryReqDTO::setIndustry));
+        FACETS.put("region", new Facet("region", QueryReqDTO::setRegion));
+        FACETS.put("productSeries", new Facet("product_series", QueryReqDTO::setProductSeries));
+        FACETS.put("ownerDept", new Facet("owner_dept", QueryReqDTO::setOwnerDept));
+    }
+
+    @Autowired
+    private ReqListMapper reqListMapper;
+
+    @Autowired
+    private ReqListService reqListService;
+
+    private BackgroundRefresher folder;
+
+    @PostConstruct
+    public void init() {
+        folder = new BackgroundRefresher("facet-fold", () -> {
+            int merged = fold();
+            log.debug("合并筛选项计数 {} 个组合", merged);
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        folder.close();
+    }
+
+    /**
+     * 各筛选项的取值及条数
+     *
+     * @param dto 当前查询条件
+     * @param top 每个筛选项返回条数最多的前 top 个取值
+     */
+    public FacetResultDTO facets(QueryReqDTO dto, int top) {
+        int limit = Math.max(1, Math.min(MAX_TOP, top));
+        boolean aggregate = Stream.of(dto.getReqNo(), dto.getProjectName(), dto.getOpportunityNo(),
+                        dto.getSoftwareVersion(), dto.getReqOwner(), dto.getDevNo(), dto.getJknNo())
+                .allMatch(StrUtil::isBlank);
+
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        FACETS.forEach((field, facet) -> {
+            QueryReqDTO others = BeanUtil.copyProperties(dto, QueryReqDTO.class);
+            facet.clear.accept(others, null);
+            // 计数表的筛选项列与 req_list 同名，条件可直接套用
+            LambdaQueryWrapper<ReqList> wrapper = reqListService.buildQueryWrapper(others);
+            facets.put(field, aggregate
+                    ? reqListMapper.selectFacetCounts(facet.column, wrapper, limit)
+                    : reqListMapper.scanFacetCounts(facet.column, wrapper, limit));
+        });
+
+        FacetResultDTO result = new FacetResultDTO();
+        result.setSource(aggregate ? SOURCE_AGGREGATE : SOURCE_SCAN);
+        result.setFacets(facets);
+        return result;
+    }
+
+    /**
+     * 把增量合并进计数表；另一个合并正在进行时直接返回
+     *
+     * @return 合并后变化的组合数
+     */
+    public int fold() {
+        int merged = reqListMapper.foldFacetDelta();
+        if (merged > 0) {
+            reqListMapper.deleteEmptyFacets();
+        }
+        return merged;
+    }
+
+    @EventListener
+    public void onReqListImportFinished(ReqListImportFinishedEvent event) {
+        // 计数查询同时读取增量，合并只是压缩，失败不影响导入和计数结果
+        folder.request();
+    }
+
+    private static class Facet {
+
+        private final String column;
+        private final BiConsumer<QueryReqDTO, String> clear;
+
+        Facet(String column, BiConsumer<QueryReqDTO, String> clear) {
+            this.column = column;
+            this.clear = clear;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.xqcl.service;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.xqcl.config.QueryProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 多实例间的缓存失效广播（PostgreSQL LISTEN/NOTIFY）
+ * <p>
+ * 本实例的写入事务提交后（{@link ReqChangedEvent}），把写入的需求评估单号通过 pg_notify 发布到通知通道，
+ * 单号多时拆成多条通知（单条通知上限 8000 字节），超过查询缓存容量时改为通知清空。
+ * 每个实例用一个不经过连接池的独立连接 LISTEN 该通道，收到其他实例的通知后失效对应的查询缓存，
+ * 并清空总条数和工作量统计缓存。通知只在连接保持期间送达，监听连接断开重连后清空全部本地缓存。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+public class ReqInvalidationBus {
+
+    /**
+     * 单条通知的载荷上限（PostgreSQL 为 8000 字节，留出 JSON 外层的余量）
+     */
+    private static final int MAX_PAYLOAD_BYTES = 7000;
+
+    /**
+     * 等待通知的超时（毫秒），超时后检查连接是否可用
+     */
+    private static final int POLL_MILLIS = 10000;
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Autowired
+    private QueryProperties queryProperties;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReqLookupCache reqLookupCache;
+
+    @Autowired
+    private ReqCountService reqCountService;
+
+    @Autowired
+    private ReqAnalyticsService reqAnalyticsService;
+
+    /**
+     * 本实例标识，忽略自己发出的通知（本地缓存已由事件直接失效）
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    private TransactionTemplate notifyTransaction;
+
+    private volatile boolean running;
+
+    private Thread listener;
+
+    @PostConstruct
+    public void init() {
+        if (!queryProperties.isInvalidationBusEnabled()) {
+            return;
+        }
+        if (!CHANNEL_PATTERN.matcher(queryProperties.getInvalidationChannel()).matches()) {
+            throw new IllegalStateException("通知通道名不合法: " + queryProperties.getInvalidationChannel());
+        }
+        // 事件在写入事务提交后的回调中发布，此时原事务的连接仍绑定在线程上，通知须在新事务中发送
+        notifyTransaction = new TransactionTemplate(transactionManager);
+        notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        running = true;
+        listener = new Thread(this::listen, "req-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @EventListener
+    public void onReqChanged(ReqChangedEvent event) {
+        if (!running) {
+            return;
+        }
+        List<String> payloads = payloads(event);
+        try {
+            notifyTransaction.executeWithoutResult(status -> {
+                for (String payload : payloads) {
+                    jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null,
+                            queryProperties.getInvalidationChannel(), payload);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 其他实例的缓存只能等到过期，写入本身已提交
+            log.warn("广播{}缓存失效失败（{} 个需求）: {}", event.getLabel(), event.getReqNos().size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 拆分通知载荷：{"node":..,"label":..,"reqNos":[..]}，单号超过查询缓存容量时为 {"node":..,"label":..,"flush":true}
+     */
+    private List<String> payloads(ReqChangedEvent event) {
+        List<String> payloads = new ArrayList<>();
+        if (event.getReqNos().size() >= queryProperties.getLookupCacheSize()) {
+            payloads.add(message(event.getLabel()).set("flush", true).toString());
+            return payloads;
+        }
+        List<String> chunk = new ArrayList<>();
+        int bytes = 0;
+        for (String reqNo : event.getReqNos()) {
+            int size = JSONUtil.quote(reqNo).getBytes(StandardCharsets.UTF_8).length + 1;
+            if (!chunk.isEmpty() && bytes + size > MAX_PAYLOAD_BYTES) {
+                payloads.add(message(event.getLabel()).set("reqNos", chunk).toString());
+                chunk = new ArrayList<>();
+                bytes = 0;
+            }
+            chunk.add(reqNo);
+            bytes += size;
+        }
+        if (!chunk.isEmpty()) {
+            payloads.add(message(event.getLabel()).set("reqNos", chunk).toString());
+        }
+        return payloads;
+    }
+
+    private JSONObject message(String label) {
+        return JSONUtil.createObj().set("node", nodeId).set("label", label);
+    }
+
+    /**
+     * 监听线程：建立独立连接并 LISTEN，断开后按间隔重连；每次（重新）建立连接后清空本地缓存
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("LISTEN " + queryProperties.getInvalidationChannel());
+                }
+                flush();
+                log.info("已监听缓存失效通道 {}，本实例 {}", queryProperties.getInvalidationChannel(), nodeId);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications == null || notifications.length == 0) {
+                        // 空闲时发一条查询，连接已断开时抛出异常并重连
+                        try (Statement stmt = connection.createStatement()) {
+                            stmt.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            receive(notification.getParameter());
+                        } catch (RuntimeException e) {
+                            log.error("处理缓存失效通知异常: {}", notification.getParameter(), e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("缓存失效监听连接断开，{} 秒后重连: {}", queryProperties.getInvalidationReconnectSeconds(), e.getMessage());
+                try {
+                    TimeUnit.SECONDS.sleep(Math.max(1, queryProperties.getInvalidationReconnectSeconds()));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 处理其他实例的通知
+     */
+    private void receive(String payload) {
+        JSONObject message;
+        try {
+            message = JSONUtil.parseObj(payload);
+        } catch (RuntimeException e) {
+            log.warn("忽略无法解析的缓存失效通知: {}", payload);
+            return;
+        }
+        if (nodeId.equals(message.getStr("node"))) {
+            return;
+        }
+        String label = message.getStr("label");
+        if (message.getBool("flush", false) || message.getJSONArray("reqNos") == null) {
+            reqLookupCache.clear();
+        } else {
+            reqLookupCache.invalidate(label, message.getJSONArray("reqNos").toList(String.class));
+        }
+        reqCountService.invalidate();
+        reqAnalyticsService.invalidate();
+    }
+
+    /**
+     * 清空本实例的全部缓存
+     */
+    private void flush() {
+        reqLookupCache.clear();
+        reqCountService.invalidate();
+        reqAnalyticsService.invalidate();
+    }
+}
@@ -0,0 +1,13 @@
+package com.xqcl.service;
+
+/**
+ * 需求列表导入结束事件
+ * <p>
+ * 一次需求列表导入结束（成功或失败，分批提交时失败前已提交的批次仍然有效）后在导入线程中同步发布一次，
+ * 用于触发合并筛选项增量、重算工作量汇总等整理工作；缓存失效仍按每次提交的 {@link ImportCommittedEvent}。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class ReqListImportFinishedEvent {
+}
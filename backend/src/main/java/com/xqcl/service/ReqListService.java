@@ -3,23 +3,45 @@ package com.xqcl.service;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.xqcl.config.ExcelImportProperties;
+import com.xqcl.dto.CountedPageDTO;
+import com.xqcl.dto.CursorPageDTO;
+import com.xqcl.dto.ImportResultDTO;
 import com.xqcl.dto.QueryReqDTO;
+import com.xqcl.dto.ReqListSummaryDTO;
+import com.xqcl.dto.UpsertResult;
 import com.xqcl.entity.ReqDetail;
 import com.xqcl.entity.ReqList;
 import com.xqcl.mapper.ReqListMapper;
+import com.xqcl.util.AdaptiveBatchSizer;
+import com.xqcl.util.ExcelColumnMapping;
 import com.xqcl.util.ExcelImportUtil;
+import com.xqcl.util.ImportCheckpoint;
+import com.xqcl.util.ImportProgress;
+import com.xqcl.util.KeysetCursor;
 import com.xqcl.util.MarkdownExportUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -32,102 +54,435 @@ import java.util.stream.Collectors;
 @Service
 public class ReqListService extends ServiceImpl<ReqListMapper, ReqList> {
 
+    /**
+     * 包含匹配能用上三元组索引的最短筛选值长度
+     */
+    private static final int TRGM_MIN_LENGTH = 3;
+
     @Autowired
     private ReqDetailService reqDetailService;
 
+    @Autowired
+    private ExcelImportProperties importProperties;
+
+    @Autowired
+    private PgCopyLoader pgCopyLoader;
+
+    @Autowired
+    private ImportExecutor importExecutor;
+
+    @Autowired
+    private DirtyColumnUpdater dirtyColumnUpdater;
+
+    @Autowired
+    private ReqCountService reqCountService;
+
+    @Autowired
+    private ReqChangeTracker reqChangeTracker;
+
+    @Autowired
+    private ReqLookupCache reqLookupCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${app.markdown-export-dir:./export/markdown}")
     private String markdownExportDir;
 
     /**
      * 分页查询需求列表
      */
-    public Page<ReqList> pageQuery(QueryReqDTO dto) {
-        Page<ReqList> page = new Page<>(dto.getCurrent(), dto.getSize());
-        LambdaQueryWrapper<ReqList> wrapper = new LambdaQueryWrapper<>();
+    public CountedPageDTO<ReqList> pageQuery(QueryReqDTO dto) {
+        CountedPageDTO<ReqList> page = new CountedPageDTO<>(dto.getCurrent(), dto.getSize());
+        // 单号作为第二排序键，保证提交时间相同的行顺序稳定
+        LambdaQueryWrapper<ReqList> wrapper = buildQueryWrapper(dto)
+                .orderByDesc(ReqList::getSubmitTime)
+                .orderByDesc(ReqList::getReqNo);
+        selectFields(wrapper, dto.getFields());
+        baseMapper.selectPage(page, wrapper);
+        fillTotal(page, dto);
+        return page;
+    }
 
-        // 构建查询条件
-        wrapper.like(StrUtil.isNotBlank(dto.getReqNo()), ReqList::getReqNo, dto.getReqNo())
-                .like(StrUtil.isNotBlank(dto.getProjectName()), ReqList::getProjectName, dto.getProjectName())
-                .like(StrUtil.isNotBlank(dto.getOpportunityNo()), ReqList::getOpportunityNo, dto.getOpportunityNo())
-                .like(StrUtil.isNotBlank(dto.getIndustry()), ReqList::getIndustry, dto.getIndustry())
-                .like(StrUtil.isNotBlank(dto.getRegion()), ReqList::getRegion, dto.getRegion())
-                .like(StrUtil.isNotBlank(dto.getProductSeries()), ReqList::getProductSeries, dto.getProductSeries())
-                .like(StrUtil.isNotBlank(dto.getSoftwareVersion()), ReqList::getSoftwareVersion, dto.getSoftwareVersion())
-                .eq(StrUtil.isNotBlank(dto.getStatus()), ReqList::getStatus, dto.getStatus())
-                .like(StrUtil.isNotBlank(dto.getReqOwner()), ReqList::getReqOwner, dto.getReqOwner())
-                .like(StrUtil.isNotBlank(dto.getOwnerDept()), ReqList::getOwnerDept, dto.getOwnerDept())
-                .like(StrUtil.isNotBlank(dto.getDevNo()), ReqList::getDevNo, dto.getDevNo())
-                .like(StrUtil.isNotBlank(dto.getJknNo()), ReqList::getJknNo, dto.getJknNo())
-                .orderByDesc(ReqList::getSubmitTime);
+    /**
+     * 分页查询需求列表摘要（列表页表格展示的列，不含备注等其余大文本和明细工作量列）
+     */
+    public CountedPageDTO<ReqListSummaryDTO> pageSummary(QueryReqDTO dto) {
+        CountedPageDTO<ReqListSummaryDTO> page = new CountedPageDTO<>(dto.getCurrent(), dto.getSize());
+        LambdaQueryWrapper<ReqList> wrapper = buildQueryWrapper(dto)
+                .orderByDesc(ReqList::getSubmitTime)
+                .orderByDesc(ReqList::getReqNo);
+        baseMapper.selectSummaryPage(page, wrapper);
+        fillTotal(page, dto);
+        return page;
+    }
 
-        return baseMapper.selectPage(page, wrapper);
+    private void fillTotal(CountedPageDTO<?> page, QueryReqDTO dto) {
+        ReqCountService.Count count = reqCountService.count(buildQueryWrapper(dto), dto.getCountStrategy());
+        page.setTotal(count.getTotal());
+        page.setCountStrategy(count.getStrategy());
+    }
+
+    /**
+     * 按 fields 指定查询列（主键总是查询），未指定时查询全部列
+     *
+     * @param fields   实体属性名
+     * @param required 额外必须查询的属性
+     * @throws IllegalArgumentException 属性名不存在
+     */
+    private static void selectFields(LambdaQueryWrapper<ReqList> wrapper, List<String> fields, String... required) {
+        if (CollUtil.isEmpty(fields)) {
+            return;
+        }
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(ReqList.class);
+        Set<String> properties = tableInfo.getFieldList().stream()
+                .map(TableFieldInfo::getProperty)
+                .collect(Collectors.toSet());
+        Set<String> selected = new HashSet<>(Arrays.asList(required));
+        for (String field : fields) {
+            if (field.equals(tableInfo.getKeyProperty())) {
+                continue;
+            }
+            if (!properties.contains(field)) {
+                throw new IllegalArgumentException("未知字段: " + field);
+            }
+            selected.add(field);
+        }
+        wrapper.select(ReqList.class, field -> selected.contains(field.getProperty()));
+    }
+
+    /**
+     * 游标分页查询需求列表（键集分页）
+     * <p>
+     * 按 (submit_time DESC, req_no DESC) 排序，提交时间为空的行排在最后。每页从游标记录的边界行开始
+     * 沿索引 idx_req_list_submit_time_req_no 定位，不跳过前面的行，翻到多深的页耗时都与第一页相当。
+     * 总条数仅在 withTotal 为 true 时统计。
+     */
+    public CursorPageDTO<ReqList> cursorQuery(QueryReqDTO dto) {
+        int size = dto.getSize() == null || dto.getSize() < 1 ? 10 : dto.getSize();
+        KeysetCursor cursor = StrUtil.isBlank(dto.getCursor()) ? null : KeysetCursor.decode(dto.getCursor());
+        boolean backward = cursor != null && cursor.isBackward();
+
+        // 多取一行判断是否还有更多
+        List<ReqList> rows = backward ? seekBackward(dto, cursor, size + 1) : seekForward(dto, cursor, size + 1);
+        boolean more = rows.size() > size;
+        if (more) {
+            rows = new ArrayList<>(rows.subList(0, size));
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+
+        CursorPageDTO<ReqList> page = new CursorPageDTO<>();
+        page.setRecords(rows);
+        page.setSize(size);
+        page.setHasNext(!rows.isEmpty() && (backward || more));
+        page.setHasPrev(!rows.isEmpty() && (backward ? more : cursor != null));
+        if (page.getHasNext()) {
+            page.setNextCursor(KeysetCursor.after(rows.get(rows.size() - 1)).encode());
+        }
+        if (page.getHasPrev()) {
+            page.setPrevCursor(KeysetCursor.before(rows.get(0)).encode());
+        }
+        if (Boolean.TRUE.equals(dto.getWithTotal())) {
+            ReqCountService.Count count = reqCountService.count(buildQueryWrapper(dto), dto.getCountStrategy());
+            page.setTotal(count.getTotal());
+            page.setCountStrategy(count.getStrategy());
+        }
+        return page;
+    }
+
+    /**
+     * 按排序方向取游标之后的行：先取提交时间非空的分段，不足时接着取提交时间为空的分段
+     */
+    private List<ReqList> seekForward(QueryReqDTO dto, KeysetCursor cursor, int limit) {
+        List<ReqList> rows = new ArrayList<>(limit);
+        boolean inNullSegment = cursor != null && cursor.getSubmitTime() == null;
+        if (!inNullSegment) {
+            rows.addAll(seek(dto, false, cursor, false, limit));
+        }
+        if (rows.size() < limit) {
+            rows.addAll(seek(dto, true, inNullSegment ? cursor : null, false, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    /**
+     * 逆排序方向取游标之前的行（结果为逆序）
+     */
+    private List<ReqList> seekBackward(QueryReqDTO dto, KeysetCursor cursor, int limit) {
+        if (cursor.getSubmitTime() != null) {
+            return seek(dto, false, cursor, true, limit);
+        }
+        List<ReqList> rows = new ArrayList<>(seek(dto, true, cursor, true, limit));
+        if (rows.size() < limit) {
+            rows.addAll(seek(dto, false, null, true, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    /**
+     * 在一个分段内从边界行开始取 limit 行
+     *
+     * @param nullTime 是否为提交时间为空的分段
+     * @param bound    边界行，为 null 时从分段开头取
+     * @param backward 是否逆序
+     */
+    private List<ReqList> seek(QueryReqDTO dto, boolean nullTime, KeysetCursor bound, boolean backward, int limit) {
+        LambdaQueryWrapper<ReqList> wrapper = buildQueryWrapper(dto);
+        // 游标由边界行的提交时间和单号生成
+        selectFields(wrapper, dto.getFields(), "submitTime");
+        if (nullTime) {
+            wrapper.isNull(ReqList::getSubmitTime);
+            if (bound != null) {
+                if (backward) {
+                    wrapper.gt(ReqList::getReqNo, bound.getReqNo());
+                } else {
+                    wrapper.lt(ReqList::getReqNo, bound.getReqNo());
+                }
+            }
+            wrapper.orderBy(true, backward, ReqList::getReqNo);
+        } else {
+            wrapper.isNotNull(ReqList::getSubmitTime);
+            if (bound != null) {
+                // 行值比较可直接作为索引范围条件
+                wrapper.apply("(submit_time, req_no) " + (backward ? ">" : "<") + " ({0}, {1})",
+                        bound.getSubmitTime(), bound.getReqNo());
+            }
+            wrapper.orderBy(true, backward, ReqList::getSubmitTime)
+                    .orderBy(true, backward, ReqList::getReqNo);
+        }
+        wrapper.last("LIMIT " + limit);
+        return baseMapper.selectList(wrapper);
+    }
+
+    /**
+     * 按查询条件构建筛选条件（不含排序）
+     */
+    LambdaQueryWrapper<ReqList> buildQueryWrapper(QueryReqDTO dto) {
+        LambdaQueryWrapper<ReqList> wrapper = new LambdaQueryWrapper<>();
+        substring(wrapper, ReqList::getReqNo, dto.getReqNo(), false);
+        substring(wrapper, ReqList::getProjectName, dto.getProjectName(), false);
+        substring(wrapper, ReqList::getOpportunityNo, dto.getOpportunityNo(), false);
+        substring(wrapper, ReqList::getIndustry, dto.getIndustry(), true);
+        substring(wrapper, ReqList::getRegion, dto.getRegion(), true);
+        substring(wrapper, ReqList::getProductSeries, dto.getProductSeries(), false);
+        substring(wrapper, ReqList::getSoftwareVersion, dto.getSoftwareVersion(), false);
+        wrapper.eq(StrUtil.isNotBlank(dto.getStatus()), ReqList::getStatus, StrUtil.trim(dto.getStatus()));
+        substring(wrapper, ReqList::getReqOwner, dto.getReqOwner(), false);
+        substring(wrapper, ReqList::getOwnerDept, dto.getOwnerDept(), false);
+        substring(wrapper, ReqList::getDevNo, dto.getDevNo(), false);
+        substring(wrapper, ReqList::getJknNo, dto.getJknNo(), false);
+        return wrapper;
+    }
+
+    /**
+     * 文本筛选：三个字符及以上按包含匹配（走 pg_trgm GIN 索引），更短的值抽不出完整的三元组，
+     * 包含匹配只能全表扫描，改为前缀匹配（锚定开头的三元组仍可走索引）；
+     * 行业、区域等字典列的短值改为等值匹配
+     *
+     * @param exactWhenShort 短值是否按等值匹配
+     */
+    private static void substring(LambdaQueryWrapper<ReqList> wrapper, SFunction<ReqList, ?> column,
+                                  String value, boolean exactWhenShort) {
+        if (StrUtil.isBlank(value)) {
+            return;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() >= TRGM_MIN_LENGTH) {
+            wrapper.like(column, trimmed);
+        } else if (exactWhenShort) {
+            wrapper.eq(column, trimmed);
+        } else {
+            wrapper.likeRight(column, trimmed);
+        }
     }
 
     /**
      * 根据需求评估单号查询需求列表
      */
     public ReqList getByReqNo(String reqNo) {
-        return baseMapper.selectById(reqNo);
+        return reqLookupCache.reqList(reqNo, () -> baseMapper.selectById(reqNo));
     }
 
     /**
      * 导入需求列表 Excel（优化版 - 批量处理）
      */
-    @Transactional(rollbackFor = Exception.class)
-    public int importExcel(MultipartFile file) throws Exception {
-        // 使用批量处理方式解析 Excel
-        final int[] totalCount = {0};
+    public ImportResultDTO importExcel(MultipartFile file) throws Exception {
+        ImportProgress progress = new ImportProgress();
+        try (InputStream is = file.getInputStream()) {
+            importExcel(is, progress);
+        }
+        return progress.toResult();
+    }
 
-        ExcelImportUtil.parseReqListExcelBatch(file, batch -> {
-            // 批量处理数据
-            if (CollUtil.isEmpty(batch)) {
-                return;
-            }
+    /**
+     * 导入需求列表 Excel 输入流，解析和写入进度记录到 progress
+     * <p>
+     * BATCH 模式按提交策略提交；COPY 模式整个导入一个事务；PIPELINE 模式每批独立事务
+     */
+    public int importExcel(InputStream is, ImportProgress progress) throws Exception {
+        return importExcel(is, progress, ImportCheckpoint.NONE);
+    }
 
-            // 1. 查询已存在的需求评估单号
-            List<String> reqNos = batch.stream()
-                    .map(ReqList::getReqNo)
-                    .distinct()
-                    .collect(Collectors.toList());
+    /**
+     * 导入需求列表 Excel 输入流，CHECKPOINT 模式下按 checkpoint 续传并记录检查点；
+     * 结束后（含失败，此前已提交的批次仍然有效）发布一次 {@link ReqListImportFinishedEvent}
+     */
+    public int importExcel(InputStream is, ImportProgress progress, ImportCheckpoint checkpoint) throws Exception {
+        try {
+            return write(is, progress, checkpoint);
+        } finally {
+            eventPublisher.publishEvent(new ReqListImportFinishedEvent());
+        }
+    }
 
-            List<ReqList> existReqs = baseMapper.selectBatchIds(reqNos);
+    private int write(InputStream is, ImportProgress progress, ImportCheckpoint checkpoint) throws Exception {
+        switch (importProperties.getWriteMode()) {
+            case CHECKPOINT:
+                // 检查点只在提交时记录，ALL 提交策略下按每批提交
+                return batchImport(is, progress, checkpoint, Math.max(1, importProperties.getBatchesPerCommit()));
+            case COPY:
+                return importExecutor.inTransaction("需求列表", () -> copyImport(is, progress));
+            case PIPELINE:
+                return importExecutor.pipeline("需求列表", is, progress, columns(), ReqList::getReqNo,
+                        importExecutor.batchSizer(ReqListMapper.class, ReqList.class, "需求列表"),
+                        batch -> upsertBatch(batch, progress));
+            default:
+                return batchImport(is, progress, ImportCheckpoint.NONE, importProperties.getBatchesPerCommit());
+        }
+    }
 
-            // 2. 构建已存在数据的映射
-            List<String> existReqNos = existReqs.stream()
-                    .map(ReqList::getReqNo)
-                    .collect(Collectors.toList());
+    /**
+     * 需求列表列映射，按配置决定无法匹配表头时是否按模板列顺序解析
+     */
+    private ExcelColumnMapping<ReqList> columns() {
+        return ExcelImportUtil.REQ_LIST_COLUMNS.withPositionalFallback(importProperties.isPositionalFallback());
+    }
 
-            // 3. 分类需要新增和更新的数据
-            List<ReqList> insertList = new ArrayList<>();
-            List<ReqList> updateList = new ArrayList<>();
+    /**
+     * BATCH / CHECKPOINT 方式导入：边解析边按批新增或更新，每 batchesPerCommit 批提交一次（0 为整个导入一个事务），
+     * 提交时在同一事务内记录检查点；失败时回滚未提交的批次，已提交的行范围记录到 progress
+     */
+    private int batchImport(InputStream is, ImportProgress progress, ImportCheckpoint checkpoint,
+                            int batchesPerCommit) throws Exception {
+        ExcelImportUtil.ReaderMode readerMode = importProperties.getReaderMode();
+        int resumeAfterRow = checkpoint.getResumeAfterRow();
+        long start = System.currentTimeMillis();
+        if (resumeAfterRow > 0) {
+            log.info("需求列表从第 {} 行之后继续导入", resumeAfterRow);
+        }
 
-            for (ReqList reqList : batch) {
-                if (existReqNos.contains(reqList.getReqNo())) {
-                    // 需要更新
-                    updateList.add(reqList);
-                } else {
-                    // 需要新增
-                    insertList.add(reqList);
+        AdaptiveBatchSizer sizer = importExecutor.batchSizer(ReqListMapper.class, ReqList.class, "需求列表");
+        BatchCommitter committer = importExecutor.committer("需求列表", progress, checkpoint, batchesPerCommit);
+        int count;
+        try {
+            count = ExcelImportUtil.parseExcelBatch(is, readerMode, progress, columns(),
+                    resumeAfterRow, sizer::current, (batch, lastRowNum) -> {
+                        progress.checkCancelled();
+                        committer.write(lastRowNum, () -> sizer.measure(batch.size(), () -> upsertBatch(batch, progress)));
+                    });
+            committer.finish();
+        } catch (Exception | Error e) {
+            committer.rollback();
+            throw e;
+        }
+
+        log.info("导入需求列表完成，共解析 {} 条，新增 {} 条，更新 {} 条，未变化 {} 条，每次提交 {} 批，读取模式: {}，耗时 {} ms",
+                count, progress.getInsertedRows(), progress.getUpdatedRows(), progress.getUnchangedRows(),
+                batchesPerCommit == 0 ? "全部" : batchesPerCommit, readerMode, System.currentTimeMillis() - start);
+        log.info("导入需求列表{}", sizer);
+        return count;
+    }
+
+    /**
+     * COPY 方式导入：流式写入暂存表，解析结束后一条语句合并到 req_list
+     */
+    private int copyImport(InputStream is, ImportProgress progress) throws Exception {
+        ExcelImportUtil.ReaderMode readerMode = importProperties.getReaderMode();
+        long start = System.currentTimeMillis();
+
+        try (PgCopyLoader.Session<ReqList> session = pgCopyLoader.open(ReqList.class, "req_no")) {
+            int count = ExcelImportUtil.parseExcelBatch(is, readerMode, progress, columns(), 0, (batch, lastRowNum) -> {
+                List<ReqList> valid = batch.stream()
+                        .filter(r -> StrUtil.isNotBlank(r.getReqNo()))
+                        .collect(Collectors.toList());
+                if (valid.size() < batch.size()) {
+                    log.warn("跳过需求评估单号为空的需求列表: {} 条", batch.size() - valid.size());
+                    progress.addSkipped(batch.size() - valid.size());
                 }
-            }
+                session.write(valid);
+                reqChangeTracker.touched("需求列表", valid.stream().map(ReqList::getReqNo).collect(Collectors.toList()));
+            });
+            progress.checkCancelled();
+            UpsertResult result = session.merge();
+            progress.addUpsert(result);
 
-            // 4. 批量插入
-            if (!insertList.isEmpty()) {
-                saveBatch(insertList, 500);
-                log.info("批量插入需求列表: {} 条", insertList.size());
-            }
+            log.info("COPY 导入需求列表完成，共解析 {} 条，新增 {} 条，更新 {} 条，未变化 {} 条，读取模式: {}，耗时 {} ms",
+                    count, result.getInserted(), result.getUpdated(), result.getUnchanged(), readerMode,
+                    System.currentTimeMillis() - start);
+            return count;
+        }
+    }
 
-            // 5. 批量更新
-            if (!updateList.isEmpty()) {
-                updateBatchById(updateList, 500);
-                log.info("批量更新需求列表: {} 条", updateList.size());
+    /**
+     * 新增或更新一批需求列表
+     * <p>
+     * 需求评估单号为空的行跳过（与 COPY 方式一致，计入 progress 的跳过行数）；
+     * 批内按需求评估单号去重（后出现的行生效），一条 INSERT ... ON CONFLICT 完成新增和更新，
+     * 内容哈希与库中一致的行不更新，计为未变化
+     */
+    private UpsertResult upsertBatch(List<ReqList> batch, ImportProgress progress) {
+        Map<String, ReqList> uniqueMap = new LinkedHashMap<>(batch.size() * 2);
+        int blank = 0;
+        for (ReqList reqList : batch) {
+            if (StrUtil.isBlank(reqList.getReqNo())) {
+                blank++;
+                continue;
             }
+            uniqueMap.put(reqList.getReqNo(), reqList);
+        }
+        if (blank > 0) {
+            log.warn("跳过需求评估单号为空的需求列表: {} 条", blank);
+            progress.addSkipped(blank);
+        }
+        if (uniqueMap.isEmpty()) {
+            return new UpsertResult();
+        }
 
-            totalCount[0] += batch.size();
-        });
+        List<ReqList> rows = new ArrayList<>(uniqueMap.values());
+        reqChangeTracker.touched("需求列表", uniqueMap.keySet());
+        UpsertResult result;
+        if (importProperties.getUpdateMode() == ExcelImportProperties.UpdateMode.DIRTY) {
+            result = dirtyUpsert(rows);
+        } else {
+            result = baseMapper.upsertBatch(rows);
+            result.setUnchanged(rows.size() - result.getInserted() - result.getUpdated());
+        }
+        log.info("批量新增或更新需求列表: 新增 {} 条，更新 {} 条，未变化 {} 条",
+                result.getInserted(), result.getUpdated(), result.getUnchanged());
+        return result;
+    }
 
-        log.info("导入需求列表完成，共处理 {} 条", totalCount[0]);
-        return totalCount[0];
+    /**
+     * DIRTY 更新方式：已存在的行只更新变化的列，其余行新增
+     */
+    private UpsertResult dirtyUpsert(List<ReqList> rows) {
+        Map<String, ReqList> stored = new HashMap<>(rows.size() * 2);
+        List<String> reqNos = rows.stream().map(ReqList::getReqNo).collect(Collectors.toList());
+        for (ReqList reqList : baseMapper.selectBatchIds(reqNos)) {
+            stored.put(reqList.getReqNo(), reqList);
+        }
+
+        UpsertResult result = new UpsertResult();
+        List<ReqList> missing = dirtyColumnUpdater.update(ReqList.class, rows, stored, ReqList::getReqNo,
+                Collections.singletonList("reqNo"), result);
+        if (!missing.isEmpty()) {
+            UpsertResult inserted = baseMapper.upsertBatch(missing);
+            result.setInserted(result.getInserted() + inserted.getInserted());
+            result.setUpdated(result.getUpdated() + inserted.getUpdated());
+        }
+        return result;
     }
 
     /**
@@ -135,7 +490,7 @@ public class ReqListService extends ServiceImpl<ReqListMapper, ReqList> {
      */
     public String generateMarkdownContent(String reqNo) {
         // 查询需求列表
-        ReqList reqList = baseMapper.selectById(reqNo);
+        ReqList reqList = getByReqNo(reqNo);
         if (reqList == null) {
             throw new RuntimeException("需求评估单号不存在: " + reqNo);
         }
@@ -152,7 +507,7 @@ public class ReqListService extends ServiceImpl<ReqListMapper, ReqList> {
      */
     public String exportMarkdown(String reqNo) {
         // 查询需求列表
-        ReqList reqList = baseMapper.selectById(reqNo);
+        ReqList reqList = getByReqNo(reqNo);
         if (reqList == null) {
             throw new RuntimeException("需求评估单号不存在: " + reqNo);
         }
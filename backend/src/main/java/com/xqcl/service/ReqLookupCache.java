@@ -0,0 +1,81 @@
+package com.xqcl.service;
+
+import com.xqcl.config.QueryProperties;
+import com.xqcl.dto.CacheStatsDTO;
+import com.xqcl.entity.ReqDetail;
+import com.xqcl.entity.ReqList;
+import com.xqcl.util.LookupCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 按需求评估单号缓存需求列表和需求详情列表
+ * <p>
+ * 详情抽屉和 Markdown 下载对同一需求会多次查询，两次导入之间直接从内存返回。
+ * 写入事务提交后按 {@link ReqChangedEvent} 中的需求评估单号逐个失效，其余条目保留。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+@Component
+public class ReqLookupCache {
+
+    @Autowired
+    private QueryProperties queryProperties;
+
+    private LookupCache<ReqList> reqLists;
+
+    private LookupCache<List<ReqDetail>> reqDetails;
+
+    @PostConstruct
+    public void init() {
+        reqLists = new LookupCache<>("需求列表", queryProperties.getLookupCacheSize(),
+                queryProperties.getLookupCacheTtlSeconds());
+        reqDetails = new LookupCache<>("需求详情", queryProperties.getLookupCacheSize(),
+                queryProperties.getLookupCacheTtlSeconds());
+    }
+
+    public ReqList reqList(String reqNo, Supplier<ReqList> loader) {
+        return reqLists.get(reqNo, loader);
+    }
+
+    public List<ReqDetail> reqDetails(String reqNo, Supplier<List<ReqDetail>> loader) {
+        return reqDetails.get(reqNo, loader);
+    }
+
+    /**
+     * 失效指定需求的缓存
+     */
+    public void invalidate(String label, Collection<String> reqNos) {
+        // 失效只是删除几个键，不区分是哪张表的写入，两个缓存都失效
+        reqLists.invalidate(reqNos);
+        reqDetails.invalidate(reqNos);
+        log.debug("{}已提交，失效 {} 个需求的缓存", label, reqNos.size());
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public void clear() {
+        reqLists.clear();
+        reqDetails.clear();
+    }
+
+    @EventListener
+    public void onReqChanged(ReqChangedEvent event) {
+        invalidate(event.getLabel(), event.getReqNos());
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return Arrays.asList(reqLists.stats(), reqDetails.stats());
+    }
+}
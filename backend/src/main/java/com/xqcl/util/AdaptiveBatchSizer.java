@@ -0,0 +1,160 @@
+package com.xqcl.util;
+
+import com.xqcl.dto.BatchSizeStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Supplier;
+
+/**
+ * 自适应批次大小：按每批写入耗时和吞吐量在上下限之间调整批次行数
+ * <p>
+ * 满批写入耗时明显低于目标时放大（最多 1.5 倍），明显高于目标时按比例缩小（最多减半），目标附近不调整；
+ * 放大后吞吐量反而下降超过 10% 时退回上一档。上限同时受单条语句绑定参数个数限制（PostgreSQL 最多 32767 个）。
+ * 线程安全，流水线导入的多个写线程可共用一个实例。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+public class AdaptiveBatchSizer {
+
+    /**
+     * PostgreSQL 单条语句绑定参数个数上限
+     */
+    public static final int MAX_STATEMENT_PARAMETERS = 32767;
+
+    private static final double GROW_FACTOR = 1.5;
+    private static final double TOLERANCE = 0.25;
+    private static final double RATE_DROP = 0.9;
+    private static final double EWMA_WEIGHT = 0.3;
+
+    private final String label;
+    private final boolean adaptive;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetMillis;
+
+    private int size;
+    private int previousSize;
+    private double previousRowsPerSecond;
+    private long batches;
+    private long rows;
+    private long totalNanos;
+    private double lastMillis;
+    private double rowsPerSecond;
+
+    /**
+     * @param label         数据名称（日志用）
+     * @param adaptive      是否调整，关闭时固定为 initialSize，仍统计指标
+     * @param minSize       批次下限
+     * @param maxSize       批次上限
+     * @param initialSize   初始批次
+     * @param targetMillis  每批目标写入耗时（毫秒）
+     * @param paramsPerRow  每行绑定参数个数，用于限制单条语句的参数总数
+     */
+    public AdaptiveBatchSizer(String label, boolean adaptive, int minSize, int maxSize, int initialSize,
+                              long targetMillis, int paramsPerRow) {
+        int statementLimit = MAX_STATEMENT_PARAMETERS / Math.max(1, paramsPerRow);
+        this.label = label;
+        this.adaptive = adaptive;
+        this.maxSize = Math.max(1, Math.min(maxSize, statementLimit));
+        this.minSize = Math.max(1, Math.min(minSize, this.maxSize));
+        this.targetMillis = Math.max(1, targetMillis);
+        this.size = clamp(initialSize);
+    }
+
+    /**
+     * 当前批次大小
+     */
+    public synchronized int current() {
+        return size;
+    }
+
+    /**
+     * 批次上限（已按语句参数个数收紧）
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 执行一批写入并记录耗时
+     *
+     * @param batchRows 本批行数
+     * @param work      写入
+     */
+    public <R> R measure(int batchRows, Supplier<R> work) {
+        long start = System.nanoTime();
+        R result = work.get();
+        record(batchRows, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * 记录一批写入的行数和耗时，满批时据此调整批次大小
+     */
+    public synchronized void record(int batchRows, long nanos) {
+        if (batchRows <= 0) {
+            return;
+        }
+        nanos = Math.max(1, nanos);
+        double millis = nanos / 1_000_000.0;
+        double rate = batchRows * 1_000_000_000.0 / nanos;
+        batches++;
+        rows += batchRows;
+        totalNanos += nanos;
+        lastMillis = millis;
+        rowsPerSecond = batches == 1 ? rate : EWMA_WEIGHT * rate + (1 - EWMA_WEIGHT) * rowsPerSecond;
+
+        // 末尾的不满批不代表当前批次大小的表现
+        if (!adaptive || batchRows < size) {
+            return;
+        }
+
+        int next = size;
+        if (millis > targetMillis * (1 + TOLERANCE)) {
+            next = (int) (size * Math.max(0.5, targetMillis / millis));
+        } else if (previousSize > 0 && previousSize < size && rate < previousRowsPerSecond * RATE_DROP) {
+            next = previousSize;
+        } else if (millis < targetMillis * (1 - TOLERANCE)) {
+            next = (int) (size * Math.min(GROW_FACTOR, targetMillis / millis));
+        }
+        next = clamp(next);
+        if (next != size) {
+            log.debug("{}批次大小 {} -> {}（耗时 {} ms，{} 行/秒）", label, size, next,
+                    String.format("%.1f", millis), Math.round(rate));
+            previousSize = size;
+            previousRowsPerSecond = rate;
+            size = next;
+        }
+    }
+
+    /**
+     * 当前指标快照
+     */
+    public synchronized BatchSizeStatsDTO stats() {
+        BatchSizeStatsDTO stats = new BatchSizeStatsDTO();
+        stats.setLabel(label);
+        stats.setAdaptive(adaptive);
+        stats.setBatchSize(size);
+        stats.setMinSize(minSize);
+        stats.setMaxSize(maxSize);
+        stats.setTargetMillis(targetMillis);
+        stats.setBatches(batches);
+        stats.setRows(rows);
+        stats.setLastLatencyMillis(lastMillis);
+        stats.setAvgLatencyMillis(batches > 0 ? totalNanos / 1_000_000.0 / batches : 0);
+        stats.setRowsPerSecond(rowsPerSecond);
+        return stats;
+    }
+
+    private int clamp(int value) {
+        return Math.max(minSize, Math.min(maxSize, value));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("批次大小 %d（%d-%d），%d 批，最近耗时 %.1f ms，%.0f 行/秒",
+                size, minSize, maxSize, batches, lastMillis, rowsPerSecond);
+    }
+}
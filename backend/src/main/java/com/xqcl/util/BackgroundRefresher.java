@@ -0,0 +1,62 @@
+package com.xqcl.util;
+
+import cn.hutool.core.thread.ThreadUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 后台整理任务：在单独的守护线程中执行，不占用导入线程和查询请求线程
+ * <p>
+ * 已有一次排队未开始的执行时，新的请求与其合并，连续多次请求只多执行一次。失败只记录日志。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+public class BackgroundRefresher implements AutoCloseable {
+
+    private final String name;
+    private final Runnable task;
+    private final ExecutorService executor;
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    /**
+     * @param name 任务名称（线程名和日志用）
+     * @param task 整理任务
+     */
+    public BackgroundRefresher(String name, Runnable task) {
+        this.name = name;
+        this.task = task;
+        this.executor = Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory(name + "-", true));
+    }
+
+    /**
+     * 请求执行一次
+     */
+    public void request() {
+        if (!queued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                queued.set(false);
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("{}失败: {}", name, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.set(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,60 @@
+package com.xqcl.util;
+
+import cn.hutool.core.util.HexUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 行内容哈希：对业务字段按固定顺序计算 MD5，用于重复导入时识别未变化的行
+ * <p>
+ * 每个字段以结束标记分隔，null 与空串编码不同；摘要实例按线程复用。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public final class ContentHash {
+
+    private static final byte NULL_MARKER = 1;
+    private static final byte END_MARKER = 0;
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private ContentHash() {
+    }
+
+    /**
+     * 开始计算一行，返回当前线程已重置的摘要实例
+     */
+    public static MessageDigest begin() {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        return digest;
+    }
+
+    /**
+     * 追加一个字段
+     */
+    public static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(NULL_MARKER);
+        } else {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update(END_MARKER);
+    }
+
+    /**
+     * 结束计算，返回 32 位小写十六进制
+     */
+    public static String finish(MessageDigest digest) {
+        return HexUtil.encodeHexStr(digest.digest());
+    }
+}
@@ -0,0 +1,195 @@
+package com.xqcl.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV 流式读取器（RFC 4180）
+ * <p>
+ * 逐字符解析，按记录回调，内存占用与文件行数无关。支持双引号包围的字段、字段内的 "" 转义和换行
+ * （如多行的需求描述），行尾可以是 CRLF、LF 或 CR。空行跳过；字段去掉首尾空白，空字段为 null，
+ * 与 xlsx 读取器的单元格取值规则一致。
+ * <p>
+ * 编码：有 UTF-8 BOM 时按 UTF-8；否则取开头一段按 UTF-8 严格解码，出现非法字节时按 GBK（国内系统导出的 CSV 常见）；
+ * 两种编码都不能解码或含有控制字符时不是文本文件，拒绝读取。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+public class CsvReader {
+
+    /**
+     * 编码探测读取的字节数
+     */
+    private static final int DETECT_BYTES = 64 * 1024;
+
+    private static final Charset GBK = Charset.forName("GBK");
+
+    private CsvReader() {
+    }
+
+    /**
+     * 读取 CSV，第一条记录为表头（行号 0）
+     *
+     * @param is         CSV 输入流（调用方负责关闭）
+     * @param rowHandler 记录回调，行号为记录序号（从 0 开始），多行字段不增加行号
+     */
+    public static void read(InputStream is, XlsxSaxReader.RowHandler rowHandler) throws IOException {
+        BufferedInputStream in = is instanceof BufferedInputStream ? (BufferedInputStream) is : new BufferedInputStream(is);
+        Charset charset = detectCharset(in);
+        log.info("CSV 编码: {}", charset);
+        read(new InputStreamReader(in, charset), rowHandler);
+    }
+
+    /**
+     * 读取已解码的 CSV
+     */
+    public static void read(Reader reader, XlsxSaxReader.RowHandler rowHandler) throws IOException {
+        char[] buffer = new char[8192];
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        boolean quoteInQuoted = false;
+        boolean lastCr = false;
+        int rowIndex = 0;
+
+        int n;
+        while ((n = reader.read(buffer)) > 0) {
+            for (int i = 0; i < n; i++) {
+                char ch = buffer[i];
+                if (lastCr) {
+                    lastCr = false;
+                    if (ch == '\n') {
+                        continue;
+                    }
+                }
+                if (quoted) {
+                    if (quoteInQuoted) {
+                        quoteInQuoted = false;
+                        if (ch == '"') {
+                            field.append('"');
+                            continue;
+                        }
+                        // 结束引号，继续按未加引号的规则处理当前字符
+                        quoted = false;
+                    } else if (ch == '"') {
+                        quoteInQuoted = true;
+                        continue;
+                    } else {
+                        field.append(ch);
+                        continue;
+                    }
+                }
+                switch (ch) {
+                    case '"':
+                        if (!fieldStarted) {
+                            quoted = true;
+                            fieldStarted = true;
+                        } else {
+                            // 未加引号的字段中间出现引号，按普通字符保留
+                            field.append(ch);
+                        }
+                        break;
+                    case ',':
+                        fields.add(value(field));
+                        fieldStarted = false;
+                        break;
+                    case '\r':
+                    case '\n':
+                        lastCr = ch == '\r';
+                        if (fieldStarted || !fields.isEmpty() || field.length() > 0) {
+                            fields.add(value(field));
+                            rowHandler.handle(rowIndex++, fields.toArray(new String[0]));
+                            fields.clear();
+                        }
+                        fieldStarted = false;
+                        break;
+                    default:
+                        field.append(ch);
+                        fieldStarted = true;
+                        break;
+                }
+            }
+        }
+
+        if (quoted && !quoteInQuoted) {
+            log.warn("CSV 第 {} 条记录的引号未闭合，按文件结尾截断", rowIndex + 1);
+        }
+        if (fieldStarted || !fields.isEmpty() || field.length() > 0) {
+            fields.add(value(field));
+            rowHandler.handle(rowIndex, fields.toArray(new String[0]));
+        }
+    }
+
+    private static String value(StringBuilder field) {
+        String value = field.toString().trim();
+        field.setLength(0);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 探测编码：UTF-8 BOM → UTF-8（跳过 BOM）；开头一段是合法 UTF-8 → UTF-8；是合法 GBK → GBK
+     *
+     * @throws IllegalArgumentException 开头一段既不是 UTF-8 也不是 GBK 文本，或含有换行和制表符以外的控制字符
+     */
+    static Charset detectCharset(BufferedInputStream in) throws IOException {
+        in.mark(DETECT_BYTES);
+        byte[] sample = new byte[DETECT_BYTES];
+        int length = 0;
+        int n;
+        while (length < sample.length && (n = in.read(sample, length, sample.length - length)) > 0) {
+            length += n;
+        }
+        in.reset();
+
+        if (length >= 3 && (sample[0] & 0xFF) == 0xEF && (sample[1] & 0xFF) == 0xBB && (sample[2] & 0xFF) == 0xBF) {
+            in.skip(3);
+            return StandardCharsets.UTF_8;
+        }
+
+        // 样本末尾可能截断在多字节字符中间，按未结束输入解码
+        boolean endOfInput = length < sample.length;
+        for (Charset charset : new Charset[]{StandardCharsets.UTF_8, GBK}) {
+            CharsetDecoder decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+            CharBuffer chars = CharBuffer.allocate(length);
+            if (!decoder.decode(ByteBuffer.wrap(sample, 0, length), chars, endOfInput).isError()) {
+                chars.flip();
+                if (!isText(chars)) {
+                    break;
+                }
+                return charset;
+            }
+        }
+        throw new IllegalArgumentException("不支持的文件格式，请上传 xlsx、xls 或 CSV（UTF-8 / GBK 编码）文件");
+    }
+
+    /**
+     * 文本中不应出现换行和制表符以外的控制字符（二进制文件解码后通常含有 NUL 等）
+     */
+    private static boolean isText(CharBuffer chars) {
+        while (chars.hasRemaining()) {
+            char ch = chars.get();
+            if ((ch < 0x20 && ch != '\t' && ch != '\n' && ch != '\r') || ch == 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
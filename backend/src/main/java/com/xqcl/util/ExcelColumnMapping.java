@@ -0,0 +1,296 @@
+package com.xqcl.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Excel 列映射：按表头中文列名匹配实体字段
+ * <p>
+ * 定义时按导入模板的列顺序登记列名和 setter；导入时读取表头一次，编译成按列号索引的 setter 数组，
+ * 之后每行只做一次数组遍历。列名比较前去掉空白并统一全角/半角括号。
+ * 表头与任何已知列名都不匹配时（选错了工作表或模板被改过）拒绝导入；无表头的旧文件须显式开启
+ * {@link #withPositionalFallback(boolean)} 才按模板列顺序解析。
+ * 低基数列登记为字典列，编译时传入本次导入的 {@link StringDictionary}，重复取值共用一个实例。
+ * 时间列和数值列在解析时经 {@link ExcelValueConverter} 转换一次，实体中保存为 LocalDateTime / BigDecimal。
+ * 登记了内容哈希字段时，每行按列定义顺序（与文件中的列顺序无关）对全部业务字段计算 {@link ContentHash}。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+public class ExcelColumnMapping<T> {
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final List<String> titles;
+    private final List<BiConsumer<T, String>> setters;
+    private final List<Boolean> encoded;
+    private final Map<String, Integer> titleIndex;
+    private final List<String> requiredTitles;
+
+    /**
+     * 表头未匹配任何已知列时是否按模板列顺序解析
+     */
+    private final boolean positionalFallback;
+
+    private BiConsumer<T, String> hashSetter;
+
+    public ExcelColumnMapping(String name, Supplier<T> factory) {
+        this.name = name;
+        this.factory = factory;
+        this.titles = new ArrayList<>();
+        this.setters = new ArrayList<>();
+        this.encoded = new ArrayList<>();
+        this.titleIndex = new HashMap<>();
+        this.requiredTitles = new ArrayList<>();
+        this.positionalFallback = false;
+    }
+
+    private ExcelColumnMapping(ExcelColumnMapping<T> source, boolean positionalFallback) {
+        this.name = source.name;
+        this.factory = source.factory;
+        this.titles = source.titles;
+        this.setters = source.setters;
+        this.encoded = source.encoded;
+        this.titleIndex = source.titleIndex;
+        this.requiredTitles = source.requiredTitles;
+        this.hashSetter = source.hashSetter;
+        this.positionalFallback = positionalFallback;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 登记必需列（表头中缺少时拒绝导入）
+     */
+    public ExcelColumnMapping<T> key(String title, BiConsumer<T, String> setter) {
+        requiredTitles.add(title);
+        return column(title, setter);
+    }
+
+    /**
+     * 登记一列，顺序即导入模板中的列顺序
+     */
+    public ExcelColumnMapping<T> column(String title, BiConsumer<T, String> setter) {
+        return register(title, setter, false);
+    }
+
+    /**
+     * 登记一列低基数列（行业、区域、状态、部门、人员等），取值经字典去重
+     */
+    public ExcelColumnMapping<T> dictionary(String title, BiConsumer<T, String> setter) {
+        return register(title, setter, true);
+    }
+
+    /**
+     * 登记一列时间列，单元格值（Excel 日期序列号或文本日期）转为 LocalDateTime
+     */
+    public ExcelColumnMapping<T> dateTime(String title, BiConsumer<T, LocalDateTime> setter) {
+        return register(title, (entity, value) -> setter.accept(entity, ExcelValueConverter.toDateTime(value)), false);
+    }
+
+    /**
+     * 登记一列数值列，单元格值转为 BigDecimal
+     */
+    public ExcelColumnMapping<T> decimal(String title, BiConsumer<T, BigDecimal> setter) {
+        return register(title, (entity, value) -> setter.accept(entity, ExcelValueConverter.toDecimal(value)), false);
+    }
+
+    /**
+     * 返回表头未匹配任何已知列时的处理方式为指定值的映射（共用列定义，须在列登记完成后调用）
+     *
+     * @param enabled 为 true 时按模板列顺序解析无表头的旧文件，为 false 时拒绝导入
+     */
+    public ExcelColumnMapping<T> withPositionalFallback(boolean enabled) {
+        return enabled == positionalFallback ? this : new ExcelColumnMapping<>(this, enabled);
+    }
+
+    /**
+     * 登记内容哈希字段
+     */
+    public ExcelColumnMapping<T> contentHash(BiConsumer<T, String> setter) {
+        this.hashSetter = setter;
+        return this;
+    }
+
+    private ExcelColumnMapping<T> register(String title, BiConsumer<T, String> setter, boolean dictionary) {
+        if (titleIndex.putIfAbsent(normalize(title), titles.size()) != null) {
+            throw new IllegalArgumentException(name + " 列名重复: " + title);
+        }
+        titles.add(title);
+        setters.add(setter);
+        encoded.add(dictionary);
+        return this;
+    }
+
+    /**
+     * 按表头编译行映射
+     *
+     * @param header     表头单元格值，按列号索引
+     * @param dictionary 字典列使用的字典，为 null 时不去重
+     * @throws IllegalArgumentException 表头缺少必需列，或未匹配任何已知列且未开启按列顺序解析
+     */
+    public RowMapper<T> compile(String[] header, StringDictionary dictionary) {
+        BiConsumer<T, String>[] compiled = newSetterArray(header.length);
+        boolean[] compiledEncoded = new boolean[header.length];
+        int[] hashColumns = new int[titles.size()];
+        Arrays.fill(hashColumns, -1);
+        boolean[] matched = new boolean[titles.size()];
+        List<String> unknown = new ArrayList<>();
+        int matchedCount = 0;
+
+        for (int i = 0; i < header.length; i++) {
+            if (header[i] == null || header[i].trim().isEmpty()) {
+                continue;
+            }
+            Integer index = titleIndex.get(normalize(header[i]));
+            if (index == null) {
+                unknown.add(header[i]);
+            } else if (matched[index]) {
+                log.warn("{} 表头第 {} 列与前面的列重名，忽略: {}", name, i + 1, header[i]);
+            } else {
+                compiled[i] = setters.get(index);
+                compiledEncoded[i] = encoded.get(index);
+                hashColumns[index] = i;
+                matched[index] = true;
+                matchedCount++;
+            }
+        }
+
+        if (matchedCount == 0) {
+            if (!positionalFallback) {
+                throw new IllegalArgumentException(name + " 表头未匹配任何已知列，请确认上传的工作表和导入模板是否正确: "
+                        + unknown.subList(0, Math.min(unknown.size(), 10)));
+            }
+            log.warn("{} 表头未匹配任何已知列，按模板列顺序解析", name);
+            return positional(dictionary);
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < titles.size(); i++) {
+            if (!matched[i]) {
+                missing.add(titles.get(i));
+            }
+        }
+        for (String title : requiredTitles) {
+            if (missing.contains(title)) {
+                throw new IllegalArgumentException(name + " 表头缺少必需列: " + title);
+            }
+        }
+        if (!missing.isEmpty()) {
+            log.warn("{} 表头缺少列，对应字段留空: {}", name, missing);
+        }
+        if (!unknown.isEmpty()) {
+            log.info("{} 表头包含未知列，已忽略: {}", name, unknown);
+        }
+        return new RowMapper<>(factory, compiled, compiledEncoded, dictionary, hashSetter, hashColumns);
+    }
+
+    /**
+     * 按模板列顺序的行映射
+     *
+     * @param dictionary 字典列使用的字典，为 null 时不去重
+     */
+    public RowMapper<T> positional(StringDictionary dictionary) {
+        BiConsumer<T, String>[] compiled = setters.toArray(newSetterArray(setters.size()));
+        boolean[] compiledEncoded = new boolean[encoded.size()];
+        int[] hashColumns = new int[titles.size()];
+        for (int i = 0; i < compiledEncoded.length; i++) {
+            compiledEncoded[i] = encoded.get(i);
+            hashColumns[i] = i;
+        }
+        return new RowMapper<>(factory, compiled, compiledEncoded, dictionary, hashSetter, hashColumns);
+    }
+
+    /**
+     * 列名规范化：去空白，全角括号转半角
+     */
+    private static String normalize(String title) {
+        StringBuilder sb = new StringBuilder(title.length());
+        for (int i = 0; i < title.length(); i++) {
+            char ch = title.charAt(i);
+            if (Character.isWhitespace(ch) || ch == '　') {
+                continue;
+            }
+            if (ch == '（') {
+                ch = '(';
+            } else if (ch == '）') {
+                ch = ')';
+            }
+            sb.append(ch);
+        }
+        return sb.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> BiConsumer<T, String>[] newSetterArray(int length) {
+        return (BiConsumer<T, String>[]) new BiConsumer[length];
+    }
+
+    /**
+     * 编译后的行映射：setter 按列号索引，未映射的列为 null
+     */
+    public static final class RowMapper<T> implements Function<String[], T> {
+
+        private final Supplier<T> factory;
+        private final BiConsumer<T, String>[] setters;
+        private final boolean[] encoded;
+        private final StringDictionary dictionary;
+        private final BiConsumer<T, String> hashSetter;
+        /**
+         * 按列定义顺序给出各字段所在列号，缺失的列为 -1
+         */
+        private final int[] hashColumns;
+
+        private RowMapper(Supplier<T> factory, BiConsumer<T, String>[] setters, boolean[] encoded,
+                          StringDictionary dictionary, BiConsumer<T, String> hashSetter, int[] hashColumns) {
+            this.factory = factory;
+            this.setters = setters;
+            this.encoded = encoded;
+            this.dictionary = dictionary;
+            this.hashSetter = hashSetter;
+            this.hashColumns = hashColumns;
+        }
+
+        @Override
+        public T apply(String[] cells) {
+            T entity = factory.get();
+            int columns = Math.min(cells.length, setters.length);
+            for (int i = 0; i < columns; i++) {
+                BiConsumer<T, String> setter = setters[i];
+                String value = cells[i];
+                if (setter != null && value != null) {
+                    if (encoded[i] && dictionary != null) {
+                        value = dictionary.intern(value);
+                    }
+                    setter.accept(entity, value);
+                }
+            }
+            if (hashSetter != null) {
+                hashSetter.accept(entity, contentHash(cells));
+            }
+            return entity;
+        }
+
+        private String contentHash(String[] cells) {
+            MessageDigest digest = ContentHash.begin();
+            for (int column : hashColumns) {
+                ContentHash.update(digest, column >= 0 && column < cells.length ? cells[column] : null);
+            }
+            return ContentHash.finish(digest);
+        }
+    }
+}
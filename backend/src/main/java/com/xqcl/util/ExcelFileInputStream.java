@@ -0,0 +1,42 @@
+package com.xqcl.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+
+/**
+ * 带文件路径的 Excel 输入流
+ * <p>
+ * {@link ExcelImportUtil#readRows} 识别后按路径打开 xlsx 包（ZipFile 随机访问，只读），
+ * 不必像普通输入流那样先把整个压缩包读入内存；还可以指定读取第几个工作表（一个工作簿中放多类数据时）。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class ExcelFileInputStream extends FileInputStream {
+
+    private final File file;
+    private final int sheetIndex;
+
+    public ExcelFileInputStream(File file) throws FileNotFoundException {
+        this(file, 0);
+    }
+
+    /**
+     * @param file       xlsx 文件
+     * @param sheetIndex 读取的工作表序号（从 0 开始）
+     */
+    public ExcelFileInputStream(File file, int sheetIndex) throws FileNotFoundException {
+        super(file);
+        this.file = file;
+        this.sheetIndex = sheetIndex;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getSheetIndex() {
+        return sheetIndex;
+    }
+}
@@ -4,13 +4,23 @@ import cn.hutool.core.util.StrUtil;
 import com.xqcl.entity.ReqDetail;
 import com.xqcl.entity.ReqList;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
 
 /**
  * Excel 导入工具类（优化版 - 支持流式读取和批量处理）
@@ -22,81 +32,217 @@ import java.util.List;
 public class ExcelImportUtil {
 
     /**
-     * 每批处理的数据量
+     * 默认每批处理的数据量（自适应批次的初始值）
      */
-    private static final int BATCH_SIZE = 500;
+    public static final int BATCH_SIZE = 500;
 
     /**
-     * 解析需求列表 Excel 文件（分批处理）
-     *
-     * @param file      Excel 文件
-     * @param processor 批量处理器，每处理完一批数据就回调一次
-     * @return 总数据量
+     * 读取模式
      */
-    public static int parseReqListExcelBatch(MultipartFile file, BatchProcessor<ReqList> processor) throws Exception {
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
+    public enum ReaderMode {
+        /**
+         * 用户模型：XSSFWorkbook 一次性加载整个工作表
+         */
+        DOM,
+        /**
+         * 事件模型：XSSFReader + SAX 边解析边回调，内存占用与行数无关
+         */
+        SAX
+    }
 
-            Sheet sheet = workbook.getSheetAt(0);
-            if (sheet == null) {
-                throw new IllegalArgumentException("Excel 文件为空");
-            }
+    /**
+     * 导入文件格式，按文件头识别，与扩展名无关
+     */
+    public enum FileFormat {
+        /**
+         * Office Open XML 工作簿
+         */
+        XLSX,
+        /**
+         * BIFF8 工作簿（OLE2 复合文档）
+         */
+        XLS,
+        /**
+         * 逗号分隔文本
+         */
+        CSV;
 
-            int totalRows = sheet.getPhysicalNumberOfRows();
-            if (totalRows <= 1) {
-                log.warn("Excel 文件只有表头，没有数据");
-                return 0;
+        /**
+         * 按文件头判断格式：无法识别的文件头才可能是 CSV（是否为文本由 CsvReader 探测编码时检查），
+         * PDF、图片、压缩包等可识别的其他格式直接拒绝
+         *
+         * @throws IllegalArgumentException 不支持的文件格式
+         */
+        static FileFormat of(FileMagic magic) {
+            switch (magic) {
+                case OOXML:
+                    return XLSX;
+                case OLE2:
+                    return XLS;
+                case UNKNOWN:
+                    return CSV;
+                default:
+                    throw new IllegalArgumentException("不支持的文件格式（" + magic + "），请上传 xlsx、xls 或 CSV 文件");
             }
+        }
+    }
 
-            List<ReqList> batchList = new ArrayList<>(BATCH_SIZE);
-            int count = 0;
-            int skippedCount = 0; // 记录解析失败的行数
-
-            // 跳过表头，从第二行开始读取
-            for (int i = 1; i < totalRows; i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) {
-                    log.warn("第 {} 行为空，跳过", i + 1);
-                    skippedCount++;
-                    continue;
-                }
-
-                try {
-                    ReqList reqList = parseReqListRow(row);
-                    if (reqList != null) {
-                        batchList.add(reqList);
-                        count++;
-
-                        // 每达到批次大小就处理一次
-                        if (batchList.size() >= BATCH_SIZE) {
-                            processor.process(batchList);
-                            batchList.clear();
-                            log.info("已处理需求列表: {}/{}", count, totalRows - 1);
-                        }
-                    } else {
-                        skippedCount++;
-                        log.warn("第 {} 行解析失败，跳过", i + 1);
-                    }
-                } catch (Exception e) {
-                    skippedCount++;
-                    log.error("第 {} 行解析异常: {}", i + 1, e.getMessage());
-                }
+    /**
+     * 检查已保存的上传文件格式，导入开始前拒绝不支持的文件
+     *
+     * @throws IllegalArgumentException 不支持的文件格式
+     */
+    public static FileFormat detectFormat(File file) throws IOException {
+        FileFormat format = FileFormat.of(FileMagic.valueOf(file));
+        if (format == FileFormat.CSV) {
+            try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+                CsvReader.detectCharset(in);
             }
+        }
+        return format;
+    }
 
-            // 处理剩余数据
-            if (!batchList.isEmpty()) {
-                processor.process(batchList);
-                log.info("已处理需求列表: {}/{}", count, totalRows - 1);
-            }
+    /**
+     * 需求列表列映射（列名同导入模板和 Markdown 导出）
+     */
+    public static final ExcelColumnMapping<ReqList> REQ_LIST_COLUMNS = new ExcelColumnMapping<>("需求列表", ReqList::new)
+            .key("需求评估单号", ReqList::setReqNo)
+            .column("项目名称", ReqList::setProjectName)
+            .column("商机编号", ReqList::setOpportunityNo)
+            .dictionary("行业", ReqList::setIndustry)
+            .dictionary("子行业", ReqList::setSubIndustry)
+            .dictionary("区域", ReqList::setRegion)
+            .dictionary("国家或地区", ReqList::setCountry)
+            .dictionary("产品线", ReqList::setProductLine)
+            .dictionary("产品系列", ReqList::setProductSeries)
+            .column("产品型号", ReqList::setProductModel)
+            .column("软件名称", ReqList::setSoftwareName)
+            .column("软件版本", ReqList::setSoftwareVersion)
+            .dictionary("状态", ReqList::setStatus)
+            .dictionary("是否排期", ReqList::setIsScheduled)
+            .dictionary("是否复用方案", ReqList::setIsReuse)
+            .dictionary("紧急程度", ReqList::setUrgency)
+            .dictionary("评估类型", ReqList::setEvalType)
+            .dictionary("评估单创建人", ReqList::setCreator)
+            .dictionary("创建人部门", ReqList::setCreatorDept)
+            .dictionary("需求负责人", ReqList::setReqOwner)
+            .dictionary("负责人所属部门", ReqList::setOwnerDept)
+            .dictionary("当前处理人", ReqList::setCurrentHandler)
+            .dateTime("评估单创建时间", ReqList::setCreateTime)
+            .dateTime("评估单提交时间", ReqList::setSubmitTime)
+            .dateTime("最后提交时间", ReqList::setLastSubmitTime)
+            .dateTime("评估时间", ReqList::setEvalTime)
+            .dateTime("最后评估时间", ReqList::setLastEvalTime)
+            .decimal("总评估用时（小时）", ReqList::setTotalEvalHours)
+            .decimal("评估停留时间（天）", ReqList::setEvalStayDays)
+            .dateTime("排期开始时间", ReqList::setScheduleStartTime)
+            .dateTime("排期结束时间", ReqList::setScheduleEndTime)
+            .decimal("总工作量（人天）", ReqList::setTotalWorkload)
+            .decimal("开发资源分布总部工作量(人天)", ReqList::setDevHqWorkload)
+            .dictionary("开发资源分布区域", ReqList::setDevRegion)
+            .decimal("开发资源分布区域工作量(人天)", ReqList::setDevRegionWorkload)
+            .decimal("总订单核算工作量（人天）", ReqList::setTotalOrderWorkload)
+            .decimal("订单核算总部工作量(人天)", ReqList::setOrderHqWorkload)
+            .dictionary("订单核算区域", ReqList::setOrderRegion)
+            .decimal("订单核算区域工作量(人天)", ReqList::setOrderRegionWorkload)
+            .decimal("系统测试工作量（人天）", ReqList::setSystemTestWorkload)
+            .decimal("集成测试工作量（人天）", ReqList::setIntegrationTestWorkload)
+            .decimal("学习成本工作量（人天）", ReqList::setLearningCostWorkload)
+            .decimal("流程管理工作量（人天）", ReqList::setProcessManageWorkload)
+            .column("其他工作量详情", ReqList::setOtherWorkloadDetail)
+            .dateTime("期望完成时间", ReqList::setExpectedCompleteTime)
+            .column("定制单号", ReqList::setCustomNo)
+            .column("JKN单号", ReqList::setJknNo)
+            .column("开发单号", ReqList::setDevNo)
+            .contentHash(ReqList::setContentHash);
 
-            if (skippedCount > 0) {
-                log.warn("共跳过 {} 行数据", skippedCount);
-            }
+    /**
+     * 需求详情列映射（列名同导入模板和 Markdown 导出）
+     */
+    public static final ExcelColumnMapping<ReqDetail> REQ_DETAIL_COLUMNS = new ExcelColumnMapping<>("需求详情", ReqDetail::new)
+            .key("需求评估单号", ReqDetail::setReqNo)
+            .column("项目名称", ReqDetail::setProjectName)
+            .column("商机编号", ReqDetail::setOpportunityNo)
+            .dictionary("行业", ReqDetail::setIndustry)
+            .dictionary("子行业", ReqDetail::setSubIndustry)
+            .dictionary("区域", ReqDetail::setRegion)
+            .dictionary("产品线", ReqDetail::setProductLine)
+            .dictionary("产品系列", ReqDetail::setProductSeries)
+            .column("产品型号", ReqDetail::setProductModel)
+            .column("软件名称", ReqDetail::setSoftwareName)
+            .column("软件版本", ReqDetail::setSoftwareVersion)
+            .dictionary("状态", ReqDetail::setStatus)
+            .column("需求名称", ReqDetail::setReqName)
+            .column("需求场景", ReqDetail::setReqScene)
+            .column("需求描述", ReqDetail::setReqDesc)
+            .column("研发评估", ReqDetail::setRdEval)
+            .column("组件标识", ReqDetail::setComponentId)
+            .column("组件版本", ReqDetail::setComponentVersion)
+            .dictionary("需求分类", ReqDetail::setReqCategory)
+            .column("需求标签", ReqDetail::setReqTag)
+            .dictionary("是否复用方案", ReqDetail::setIsReuse)
+            .dictionary("评估单创建人", ReqDetail::setCreator)
+            .dictionary("需求负责人", ReqDetail::setReqOwner)
+            .dictionary("负责人所属部门", ReqDetail::setOwnerDept)
+            .dictionary("评估人", ReqDetail::setEvaluator)
+            .dictionary("评估人所属部门", ReqDetail::setEvaluatorDept)
+            .dateTime("评估单创建时间", ReqDetail::setCreateTime)
+            .dateTime("评估单提交时间", ReqDetail::setSubmitTime)
+            .dateTime("评估单完成时间", ReqDetail::setCompleteTime)
+            .dateTime("组件评估开始时间", ReqDetail::setComponentEvalStartTime)
+            .dateTime("组件评估完成时间", ReqDetail::setComponentEvalEndTime)
+            .column("组件评估周期", ReqDetail::setComponentEvalCycle)
+            .decimal("评估用时(h)", ReqDetail::setEvalHours)
+            .decimal("停留时间", ReqDetail::setStayTime)
+            .decimal("评估工作量", ReqDetail::setEvalWorkload)
+            .column("工作量详情", ReqDetail::setWorkloadDetail)
+            .dateTime("排期开始时间（研发评估）", ReqDetail::setRdScheduleStartTime)
+            .dateTime("排期结束时间（研发评估）", ReqDetail::setRdScheduleEndTime)
+            .dateTime("排期开始时间", ReqDetail::setScheduleStartTime)
+            .dateTime("排期结束时间", ReqDetail::setScheduleEndTime)
+            .column("定制单号", ReqDetail::setCustomNo)
+            .column("开发单号", ReqDetail::setDevNo)
+            .contentHash(ReqDetail::setContentHash);
 
-            return count;
+    /**
+     * 解析需求列表 Excel 文件（分批处理）
+     *
+     * @param file      Excel 文件
+     * @param processor 批量处理器，每处理完一批数据就回调一次
+     * @return 总数据量
+     */
+    public static int parseReqListExcelBatch(MultipartFile file, BatchProcessor<ReqList> processor) throws Exception {
+        return parseReqListExcelBatch(file, ReaderMode.DOM, processor);
+    }
+
+    /**
+     * 解析需求列表 Excel 文件（分批处理，指定读取模式）
+     *
+     * @param file      Excel 文件
+     * @param mode      读取模式
+     * @param processor 批量处理器，每处理完一批数据就回调一次
+     * @return 总数据量
+     */
+    public static int parseReqListExcelBatch(MultipartFile file, ReaderMode mode, BatchProcessor<ReqList> processor) throws Exception {
+        try (InputStream is = file.getInputStream()) {
+            return parseReqListExcelBatch(is, mode, new ImportProgress(), processor);
         }
     }
 
+    /**
+     * 解析需求列表 Excel 输入流（分批处理，记录进度）
+     *
+     * @param is        Excel 输入流（调用方负责关闭）
+     * @param mode      读取模式
+     * @param progress  导入进度，解析行数、跳过行数在此累加，请求取消后中止解析
+     * @param processor 批量处理器
+     * @return 总数据量
+     */
+    public static int parseReqListExcelBatch(InputStream is, ReaderMode mode, ImportProgress progress,
+                                           BatchProcessor<ReqList> processor) throws Exception {
+        return parseExcelBatch(is, mode, progress, REQ_LIST_COLUMNS, processor);
+    }
+
     /**
      * 解析需求列表 Excel 文件（一次性读取）
      */
@@ -115,10 +261,179 @@ public class ExcelImportUtil {
      * @return 总数据量
      */
     public static int parseReqDetailExcelBatch(MultipartFile file, BatchProcessor<ReqDetail> processor) throws Exception {
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
+        return parseReqDetailExcelBatch(file, ReaderMode.DOM, processor);
+    }
+
+    /**
+     * 解析需求详情 Excel 文件（分批处理，指定读取模式）
+     *
+     * @param file      Excel 文件
+     * @param mode      读取模式
+     * @param processor 批量处理器
+     * @return 总数据量
+     */
+    public static int parseReqDetailExcelBatch(MultipartFile file, ReaderMode mode, BatchProcessor<ReqDetail> processor) throws Exception {
+        try (InputStream is = file.getInputStream()) {
+            return parseReqDetailExcelBatch(is, mode, new ImportProgress(), processor);
+        }
+    }
+
+    /**
+     * 解析需求详情 Excel 输入流（分批处理，记录进度）
+     *
+     * @param is        Excel 输入流（调用方负责关闭）
+     * @param mode      读取模式
+     * @param progress  导入进度，解析行数、跳过行数在此累加，请求取消后中止解析
+     * @param processor 批量处理器
+     * @return 总数据量
+     */
+    public static int parseReqDetailExcelBatch(InputStream is, ReaderMode mode, ImportProgress progress,
+                                           BatchProcessor<ReqDetail> processor) throws Exception {
+        return parseExcelBatch(is, mode, progress, REQ_DETAIL_COLUMNS, processor);
+    }
+
+    /**
+     * 解析需求详情 Excel 文件（一次性读取）
+     */
+    public static List<ReqDetail> parseReqDetailExcel(MultipartFile file) throws Exception {
+        List<ReqDetail> list = new ArrayList<>();
+        BatchProcessor<ReqDetail> processor = batch -> list.addAll(batch);
+        parseReqDetailExcelBatch(file, processor);
+        return list;
+    }
+
+    /**
+     * 批量处理器接口
+     */
+    @FunctionalInterface
+    public interface BatchProcessor<T> {
+        void process(List<T> batch);
+    }
+
+    /**
+     * 带行号的批量处理器（用于记录检查点）
+     */
+    @FunctionalInterface
+    public interface RowRangeProcessor<T> {
+        /**
+         * @param batch      本批数据
+         * @param lastRowNum 本批最后一行的 Excel 行号（从 1 开始，含表头）
+         */
+        void process(List<T> batch, int lastRowNum);
+    }
+
+    /**
+     * 按读取模式解析第一个工作表，按表头编译列映射，分批回调
+     */
+    private static <T> int parseExcelBatch(InputStream is, ReaderMode mode, ImportProgress progress,
+                                           ExcelColumnMapping<T> mapping,
+                                           BatchProcessor<T> processor) throws Exception {
+        return parseExcelBatch(is, mode, progress, mapping, 0, (batch, lastRowNum) -> processor.process(batch));
+    }
+
+    /**
+     * 按读取模式解析第一个工作表，按表头编译列映射，分批回调并给出每批最后一行的行号
+     *
+     * @param is             Excel 输入流（调用方负责关闭）
+     * @param mode           读取模式
+     * @param progress       导入进度
+     * @param mapping        列映射
+     * @param resumeAfterRow 续传起点：该 Excel 行号及之前的数据行不解析，0 表示从头开始
+     * @param processor      批量处理器
+     * @return 解析的数据量（不含续传跳过的行）
+     */
+    public static <T> int parseExcelBatch(InputStream is, ReaderMode mode, ImportProgress progress,
+                                          ExcelColumnMapping<T> mapping, int resumeAfterRow,
+                                          RowRangeProcessor<T> processor) throws Exception {
+        return parseExcelBatch(is, mode, progress, mapping, resumeAfterRow, () -> BATCH_SIZE, processor);
+    }
+
+    /**
+     * 按读取模式解析第一个工作表，批次大小在每批开始时从 batchSize 取得（自适应批次）
+     *
+     * @param batchSize 批次大小
+     * @see #parseExcelBatch(InputStream, ReaderMode, ImportProgress, ExcelColumnMapping, int, RowRangeProcessor)
+     */
+    public static <T> int parseExcelBatch(InputStream is, ReaderMode mode, ImportProgress progress,
+                                          ExcelColumnMapping<T> mapping, int resumeAfterRow, IntSupplier batchSize,
+                                          RowRangeProcessor<T> processor) throws Exception {
+        StringDictionary dictionary = new StringDictionary();
+        BatchCollector<T> collector = new BatchCollector<>(mapping.getName(), progress,
+                mapping.positional(dictionary), batchSize, processor);
+        readRows(is, mode, progress, resumeAfterRow,
+                header -> collector.rowMapper = mapping.compile(header, dictionary), collector::accept);
+        int count = collector.finish();
+        log.info("{}导入{}", mapping.getName(), dictionary);
+        return count;
+    }
+
+    /**
+     * 按文件内容识别格式并逐行读取原始单元格值，不做实体转换（默认第一个工作表，见 {@link ExcelFileInputStream}）
+     * <p>
+     * xlsx 按读取模式解析；xls 用 HSSF 事件模型；其余按 CSV 流式解析。三种格式的第一行都作为表头，
+     * 数据行走同一个回调。续传起点及之前的数据行不回调也不计数；之后的空行计入 progress 的跳过行数（仅 DOM）；
+     * 请求取消后抛出 ImportCancelledException
+     *
+     * @param is             文件输入流（调用方负责关闭），为 {@link ExcelFileInputStream} 时按文件路径打开
+     * @param mode           读取模式（仅对 xlsx 生效）
+     * @param progress       导入进度
+     * @param resumeAfterRow 续传起点：该 Excel 行号及之前的数据行跳过，0 表示从头开始
+     * @param headerHandler  表头回调，在所有数据行之前调用一次，第一行缺失时不回调
+     * @param handler        数据行回调，单元格值按列号索引
+     */
+    public static void readRows(InputStream is, ReaderMode mode, ImportProgress progress, int resumeAfterRow,
+                                Consumer<String[]> headerHandler, XlsxSaxReader.RowHandler handler) throws Exception {
+        File file = is instanceof ExcelFileInputStream ? ((ExcelFileInputStream) is).getFile() : null;
+        int sheetIndex = is instanceof ExcelFileInputStream ? ((ExcelFileInputStream) is).getSheetIndex() : 0;
+        // 无文件路径时包装为可回退的流以便读取文件头
+        InputStream in = file != null ? is : FileMagic.prepareToCheckMagic(is);
+        FileFormat format = FileFormat.of(file != null ? FileMagic.valueOf(file) : FileMagic.valueOf(in));
+
+        XlsxSaxReader.RowHandler rowHandler = (rowIndex, cells) -> {
+            if (rowIndex == 0) {
+                headerHandler.accept(cells);
+                return;
+            }
+            progress.checkCancelled();
+            if (rowIndex + 1 > resumeAfterRow) {
+                handler.handle(rowIndex, cells);
+            }
+        };
+        switch (format) {
+            case CSV:
+                if (sheetIndex > 0) {
+                    throw new IllegalArgumentException("CSV 文件只有一个工作表");
+                }
+                CsvReader.read(in, rowHandler);
+                return;
+            case XLS:
+                if (file != null) {
+                    XlsEventReader.read(file, sheetIndex, progress::setTotalRows, rowHandler);
+                } else {
+                    XlsEventReader.read(in, sheetIndex, progress::setTotalRows, rowHandler);
+                }
+                return;
+            default:
+                break;
+        }
+
+        if (mode == ReaderMode.SAX) {
+            if (file != null) {
+                XlsxSaxReader.read(file, sheetIndex, progress::setTotalRows, rowHandler);
+            } else {
+                XlsxSaxReader.read(in, progress::setTotalRows, rowHandler);
+            }
+            return;
+        }
 
-            Sheet sheet = workbook.getSheetAt(0);
+        // 有文件路径时只读打开，结束时丢弃包而不是回写
+        OPCPackage pkg = file != null ? OPCPackage.open(file, PackageAccess.READ) : OPCPackage.open(in);
+        try {
+            Workbook workbook = new XSSFWorkbook(pkg);
+            if (sheetIndex >= workbook.getNumberOfSheets()) {
+                throw new IllegalArgumentException("Excel 文件没有第 " + (sheetIndex + 1) + " 个工作表");
+            }
+            Sheet sheet = workbook.getSheetAt(sheetIndex);
             if (sheet == null) {
                 throw new IllegalArgumentException("Excel 文件为空");
             }
@@ -126,74 +441,110 @@ public class ExcelImportUtil {
             int totalRows = sheet.getPhysicalNumberOfRows();
             if (totalRows <= 1) {
                 log.warn("Excel 文件只有表头，没有数据");
-                return 0;
+                return;
             }
+            progress.setTotalRows(totalRows - 1);
 
-            List<ReqDetail> batchList = new ArrayList<>(BATCH_SIZE);
-            int count = 0;
-            int skippedCount = 0; // 记录解析失败的行数
+            Row header = sheet.getRow(0);
+            if (header != null) {
+                headerHandler.accept(getRowValues(header));
+            }
 
-            // 跳过表头，从第二行开始读取
-            for (int i = 1; i < totalRows; i++) {
+            // 从第二行开始读取数据；续传时从检查点之后开始，已提交的行（含其中的空行）上次已计数
+            for (int i = Math.max(1, resumeAfterRow); i < totalRows; i++) {
+                progress.checkCancelled();
                 Row row = sheet.getRow(i);
                 if (row == null) {
                     log.warn("第 {} 行为空，跳过", i + 1);
-                    skippedCount++;
+                    progress.addSkipped(1);
                     continue;
                 }
+                handler.handle(i, getRowValues(row));
+            }
+        } finally {
+            pkg.revert();
+        }
+    }
 
-                try {
-                    ReqDetail reqDetail = parseReqDetailRow(row);
-                    if (reqDetail != null) {
-                        batchList.add(reqDetail);
-                        count++;
-
-                        // 每达到批次大小就处理一次
-                        if (batchList.size() >= BATCH_SIZE) {
-                            processor.process(batchList);
-                            batchList.clear();
-                            log.info("已处理需求详情: {}/{}", count, totalRows - 1);
-                        }
-                    } else {
-                        skippedCount++;
-                        log.warn("第 {} 行解析失败，跳过", i + 1);
-                    }
-                } catch (Exception e) {
-                    skippedCount++;
-                    log.error("第 {} 行解析异常: {}", i + 1, e.getMessage());
-                }
+    /**
+     * 分批收集解析结果，达到批次大小即回调处理器
+     */
+    private static class BatchCollector<T> {
+
+        private final String label;
+        private final ImportProgress progress;
+        private final RowRangeProcessor<T> processor;
+        private final IntSupplier batchSize;
+        private final List<T> batchList = new ArrayList<>(BATCH_SIZE);
+        private int currentBatchSize;
+
+        /**
+         * 行映射，读到表头后替换为按表头编译的映射
+         */
+        private Function<String[], T> rowMapper;
+        private int count;
+        private int lastRowNum;
+
+        BatchCollector(String label, ImportProgress progress, Function<String[], T> rowMapper,
+                       IntSupplier batchSize, RowRangeProcessor<T> processor) {
+            this.label = label;
+            this.progress = progress;
+            this.rowMapper = rowMapper;
+            this.batchSize = batchSize;
+            this.processor = processor;
+            this.currentBatchSize = Math.max(1, batchSize.getAsInt());
+        }
+
+        void accept(int rowIndex, String[] cells) {
+            T entity;
+            try {
+                entity = rowMapper.apply(cells);
+            } catch (Exception e) {
+                skip();
+                log.error("第 {} 行解析异常: {}", rowIndex + 1, e.getMessage());
+                return;
+            }
+
+            if (entity == null) {
+                skip();
+                log.warn("第 {} 行解析失败，跳过", rowIndex + 1);
+                return;
+            }
+
+            batchList.add(entity);
+            lastRowNum = rowIndex + 1;
+            count++;
+            progress.addParsed(1);
+
+            // 每达到批次大小就处理一次
+            if (batchList.size() >= currentBatchSize) {
+                flush();
             }
+        }
+
+        void skip() {
+            progress.addSkipped(1);
+        }
 
+        int finish() {
             // 处理剩余数据
             if (!batchList.isEmpty()) {
-                processor.process(batchList);
-                log.info("已处理需求详情: {}/{}", count, totalRows - 1);
+                flush();
             }
 
-            if (skippedCount > 0) {
-                log.warn("共跳过 {} 行数据", skippedCount);
+            if (progress.getSkippedRows() > 0) {
+                log.warn("共跳过 {} 行数据", progress.getSkippedRows());
             }
-
             return count;
         }
-    }
-
-    /**
-     * 解析需求详情 Excel 文件（一次性读取）
-     */
-    public static List<ReqDetail> parseReqDetailExcel(MultipartFile file) throws Exception {
-        List<ReqDetail> list = new ArrayList<>();
-        BatchProcessor<ReqDetail> processor = batch -> list.addAll(batch);
-        parseReqDetailExcelBatch(file, processor);
-        return list;
-    }
 
-    /**
-     * 批量处理器接口
-     */
-    @FunctionalInterface
-    public interface BatchProcessor<T> {
-        void process(List<T> batch);
+        private void flush() {
+            processor.process(batchList, lastRowNum);
+            batchList.clear();
+            currentBatchSize = Math.max(1, batchSize.getAsInt());
+            long totalRows = progress.getTotalRows();
+            log.info("已处理{}: {}/{}", label, count, totalRows >= 0 ? totalRows : "?");
+        }
     }
 
     /**
@@ -213,119 +564,15 @@ public class ExcelImportUtil {
     }
 
     /**
-     * 解析需求列表行数据
-     */
-    private static ReqList parseReqListRow(Row row) {
-        try {
-            ReqList reqList = new ReqList();
-            reqList.setReqNo(getCellStringValue(row, 0));
-            reqList.setProjectName(getCellStringValue(row, 1));
-            reqList.setOpportunityNo(getCellStringValue(row, 2));
-            reqList.setIndustry(getCellStringValue(row, 3));
-            reqList.setSubIndustry(getCellStringValue(row, 4));
-            reqList.setRegion(getCellStringValue(row, 5));
-            reqList.setCountry(getCellStringValue(row, 6));
-            reqList.setProductLine(getCellStringValue(row, 7));
-            reqList.setProductSeries(getCellStringValue(row, 8));
-            reqList.setProductModel(getCellStringValue(row, 9));
-            reqList.setSoftwareName(getCellStringValue(row, 10));
-            reqList.setSoftwareVersion(getCellStringValue(row, 11));
-            reqList.setStatus(getCellStringValue(row, 12));
-            reqList.setIsScheduled(getCellStringValue(row, 13));
-            reqList.setIsReuse(getCellStringValue(row, 14));
-            reqList.setUrgency(getCellStringValue(row, 15));
-            reqList.setEvalType(getCellStringValue(row, 16));
-            reqList.setCreator(getCellStringValue(row, 17));
-            reqList.setCreatorDept(getCellStringValue(row, 18));
-            reqList.setReqOwner(getCellStringValue(row, 19));
-            reqList.setOwnerDept(getCellStringValue(row, 20));
-            reqList.setCurrentHandler(getCellStringValue(row, 21));
-            reqList.setCreateTime(getCellStringValue(row, 22));
-            reqList.setSubmitTime(getCellStringValue(row, 23));
-            reqList.setLastSubmitTime(getCellStringValue(row, 24));
-            reqList.setEvalTime(getCellStringValue(row, 25));
-            reqList.setLastEvalTime(getCellStringValue(row, 26));
-            reqList.setTotalEvalHours(getCellStringValue(row, 27));
-            reqList.setEvalStayDays(getCellStringValue(row, 28));
-            reqList.setScheduleStartTime(getCellStringValue(row, 29));
-            reqList.setScheduleEndTime(getCellStringValue(row, 30));
-            reqList.setTotalWorkload(getCellStringValue(row, 31));
-            reqList.setDevHqWorkload(getCellStringValue(row, 32));
-            reqList.setDevRegion(getCellStringValue(row, 33));
-            reqList.setDevRegionWorkload(getCellStringValue(row, 34));
-            reqList.setTotalOrderWorkload(getCellStringValue(row, 35));
-            reqList.setOrderHqWorkload(getCellStringValue(row, 36));
-            reqList.setOrderRegion(getCellStringValue(row, 37));
-            reqList.setOrderRegionWorkload(getCellStringValue(row, 38));
-            reqList.setSystemTestWorkload(getCellStringValue(row, 39));
-            reqList.setIntegrationTestWorkload(getCellStringValue(row, 40));
-            reqList.setLearningCostWorkload(getCellStringValue(row, 41));
-            reqList.setProcessManageWorkload(getCellStringValue(row, 42));
-            reqList.setOtherWorkloadDetail(getCellStringValue(row, 43));
-            reqList.setExpectedCompleteTime(getCellStringValue(row, 44));
-            reqList.setCustomNo(getCellStringValue(row, 45));
-            reqList.setJknNo(getCellStringValue(row, 46));
-            reqList.setDevNo(getCellStringValue(row, 47));
-            return reqList;
-        } catch (Exception e) {
-            log.error("解析需求列表行数据失败，行号: {}", row.getRowNum() + 1, e);
-            return null;
-        }
-    }
-
-    /**
-     * 解析需求详情行数据
+     * 读取整行单元格字符串值
      */
-    private static ReqDetail parseReqDetailRow(Row row) {
-        try {
-            ReqDetail reqDetail = new ReqDetail();
-            reqDetail.setReqNo(getCellStringValue(row, 0));
-            reqDetail.setProjectName(getCellStringValue(row, 1));
-            reqDetail.setOpportunityNo(getCellStringValue(row, 2));
-            reqDetail.setIndustry(getCellStringValue(row, 3));
-            reqDetail.setSubIndustry(getCellStringValue(row, 4));
-            reqDetail.setRegion(getCellStringValue(row, 5));
-            reqDetail.setProductLine(getCellStringValue(row, 6));
-            reqDetail.setProductSeries(getCellStringValue(row, 7));
-            reqDetail.setProductModel(getCellStringValue(row, 8));
-            reqDetail.setSoftwareName(getCellStringValue(row, 9));
-            reqDetail.setSoftwareVersion(getCellStringValue(row, 10));
-            reqDetail.setStatus(getCellStringValue(row, 11));
-            reqDetail.setReqName(getCellStringValue(row, 12));
-            reqDetail.setReqScene(getCellStringValue(row, 13));
-            reqDetail.setReqDesc(getCellStringValue(row, 14));
-            reqDetail.setRdEval(getCellStringValue(row, 15));
-            reqDetail.setComponentId(getCellStringValue(row, 16));
-            reqDetail.setComponentVersion(getCellStringValue(row, 17));
-            reqDetail.setReqCategory(getCellStringValue(row, 18));
-            reqDetail.setReqTag(getCellStringValue(row, 19));
-            reqDetail.setIsReuse(getCellStringValue(row, 20));
-            reqDetail.setCreator(getCellStringValue(row, 21));
-            reqDetail.setReqOwner(getCellStringValue(row, 22));
-            reqDetail.setOwnerDept(getCellStringValue(row, 23));
-            reqDetail.setEvaluator(getCellStringValue(row, 24));
-            reqDetail.setEvaluatorDept(getCellStringValue(row, 25));
-            reqDetail.setCreateTime(getCellStringValue(row, 26));
-            reqDetail.setSubmitTime(getCellStringValue(row, 27));
-            reqDetail.setCompleteTime(getCellStringValue(row, 28));
-            reqDetail.setComponentEvalStartTime(getCellStringValue(row, 29));
-            reqDetail.setComponentEvalEndTime(getCellStringValue(row, 30));
-            reqDetail.setComponentEvalCycle(getCellStringValue(row, 31));
-            reqDetail.setEvalHours(getCellStringValue(row, 32));
-            reqDetail.setStayTime(getCellStringValue(row, 33));
-            reqDetail.setEvalWorkload(getCellStringValue(row, 34));
-            reqDetail.setWorkloadDetail(getCellStringValue(row, 35));
-            reqDetail.setRdScheduleStartTime(getCellStringValue(row, 36));
-            reqDetail.setRdScheduleEndTime(getCellStringValue(row, 37));
-            reqDetail.setScheduleStartTime(getCellStringValue(row, 38));
-            reqDetail.setScheduleEndTime(getCellStringValue(row, 39));
-            reqDetail.setCustomNo(getCellStringValue(row, 40));
-            reqDetail.setDevNo(getCellStringValue(row, 41));
-            return reqDetail;
-        } catch (Exception e) {
-            log.error("解析需求详情行数据失败，行号: {}", row.getRowNum() + 1, e);
-            return null;
+    private static String[] getRowValues(Row row) {
+        int lastCellNum = Math.max(row.getLastCellNum(), 0);
+        String[] cells = new String[lastCellNum];
+        for (int i = 0; i < lastCellNum; i++) {
+            cells[i] = getCellStringValue(row, i);
         }
+        return cells;
     }
 
     /**
@@ -341,13 +588,7 @@ public class ExcelImportUtil {
             case STRING:
                 return cell.getStringCellValue().trim();
             case NUMERIC:
-                // 数字转字符串，去掉小数点后的0
-                double numValue = cell.getNumericCellValue();
-                if (numValue == (long) numValue) {
-                    return String.valueOf((long) numValue);
-                } else {
-                    return String.valueOf(numValue);
-                }
+                return formatNumber(cell.getNumericCellValue());
             case BOOLEAN:
                 return String.valueOf(cell.getBooleanCellValue());
             case FORMULA:
@@ -360,4 +601,15 @@ public class ExcelImportUtil {
                 return null;
         }
     }
+
+    /**
+     * 数字转字符串，去掉小数点后的0
+     */
+    static String formatNumber(double numValue) {
+        if (numValue == (long) numValue) {
+            return String.valueOf((long) numValue);
+        } else {
+            return String.valueOf(numValue);
+        }
+    }
 }
@@ -0,0 +1,208 @@
+package com.xqcl.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+
+/**
+ * Excel 单元格值转换：时间列转为 LocalDateTime，数值列转为 BigDecimal
+ * <p>
+ * 读取器给出的是单元格字符串值，日期单元格为 Excel 日期序列号（如 45306.5）。转换在解析时做一次，
+ * 写库时按 TIMESTAMP / NUMERIC 类型绑定，不再由数据库逐行把文本转换为列类型。
+ * 文本日期先统一分隔符（/ . 年 月 日 T），再用一个预编译的格式解析，年月日必填，时分秒可选。
+ * 无法识别的值记为 null 并输出警告，不影响整行导入。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+public final class ExcelValueConverter {
+
+    /**
+     * 数值列小数位，与表结构 DECIMAL(10,2) 一致
+     */
+    public static final int DECIMAL_SCALE = 2;
+
+    /**
+     * 数值列整数位上限，与表结构 DECIMAL(10,2) 一致（10 - 2）
+     */
+    public static final int DECIMAL_INTEGER_DIGITS = 8;
+
+    /**
+     * 导出和接口返回的时间格式
+     */
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 统一分隔符后的文本日期：yyyy-M-d[ H:m[:s[.SSS]]]
+     */
+    private static final DateTimeFormatter TEXT_FORMATTER = new DateTimeFormatterBuilder()
+            .appendValue(ChronoField.YEAR, 4)
+            .appendLiteral('-')
+            .appendValue(ChronoField.MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE)
+            .appendLiteral('-')
+            .appendValue(ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE)
+            .optionalStart()
+            .appendLiteral(' ')
+            .appendValue(ChronoField.HOUR_OF_DAY, 1, 2, SignStyle.NOT_NEGATIVE)
+            .appendLiteral(':')
+            .appendValue(ChronoField.MINUTE_OF_HOUR, 1, 2, SignStyle.NOT_NEGATIVE)
+            .optionalStart()
+            .appendLiteral(':')
+            .appendValue(ChronoField.SECOND_OF_MINUTE, 1, 2, SignStyle.NOT_NEGATIVE)
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .optionalEnd()
+            .optionalEnd()
+            .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+            .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+            .toFormatter()
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    /**
+     * 紧凑日期：yyyyMMdd
+     */
+    private static final DateTimeFormatter COMPACT_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("uuuuMMdd")
+            .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+            .toFormatter()
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    /**
+     * Excel 日期序列号上限（9999-12-31）
+     */
+    private static final double MAX_DATE_SERIAL = 2958465;
+
+    private ExcelValueConverter() {
+    }
+
+    /**
+     * 单元格值转为时间：Excel 日期序列号、yyyy-MM-dd HH:mm:ss 及 / . 年月日 分隔的文本、yyyyMMdd
+     *
+     * @return 空白或无法识别时为 null
+     */
+    public static LocalDateTime toDateTime(String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            if (isSerial(text)) {
+                double serial = Double.parseDouble(text);
+                if (serial > 0 && serial < MAX_DATE_SERIAL) {
+                    // 序列号的小数部分有浮点误差，四舍五入到秒
+                    return DateUtil.getLocalDateTime(serial, false, true);
+                }
+                if (text.length() == 8) {
+                    return LocalDateTime.parse(text, COMPACT_FORMATTER);
+                }
+            } else {
+                return LocalDateTime.parse(normalizeDate(text), TEXT_FORMATTER);
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            // 下面统一记录
+        }
+        log.warn("无法识别的时间值，按空值导入: {}", text);
+        return null;
+    }
+
+    /**
+     * 单元格值转为数值，去掉千分位逗号和空白，保留两位小数
+     *
+     * @return 空白、无法识别或超出 DECIMAL(10,2) 范围时为 null（超出范围的值写入时会使整批失败）
+     */
+    public static BigDecimal toDecimal(String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        BigDecimal decimal;
+        try {
+            decimal = new BigDecimal(text.replace(",", "").replace(" ", ""))
+                    .setScale(DECIMAL_SCALE, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            log.warn("无法识别的数值，按空值导入: {}", text);
+            return null;
+        }
+        if (decimal.precision() - decimal.scale() > DECIMAL_INTEGER_DIGITS) {
+            log.warn("数值超出范围（整数部分最多 {} 位），按空值导入: {}", DECIMAL_INTEGER_DIGITS, text);
+            return null;
+        }
+        return decimal;
+    }
+
+    /**
+     * 时间格式化为 yyyy-MM-dd HH:mm:ss，null 为空串
+     */
+    public static String format(LocalDateTime value) {
+        return value == null ? "" : DATE_TIME_FORMATTER.format(value);
+    }
+
+    /**
+     * 数值格式化为普通小数，null 为空串
+     */
+    public static String format(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    private static boolean isSerial(String text) {
+        boolean dot = false;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '.' && !dot) {
+                dot = true;
+            } else if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 统一分隔符：/ . 年 月 转为 -，日 去掉，T 转为空格
+     */
+    private static String normalizeDate(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '/':
+                case '年':
+                case '月':
+                    sb.append('-');
+                    break;
+                case '.':
+                    // 日期部分的点为分隔符，秒后的点为小数
+                    sb.append(sb.indexOf(" ") < 0 ? '-' : '.');
+                    break;
+                case '日':
+                    break;
+                case 'T':
+                    sb.append(' ');
+                    break;
+                default:
+                    sb.append(ch);
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.trim();
+        return text.isEmpty() ? null : text;
+    }
+}
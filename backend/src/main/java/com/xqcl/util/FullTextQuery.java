@@ -0,0 +1,154 @@
+package com.xqcl.util;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.http.HtmlUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 全文检索查询词
+ * <p>
+ * 与数据库函数 req_ngram 的切分规则一致：转小写、去掉空白和标点（{@link #IGNORED_CHARS}）后按相邻两个字符切分。
+ * 每个关键词（以空白分隔）的二元组按短语（&lt;-&gt;）连接，关键词之间为“与”；只有一个字符的关键词按前缀匹配。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class FullTextQuery {
+
+    /**
+     * 切分前去掉的字符，正则原文与数据库函数 req_ngram 中的完全相同。
+     * <p>
+     * 不用 \p{P} 或 [[:punct:]] 这类字符类：数据库的字符分类取决于 lc_ctype，与 Java 的 Unicode 分类不一致时
+     * 查询词和检索向量切出的二元组对不上。这里逐段列出：ASCII 空白和标点、Latin-1 空格和符号、× ÷、
+     * 通用标点（含各种空格、破折号、引号）、中日韩标点（不含々〆〇）、竖排和小号标点、BOM、全角标点。
+     */
+    public static final String IGNORED_CHARS = "[\\u0009-\\u000D\\u0020-\\u002F\\u003A-\\u0040\\u005B-\\u0060\\u007B-\\u007E"
+            + "\\u00A0-\\u00BF\\u00D7\\u00F7\\u2000-\\u206F"
+            + "\\u3000-\\u3004\\u3008-\\u3020\\u3030\\uFE30-\\uFE6B\\uFEFF"
+            + "\\uFF01-\\uFF0F\\uFF1A-\\uFF20\\uFF3B-\\uFF40\\uFF5B-\\uFF65]+";
+
+    private static final Pattern IGNORED = Pattern.compile(IGNORED_CHARS);
+
+    /**
+     * 关键词分隔符（含全角空格）
+     */
+    private static final Pattern SEPARATOR = Pattern.compile("[\\s\u3000]+");
+
+    private static final String HIGHLIGHT_START = "<em>";
+    private static final String HIGHLIGHT_END = "</em>";
+
+    /**
+     * 原始关键词（去重，保留大小写），用于高亮
+     */
+    private final List<String> keywords;
+
+    /**
+     * to_tsquery('simple', ...) 的查询表达式
+     */
+    private final String tsQuery;
+
+    private FullTextQuery(List<String> keywords, String tsQuery) {
+        this.keywords = keywords;
+        this.tsQuery = tsQuery;
+    }
+
+    /**
+     * 解析查询字符串
+     *
+     * @throws IllegalArgumentException 没有可检索的字符
+     */
+    public static FullTextQuery parse(String query) {
+        Set<String> keywords = new LinkedHashSet<>();
+        List<String> terms = new ArrayList<>();
+        for (String keyword : SEPARATOR.split(StrUtil.nullToEmpty(query).trim())) {
+            String normalized = normalize(keyword);
+            if (normalized.isEmpty() || !keywords.add(keyword)) {
+                continue;
+            }
+            if (normalized.length() == 1) {
+                terms.add(normalized + ":*");
+                continue;
+            }
+            List<String> grams = new ArrayList<>(normalized.length() - 1);
+            for (int i = 0; i + 2 <= normalized.length(); i++) {
+                grams.add(normalized.substring(i, i + 2));
+            }
+            terms.add(grams.size() == 1 ? grams.get(0) : "(" + String.join(" <-> ", grams) + ")");
+        }
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("检索词不能为空");
+        }
+        return new FullTextQuery(new ArrayList<>(keywords), String.join(" & ", terms));
+    }
+
+    public String getTsQuery() {
+        return tsQuery;
+    }
+
+    /**
+     * 截取文本中第一个命中关键词附近的片段，命中处用 &lt;em&gt; 标记，其余内容做 HTML 转义
+     *
+     * @param text      原文
+     * @param maxLength 片段最大字符数
+     * @return 片段，原文中没有字面命中的关键词时返回 null
+     */
+    public String highlight(String text, int maxLength) {
+        if (StrUtil.isEmpty(text)) {
+            return null;
+        }
+        int first = -1;
+        for (String keyword : keywords) {
+            int index = StrUtil.indexOfIgnoreCase(text, keyword);
+            if (index >= 0 && (first < 0 || index < first)) {
+                first = index;
+            }
+        }
+        if (first < 0) {
+            return null;
+        }
+
+        // 命中位置放在片段前四分之一处
+        int start = Math.max(0, Math.min(first - maxLength / 4, text.length() - maxLength));
+        int end = Math.min(text.length(), start + maxLength);
+        StringBuilder snippet = new StringBuilder(maxLength + 32);
+        if (start > 0) {
+            snippet.append('…');
+        }
+        int pos = start;
+        while (pos < end) {
+            int matchStart = -1;
+            int matchLength = 0;
+            for (String keyword : keywords) {
+                int index = StrUtil.indexOfIgnoreCase(text, keyword, pos);
+                if (index >= 0 && index < end && (matchStart < 0 || index < matchStart)) {
+                    matchStart = index;
+                    matchLength = keyword.length();
+                }
+            }
+            if (matchStart < 0) {
+                snippet.append(HtmlUtil.escape(text.substring(pos, end)));
+                break;
+            }
+            int matchEnd = Math.min(end, matchStart + matchLength);
+            snippet.append(HtmlUtil.escape(text.substring(pos, matchStart)))
+                    .append(HIGHLIGHT_START)
+                    .append(HtmlUtil.escape(text.substring(matchStart, matchEnd)))
+                    .append(HIGHLIGHT_END);
+            pos = matchEnd;
+        }
+        if (end < text.length()) {
+            snippet.append('…');
+        }
+        return snippet.toString();
+    }
+
+    private static String normalize(String keyword) {
+        return IGNORED.matcher(keyword.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+}
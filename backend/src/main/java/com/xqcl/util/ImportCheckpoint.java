@@ -0,0 +1,39 @@
+package com.xqcl.util;
+
+import com.xqcl.dto.UpsertResult;
+
+/**
+ * 导入检查点：CHECKPOINT 写入模式下每批提交时记录最后一行，失败后从该行之后继续
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public interface ImportCheckpoint {
+
+    /**
+     * 不记录检查点，从头导入
+     */
+    ImportCheckpoint NONE = new ImportCheckpoint() {
+        @Override
+        public int getResumeAfterRow() {
+            return 0;
+        }
+
+        @Override
+        public void commit(int lastRowNum, UpsertResult batchResult) {
+        }
+    };
+
+    /**
+     * 续传起点：已提交的最后一行 Excel 行号（从 1 开始，含表头），该行及之前的数据不再导入；0 表示从头导入
+     */
+    int getResumeAfterRow();
+
+    /**
+     * 记录检查点，与本批数据在同一事务内调用
+     *
+     * @param lastRowNum  本批最后一行的 Excel 行号
+     * @param batchResult 本批写入结果
+     */
+    void commit(int lastRowNum, UpsertResult batchResult);
+}
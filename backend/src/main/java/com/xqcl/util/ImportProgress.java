@@ -0,0 +1,155 @@
+package com.xqcl.util;
+
+import com.xqcl.common.ImportCancelledException;
+import com.xqcl.dto.ImportResultDTO;
+import com.xqcl.dto.UpsertResult;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导入进度（解析线程和写入线程共同更新，查询线程读取）
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class ImportProgress {
+
+    private final long startNanos = System.nanoTime();
+
+    private volatile long totalRows = -1;
+    private volatile boolean cancelled;
+    private volatile String commitReport;
+
+    private final AtomicLong parsedRows = new AtomicLong();
+    private final AtomicLong insertedRows = new AtomicLong();
+    private final AtomicLong updatedRows = new AtomicLong();
+    private final AtomicLong unchangedRows = new AtomicLong();
+    private final AtomicLong skippedRows = new AtomicLong();
+
+    /**
+     * 数据总行数（不含表头），未知时为 -1
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getParsedRows() {
+        return parsedRows.get();
+    }
+
+    public long getInsertedRows() {
+        return insertedRows.get();
+    }
+
+    public long getUpdatedRows() {
+        return updatedRows.get();
+    }
+
+    public long getUnchangedRows() {
+        return unchangedRows.get();
+    }
+
+    public long getSkippedRows() {
+        return skippedRows.get();
+    }
+
+    public void addParsed(long rows) {
+        parsedRows.addAndGet(rows);
+    }
+
+    public void addInserted(long rows) {
+        insertedRows.addAndGet(rows);
+    }
+
+    public void addUpdated(long rows) {
+        updatedRows.addAndGet(rows);
+    }
+
+    public void addUnchanged(long rows) {
+        unchangedRows.addAndGet(rows);
+    }
+
+    public void addSkipped(long rows) {
+        skippedRows.addAndGet(rows);
+    }
+
+    public void addUpsert(UpsertResult result) {
+        addInserted(result.getInserted());
+        addUpdated(result.getUpdated());
+        addUnchanged(result.getUnchanged());
+    }
+
+    /**
+     * 按批提交的导入中断时已提交的行范围说明，未中断时为 null
+     */
+    public String getCommitReport() {
+        return commitReport;
+    }
+
+    public void setCommitReport(String commitReport) {
+        this.commitReport = commitReport;
+    }
+
+    /**
+     * 当前计数汇总为导入结果
+     */
+    public ImportResultDTO toResult() {
+        ImportResultDTO result = new ImportResultDTO();
+        result.setParsed(getParsedRows());
+        result.setInserted(getInsertedRows());
+        result.setUpdated(getUpdatedRows());
+        result.setUnchanged(getUnchangedRows());
+        result.setSkipped(getSkippedRows());
+        return result;
+    }
+
+    /**
+     * 请求取消，导入在下一行或下一批时中止
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 已请求取消则抛出 ImportCancelledException
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new ImportCancelledException();
+        }
+    }
+
+    /**
+     * 已用时（毫秒）
+     */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * 解析速率（行/秒）
+     */
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed > 0 ? getParsedRows() * 1000.0 / elapsed : 0;
+    }
+
+    /**
+     * 预计剩余时间（秒），总行数未知或尚无速率时为 -1
+     */
+    public long getEtaSeconds() {
+        double rate = getRowsPerSecond();
+        if (totalRows < 0 || rate <= 0) {
+            return -1;
+        }
+        return (long) Math.ceil(Math.max(0, totalRows - getParsedRows()) / rate);
+    }
+}
@@ -0,0 +1,85 @@
+package com.xqcl.util;
+
+import cn.hutool.core.util.StrUtil;
+import com.xqcl.entity.ReqList;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 需求列表键集分页游标
+ * <p>
+ * 记录翻页边界行的 (submit_time, req_no) 和翻页方向，编码为 URL 安全的 Base64 字符串，对调用方不透明。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Getter
+public class KeysetCursor {
+
+    private static final String NEXT = "N";
+    private static final String PREV = "P";
+
+    /**
+     * 是否向前翻页（取边界行之前的数据）
+     */
+    private final boolean backward;
+
+    /**
+     * 边界行提交时间，为 null 表示边界行在提交时间为空的分段中
+     */
+    private final LocalDateTime submitTime;
+
+    /**
+     * 边界行需求评估单号
+     */
+    private final String reqNo;
+
+    private KeysetCursor(boolean backward, LocalDateTime submitTime, String reqNo) {
+        this.backward = backward;
+        this.submitTime = submitTime;
+        this.reqNo = reqNo;
+    }
+
+    /**
+     * 下一页游标：取 row 之后的数据
+     */
+    public static KeysetCursor after(ReqList row) {
+        return new KeysetCursor(false, row.getSubmitTime(), row.getReqNo());
+    }
+
+    /**
+     * 上一页游标：取 row 之前的数据
+     */
+    public static KeysetCursor before(ReqList row) {
+        return new KeysetCursor(true, row.getSubmitTime(), row.getReqNo());
+    }
+
+    public String encode() {
+        String raw = (backward ? PREV : NEXT) + "|" + (submitTime == null ? "" : submitTime.toString()) + "|" + reqNo;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     *
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // 单号放在最后，其中的分隔符不影响解析
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !(NEXT.equals(parts[0]) || PREV.equals(parts[0])) || StrUtil.isEmpty(parts[2])) {
+                throw new IllegalArgumentException("无效的分页游标: " + cursor);
+            }
+            LocalDateTime submitTime = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new KeysetCursor(PREV.equals(parts[0]), submitTime, parts[2]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.xqcl.util;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.xqcl.dto.CacheStatsDTO;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 按键查询结果的本地缓存：容量和有效期有上限，记录命中、未命中次数
+ * <p>
+ * 未命中时调用加载函数，结果为 null 时不缓存。加载期间发生过失效的结果不写入缓存，
+ * 避免把失效前读到的旧数据放回缓存。
+ *
+ * @param <V> 缓存值类型，调用方不得修改取得的值
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class LookupCache<V> {
+
+    private final String name;
+    private final int capacity;
+    private final long ttlSeconds;
+    private final LRUCache<String, V> cache;
+
+    /**
+     * 失效代数：加载期间发生失效的结果不写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * @param name       缓存名称（指标用）
+     * @param capacity   最多缓存的条目数
+     * @param ttlSeconds 有效期（秒），0 表示不过期
+     */
+    public LookupCache(String name, int capacity, long ttlSeconds) {
+        this.name = name;
+        this.capacity = Math.max(1, capacity);
+        this.ttlSeconds = Math.max(0, ttlSeconds);
+        this.cache = CacheUtil.newLRUCache(this.capacity, this.ttlSeconds * 1000);
+    }
+
+    /**
+     * 取缓存值，未命中时加载
+     */
+    public V get(String key, Supplier<V> loader) {
+        V value = cache.get(key, false);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        long current = generation.get();
+        value = loader.get();
+        if (value != null && generation.get() == current) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 失效指定的键；键数超过容量时直接清空
+     */
+    public void invalidate(Collection<String> keys) {
+        generation.incrementAndGet();
+        if (keys.size() >= capacity) {
+            clear();
+            return;
+        }
+        for (String key : keys) {
+            cache.remove(key);
+        }
+        invalidations.add(keys.size());
+    }
+
+    /**
+     * 清空全部条目
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        cache.clear();
+        flushes.increment();
+    }
+
+    public CacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setName(name);
+        stats.setSize(cache.size());
+        stats.setCapacity(capacity);
+        stats.setTtlSeconds(ttlSeconds);
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0);
+        stats.setInvalidations(invalidations.sum());
+        stats.setFlushes(flushes.sum());
+        return stats;
+    }
+}
@@ -6,6 +6,8 @@ import com.xqcl.entity.ReqDetail;
 import com.xqcl.entity.ReqList;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -154,6 +156,14 @@ public class MarkdownExportUtil {
         md.append("**").append(fieldName).append("**：").append(StrUtil.nullToEmpty(value)).append("\n\n");
     }
 
+    private static void appendField(StringBuilder md, String fieldName, LocalDateTime value) {
+        appendField(md, fieldName, ExcelValueConverter.format(value));
+    }
+
+    private static void appendField(StringBuilder md, String fieldName, BigDecimal value) {
+        appendField(md, fieldName, ExcelValueConverter.format(value));
+    }
+
     /**
      * 保存 Markdown 文件
      *
@@ -0,0 +1,135 @@
+package com.xqcl.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界字符串字典：把低基数字段（行业、区域、状态、部门、人员等）的重复取值规范为同一个实例
+ * <p>
+ * 每次导入、每次查询结果各用一个字典，随导入或结果集一起释放，不会像 String.intern 那样常驻。
+ * 取值过长或字典已满时原样返回，不再登记新值。线程安全，流水线导入的多个转换线程可共用一个字典。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class StringDictionary {
+
+    /**
+     * 默认最多登记的取值个数
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    /**
+     * 超过该长度的取值不登记（长文本基本不重复）
+     */
+    public static final int MAX_VALUE_LENGTH = 64;
+
+    private static final ThreadLocal<StringDictionary> CURRENT = new ThreadLocal<>();
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, String> values;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+    private final LongAdder overflow = new LongAdder();
+
+    public StringDictionary() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public StringDictionary(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.values = new ConcurrentHashMap<>(Math.min(maxEntries, 256));
+    }
+
+    /**
+     * 返回规范实例
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > MAX_VALUE_LENGTH) {
+            return value;
+        }
+        String canonical = values.get(value);
+        if (canonical == null) {
+            if (values.size() >= maxEntries) {
+                overflow.increment();
+                return value;
+            }
+            canonical = values.putIfAbsent(value, value);
+            if (canonical == null) {
+                return value;
+            }
+        }
+        if (canonical != value) {
+            hits.increment();
+            savedBytes.add(estimateSize(value));
+        }
+        return canonical;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 估算节省的堆内存（被丢弃的重复字符串对象 + 字符数组）
+     */
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    /**
+     * 字典已满后未能登记的次数
+     */
+    public long getOverflow() {
+        return overflow.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("字典取值 %d 个，复用 %d 次，约节省 %d KB，溢出 %d 次",
+                size(), getHits(), getSavedBytes() / 1024, getOverflow());
+    }
+
+    /**
+     * 当前线程正在使用的字典（查询结果映射期间有效），没有时返回 null
+     */
+    public static StringDictionary current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在当前线程绑定一个新字典执行，已绑定时沿用外层字典
+     */
+    public static <R> R withCurrent(Callable<R> action) throws Exception {
+        if (CURRENT.get() != null) {
+            return action.call();
+        }
+        CURRENT.set(new StringDictionary());
+        try {
+            return action.call();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * 字符串对象占用估算：对象头与字段 24 字节，字节数组头 16 字节，
+     * 紧凑字符串下 Latin-1 每字符 1 字节、其余 2 字节，按 8 字节对齐
+     */
+    private static long estimateSize(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long array = 16L + (long) value.length() * bytesPerChar;
+        return 24 + ((array + 7) & ~7L);
+    }
+}
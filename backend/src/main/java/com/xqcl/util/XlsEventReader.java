@@ -0,0 +1,201 @@
+package com.xqcl.util;
+
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.record.*;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * xls（BIFF8）事件模式读取器（HSSFEventFactory + 记录监听）
+ * <p>
+ * 按记录流逐行回调指定工作表，不构建 HSSFWorkbook 对象模型。
+ * 单元格取值规则与 {@link XlsxSaxReader} 一致：字符串（含公式的字符串结果）去首尾空白、空白字符串为 null、
+ * 整数不带小数点、公式取缓存结果、错误值为 null。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+public class XlsEventReader {
+
+    private XlsEventReader() {
+    }
+
+    /**
+     * 按路径只读打开 xls 文件并读取指定序号的工作表
+     *
+     * @param file             xls 文件
+     * @param sheetIndex       工作表序号（从 0 开始）
+     * @param dimensionHandler 工作表声明的最后一行行号（从 0 开始），可为 null
+     * @param rowHandler       行回调
+     */
+    public static void read(File file, int sheetIndex, IntConsumer dimensionHandler,
+                            XlsxSaxReader.RowHandler rowHandler) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+            read(fs, sheetIndex, dimensionHandler, rowHandler);
+        }
+    }
+
+    /**
+     * 从输入流读取指定序号的工作表（整个文件系统载入内存，调用方负责关闭输入流）
+     */
+    public static void read(InputStream is, int sheetIndex, IntConsumer dimensionHandler,
+                            XlsxSaxReader.RowHandler rowHandler) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(is)) {
+            read(fs, sheetIndex, dimensionHandler, rowHandler);
+        }
+    }
+
+    private static void read(POIFSFileSystem fs, int sheetIndex, IntConsumer dimensionHandler,
+                             XlsxSaxReader.RowHandler rowHandler) throws IOException {
+        SheetListener listener = new SheetListener(sheetIndex, dimensionHandler, rowHandler);
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(new MissingRecordAwareHSSFListener(listener));
+        new HSSFEventFactory().processWorkbookEvents(request, fs);
+        if (listener.sheetCount == 0) {
+            throw new IllegalArgumentException("Excel 文件为空");
+        }
+        if (listener.sheetCount <= sheetIndex) {
+            throw new IllegalArgumentException("Excel 文件没有第 " + (sheetIndex + 1) + " 个工作表");
+        }
+    }
+
+    /**
+     * 记录监听：工作簿全局区读取共享字符串表，目标工作表内收集单元格，行结束时回调
+     */
+    private static class SheetListener implements HSSFListener {
+
+        private final int sheetIndex;
+        private final IntConsumer dimensionHandler;
+        private final XlsxSaxReader.RowHandler rowHandler;
+
+        private final List<String> cells = new ArrayList<>();
+
+        private SSTRecord sst;
+        private int sheetCount;
+        private boolean active;
+
+        /**
+         * 字符串结果的公式单元格，值在紧随其后的 StringRecord 中
+         */
+        private int pendingFormulaColumn = -1;
+
+        SheetListener(int sheetIndex, IntConsumer dimensionHandler, XlsxSaxReader.RowHandler rowHandler) {
+            this.sheetIndex = sheetIndex;
+            this.dimensionHandler = dimensionHandler;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void processRecord(Record record) {
+            switch (record.getSid()) {
+                case BOFRecord.sid:
+                    if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                        active = sheetCount++ == sheetIndex;
+                    }
+                    return;
+                case EOFRecord.sid:
+                    active = false;
+                    return;
+                case SSTRecord.sid:
+                    sst = (SSTRecord) record;
+                    return;
+                default:
+                    break;
+            }
+            if (!active) {
+                return;
+            }
+            // 占位记录没有独立的 sid
+            if (record instanceof LastCellOfRowDummyRecord) {
+                rowHandler.handle(((LastCellOfRowDummyRecord) record).getRow(), cells.toArray(new String[0]));
+                cells.clear();
+                return;
+            }
+
+            switch (record.getSid()) {
+                case DimensionsRecord.sid:
+                    // 记录中的最后一行是开区间
+                    int lastRow = ((DimensionsRecord) record).getLastRow() - 1;
+                    if (dimensionHandler != null && lastRow >= 0) {
+                        dimensionHandler.accept(lastRow);
+                    }
+                    break;
+                case LabelSSTRecord.sid:
+                    LabelSSTRecord label = (LabelSSTRecord) record;
+                    set(label.getColumn(), text(sst.getString(label.getSSTIndex()).getString()));
+                    break;
+                case LabelRecord.sid:
+                    LabelRecord legacyLabel = (LabelRecord) record;
+                    set(legacyLabel.getColumn(), text(legacyLabel.getValue()));
+                    break;
+                case NumberRecord.sid:
+                    NumberRecord number = (NumberRecord) record;
+                    set(number.getColumn(), ExcelImportUtil.formatNumber(number.getValue()));
+                    break;
+                case BoolErrRecord.sid:
+                    BoolErrRecord boolErr = (BoolErrRecord) record;
+                    set(boolErr.getColumn(), boolErr.isBoolean() ? String.valueOf(boolErr.getBooleanValue()) : null);
+                    break;
+                case FormulaRecord.sid:
+                    handleFormula((FormulaRecord) record);
+                    break;
+                case StringRecord.sid:
+                    if (pendingFormulaColumn >= 0) {
+                        set(pendingFormulaColumn, text(((StringRecord) record).getString()));
+                        pendingFormulaColumn = -1;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void handleFormula(FormulaRecord formula) {
+            CellType type = formula.getCachedResultTypeEnum();
+            switch (type) {
+                case STRING:
+                    if (formula.hasCachedResultString()) {
+                        pendingFormulaColumn = formula.getColumn();
+                    }
+                    break;
+                case NUMERIC:
+                    set(formula.getColumn(), ExcelImportUtil.formatNumber(formula.getValue()));
+                    break;
+                case BOOLEAN:
+                    set(formula.getColumn(), String.valueOf(formula.getCachedBooleanValue()));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * 字符串去首尾空白，空白字符串为 null（与空单元格相同）
+         */
+        private static String text(String value) {
+            if (value == null) {
+                return null;
+            }
+            String text = value.trim();
+            return text.isEmpty() ? null : text;
+        }
+
+        private void set(int column, String value) {
+            while (cells.size() <= column) {
+                cells.add(null);
+            }
+            cells.set(column, value);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.xqcl.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * xlsx 事件模式读取器（XSSFReader + 共享字符串表 + SAX）
+ * <p>
+ * 逐行解析第一个工作表并回调，不构建整个工作表的对象模型，内存占用与文件行数无关。
+ * 单元格取值规则与 {@link ExcelImportUtil} 用户模型一致。
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+@Slf4j
+public class XlsxSaxReader {
+
+    /**
+     * 行回调
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowIndex 行号（从 0 开始）
+         * @param cells    单元格值，按列号索引，空单元格为 null
+         */
+        void handle(int rowIndex, String[] cells);
+    }
+
+    /**
+     * 读取第一个工作表
+     *
+     * @param is               xlsx 输入流
+     * @param dimensionHandler 工作表声明的最后一行行号（从 0 开始），未声明时不回调，可为 null
+     * @param rowHandler       行回调
+     */
+    public static void read(InputStream is, IntConsumer dimensionHandler, RowHandler rowHandler) throws Exception {
+        OPCPackage pkg = OPCPackage.open(is);
+        try {
+            read(pkg, dimensionHandler, rowHandler);
+        } finally {
+            // 只读场景，丢弃包而不是回写
+            pkg.revert();
+        }
+    }
+
+    /**
+     * 按路径只读打开 xlsx 包并读取第一个工作表，压缩包按需随机读取，不整体载入内存
+     *
+     * @param file             xlsx 文件
+     * @param dimensionHandler 工作表声明的最后一行行号（从 0 开始），未声明时不回调，可为 null
+     * @param rowHandler       行回调
+     */
+    public static void read(File file, IntConsumer dimensionHandler, RowHandler rowHandler) throws Exception {
+        read(file, 0, dimensionHandler, rowHandler);
+    }
+
+    /**
+     * 按路径只读打开 xlsx 包并读取指定序号的工作表
+     *
+     * @param sheetIndex 工作表序号（从 0 开始）
+     */
+    public static void read(File file, int sheetIndex, IntConsumer dimensionHandler, RowHandler rowHandler) throws Exception {
+        OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+        try {
+            read(pkg, sheetIndex, dimensionHandler, rowHandler);
+        } finally {
+            pkg.revert();
+        }
+    }
+
+    /**
+     * 读取已打开的 xlsx 包的第一个工作表
+     */
+    public static void read(OPCPackage pkg, IntConsumer dimensionHandler, RowHandler rowHandler) throws Exception {
+        read(pkg, 0, dimensionHandler, rowHandler);
+    }
+
+    /**
+     * 读取已打开的 xlsx 包中指定序号的工作表
+     */
+    public static void read(OPCPackage pkg, int sheetIndex, IntConsumer dimensionHandler, RowHandler rowHandler) throws Exception {
+        XSSFReader reader = new XSSFReader(pkg);
+        ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+
+        Iterator<InputStream> sheets = reader.getSheetsData();
+        if (!sheets.hasNext()) {
+            throw new IllegalArgumentException("Excel 文件为空");
+        }
+        for (int i = 0; i < sheetIndex; i++) {
+            sheets.next().close();
+            if (!sheets.hasNext()) {
+                throw new IllegalArgumentException("Excel 文件没有第 " + (sheetIndex + 1) + " 个工作表");
+            }
+        }
+
+        try (InputStream sheet = sheets.next()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new SheetHandler(sharedStrings, dimensionHandler, rowHandler));
+            parser.parse(new InputSource(sheet));
+        }
+    }
+
+    /**
+     * 工作表 XML 处理器
+     */
+    private static class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final IntConsumer dimensionHandler;
+        private final RowHandler rowHandler;
+
+        private final List<String> cells = new ArrayList<>();
+        private final StringBuilder value = new StringBuilder();
+
+        private int rowIndex = -1;
+        private int columnIndex = -1;
+        private String cellType;
+        private boolean collecting;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, IntConsumer dimensionHandler, RowHandler rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.dimensionHandler = dimensionHandler;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "dimension":
+                    handleDimension(attributes.getValue("ref"));
+                    break;
+                case "row":
+                    String r = attributes.getValue("r");
+                    rowIndex = r != null ? Integer.parseInt(r) - 1 : rowIndex + 1;
+                    columnIndex = -1;
+                    cells.clear();
+                    break;
+                case "c":
+                    String ref = attributes.getValue("r");
+                    columnIndex = ref != null ? columnIndexOf(ref) : columnIndex + 1;
+                    cellType = attributes.getValue("t");
+                    value.setLength(0);
+                    break;
+                case "v":
+                case "t":
+                    // <t> 仅出现在内联字符串 <is> 中
+                    collecting = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    collecting = false;
+                    break;
+                case "c":
+                    while (cells.size() <= columnIndex) {
+                        cells.add(null);
+                    }
+                    cells.set(columnIndex, cellValue());
+                    break;
+                case "row":
+                    rowHandler.handle(rowIndex, cells.toArray(new String[0]));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * 按单元格类型转换为字符串，规则同 ExcelImportUtil.getCellStringValue
+         */
+        private String cellValue() {
+            if (value.length() == 0) {
+                return "inlineStr".equals(cellType) ? "" : null;
+            }
+            String raw = value.toString();
+            if (cellType == null || "n".equals(cellType)) {
+                return ExcelImportUtil.formatNumber(Double.parseDouble(raw));
+            }
+            switch (cellType) {
+                case "s":
+                    return sharedStrings.getItemAt(Integer.parseInt(raw)).getString().trim();
+                case "inlineStr":
+                    return raw.trim();
+                case "b":
+                    return String.valueOf("1".equals(raw));
+                case "e":
+                    return null;
+                default:
+                    // str（公式字符串结果）、d（ISO 日期）
+                    return raw;
+            }
+        }
+
+        private void handleDimension(String ref) {
+            if (dimensionHandler == null || ref == null) {
+                return;
+            }
+            int colon = ref.indexOf(':');
+            String last = colon >= 0 ? ref.substring(colon + 1) : ref;
+            int digits = 0;
+            while (digits < last.length() && !Character.isDigit(last.charAt(digits))) {
+                digits++;
+            }
+            if (digits < last.length()) {
+                dimensionHandler.accept(Integer.parseInt(last.substring(digits)) - 1);
+            }
+        }
+
+        /**
+         * 单元格引用（如 AB12）转列号（从 0 开始）
+         */
+        private static int columnIndexOf(String ref) {
+            int column = 0;
+            for (int i = 0; i < ref.length(); i++) {
+                char ch = ref.charAt(i);
+                if (ch < 'A' || ch > 'Z') {
+                    break;
+                }
+                column = column * 26 + (ch - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
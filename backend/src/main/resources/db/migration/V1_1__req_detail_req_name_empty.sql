@@ -0,0 +1,30 @@
+-- 需求详情：需求名称为空统一存为空串
+-- 唯一索引 idx_req_detail_unique 中 NULL 互不冲突，INSERT ... ON CONFLICT (req_no, req_name) 无法命中 req_name 为 NULL 的行，
+-- 导入时已将空需求名称写为空串，已有数据需执行一次本脚本。
+-- 同一需求评估单号下可能已有多行需求名称为 NULL（NULL 不触发唯一索引冲突），全部改为空串会违反唯一索引，
+-- 先删除重复行：已有空串行的删除全部 NULL 行，否则只保留最近更新的一行。
+-- Database: PostgreSQL 11
+
+DELETE FROM req_detail d
+WHERE d.req_name IS NULL
+  AND d.req_no IS NOT NULL
+  AND EXISTS (
+      SELECT 1 FROM req_detail e
+      WHERE e.req_no = d.req_no AND e.req_name = ''
+  );
+
+DELETE FROM req_detail
+WHERE id IN (
+    SELECT id
+    FROM (SELECT id,
+                 ROW_NUMBER() OVER (PARTITION BY req_no ORDER BY updated_at DESC NULLS LAST, id DESC) AS rn
+          FROM req_detail
+          WHERE req_name IS NULL
+            AND req_no IS NOT NULL) t
+    WHERE t.rn > 1
+);
+
+UPDATE req_detail
+SET req_name = ''
+WHERE req_name IS NULL
+  AND req_no IS NOT NULL;
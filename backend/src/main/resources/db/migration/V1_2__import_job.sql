@@ -0,0 +1,39 @@
+-- 异步导入任务表
+-- Database: PostgreSQL 11
+
+CREATE TABLE IF NOT EXISTS import_job (
+    id BIGSERIAL PRIMARY KEY,
+    job_type VARCHAR(20) NOT NULL,
+    file_name VARCHAR(500),
+    file_path VARCHAR(1000),
+    status VARCHAR(20) NOT NULL,
+    total_rows BIGINT,
+    parsed_rows BIGINT,
+    inserted_rows BIGINT,
+    updated_rows BIGINT,
+    skipped_rows BIGINT,
+    error_message VARCHAR(1000),
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE import_job IS '导入任务表';
+COMMENT ON COLUMN import_job.id IS '任务ID';
+COMMENT ON COLUMN import_job.job_type IS '任务类型（LIST/DETAIL）';
+COMMENT ON COLUMN import_job.file_name IS '原始文件名';
+COMMENT ON COLUMN import_job.file_path IS '上传文件存储路径';
+COMMENT ON COLUMN import_job.status IS '状态（PENDING/RUNNING/SUCCESS/FAILED/CANCELLED）';
+COMMENT ON COLUMN import_job.total_rows IS '数据总行数（不含表头）';
+COMMENT ON COLUMN import_job.parsed_rows IS '已解析行数';
+COMMENT ON COLUMN import_job.inserted_rows IS '新增行数';
+COMMENT ON COLUMN import_job.updated_rows IS '更新行数';
+COMMENT ON COLUMN import_job.skipped_rows IS '跳过行数';
+COMMENT ON COLUMN import_job.error_message IS '失败原因';
+COMMENT ON COLUMN import_job.started_at IS '开始时间';
+COMMENT ON COLUMN import_job.finished_at IS '结束时间';
+COMMENT ON COLUMN import_job.created_at IS '创建时间';
+COMMENT ON COLUMN import_job.updated_at IS '更新时间';
+
+CREATE INDEX IF NOT EXISTS idx_import_job_status ON import_job(status);
@@ -0,0 +1,11 @@
+-- 内容哈希：重复导入时跳过业务字段未变化的行
+-- 已有数据的 content_hash 为 NULL，下一次导入时会更新一次并写入哈希，之后相同内容不再更新。
+-- Database: PostgreSQL 11
+
+ALTER TABLE req_list ADD COLUMN IF NOT EXISTS content_hash VARCHAR(32);
+ALTER TABLE req_detail ADD COLUMN IF NOT EXISTS content_hash VARCHAR(32);
+ALTER TABLE import_job ADD COLUMN IF NOT EXISTS unchanged_rows BIGINT;
+
+COMMENT ON COLUMN req_list.content_hash IS '业务字段内容哈希（重复导入时识别未变化的行）';
+COMMENT ON COLUMN req_detail.content_hash IS '业务字段内容哈希（重复导入时识别未变化的行）';
+COMMENT ON COLUMN import_job.unchanged_rows IS '未变化行数';
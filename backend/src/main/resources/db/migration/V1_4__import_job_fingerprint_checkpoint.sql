@@ -0,0 +1,13 @@
+-- 导入任务：文件指纹去重和检查点续传
+-- Database: PostgreSQL 11
+
+ALTER TABLE import_job ADD COLUMN IF NOT EXISTS file_hash VARCHAR(64);
+ALTER TABLE import_job ADD COLUMN IF NOT EXISTS checkpoint_row BIGINT;
+
+COMMENT ON COLUMN import_job.file_hash IS '文件 SHA-256 指纹';
+COMMENT ON COLUMN import_job.checkpoint_row IS '已提交的最后一行 Excel 行号（CHECKPOINT 写入模式）';
+
+CREATE INDEX IF NOT EXISTS idx_import_job_file_hash ON import_job(job_type, file_hash);
+-- 同一文件同时只允许一个进行中的任务
+CREATE UNIQUE INDEX IF NOT EXISTS idx_import_job_active_file ON import_job(job_type, file_hash)
+    WHERE status IN ('PENDING', 'RUNNING');
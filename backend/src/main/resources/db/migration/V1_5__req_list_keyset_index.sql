@@ -0,0 +1,6 @@
+-- 需求列表游标分页：(submit_time, req_no) 复合索引
+-- Database: PostgreSQL 11
+
+CREATE INDEX IF NOT EXISTS idx_req_list_submit_time_req_no ON req_list(submit_time DESC, req_no DESC);
+-- 原提交时间索引是新索引的前缀
+DROP INDEX IF EXISTS idx_req_list_submit_time;
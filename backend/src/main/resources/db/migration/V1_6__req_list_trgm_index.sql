@@ -0,0 +1,21 @@
+-- 需求列表文本筛选：pg_trgm 三元组 GIN 索引，支持 LIKE '%...%' 包含匹配和 LIKE '...%' 前缀匹配
+-- Database: PostgreSQL 11
+-- 中文值要求数据库 LC_CTYPE 为 UTF-8 区域（如 zh_CN.UTF-8、en_US.UTF-8），C 区域下中文字符不会拆出三元组，只能全表扫描
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_req_list_req_no_trgm ON req_list USING gin (req_no gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_project_name_trgm ON req_list USING gin (project_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_opportunity_no_trgm ON req_list USING gin (opportunity_no gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_industry_trgm ON req_list USING gin (industry gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_region_trgm ON req_list USING gin (region gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_product_series_trgm ON req_list USING gin (product_series gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_software_version_trgm ON req_list USING gin (software_version gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_req_owner_trgm ON req_list USING gin (req_owner gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_owner_dept_trgm ON req_list USING gin (owner_dept gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_dev_no_trgm ON req_list USING gin (dev_no gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_req_list_jkn_no_trgm ON req_list USING gin (jkn_no gin_trgm_ops);
+
+-- 行业、区域短值按等值匹配
+CREATE INDEX IF NOT EXISTS idx_req_list_industry ON req_list(industry);
+CREATE INDEX IF NOT EXISTS idx_req_list_region ON req_list(region);
@@ -0,0 +1,52 @@
+-- 需求详情全文检索：需求描述、需求场景、研发评估按二元组（相邻两个字符）切分，存入 tsvector 并建 GIN 倒排索引
+-- Database: PostgreSQL 11
+-- 中文没有空格分词，按字符二元组切分后查询词同样切分，以短语（<->）匹配，不依赖中文分词扩展。
+-- 检索列由触发器在写入时维护，批量新增或更新、COPY 合并、按列更新等所有导入路径都会更新。
+
+-- 文本切分为以空格分隔的二元组：转小写，去掉空白和标点，单个字符的文本保留该字符
+-- 去掉的字符逐段列出（与 FullTextQuery.IGNORED_CHARS 原文相同），不用 [[:punct:]]：其范围取决于数据库的 lc_ctype
+-- 重复执行本脚本会按新的切分规则重建检索向量
+CREATE OR REPLACE FUNCTION req_ngram(txt TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT COALESCE(string_agg(substr(s, i, 2), ' ' ORDER BY i), '')
+FROM (SELECT regexp_replace(lower(txt), '[\u0009-\u000D\u0020-\u002F\u003A-\u0040\u005B-\u0060\u007B-\u007E\u00A0-\u00BF\u00D7\u00F7\u2000-\u206F\u3000-\u3004\u3008-\u3020\u3030\uFE30-\uFE6B\uFEFF\uFF01-\uFF0F\uFF1A-\uFF20\uFF3B-\uFF40\uFF5B-\uFF65]+', '', 'g') AS s) t,
+     generate_series(1, GREATEST(length(s) - 1, 1)) AS i
+$$;
+
+-- 检索向量：需求描述权重 A，需求场景 B，研发评估 C
+CREATE OR REPLACE FUNCTION req_detail_search_vector(req_desc TEXT, req_scene TEXT, rd_eval TEXT) RETURNS tsvector
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT setweight(to_tsvector('simple', req_ngram(req_desc)), 'A')
+           || setweight(to_tsvector('simple', req_ngram(req_scene)), 'B')
+           || setweight(to_tsvector('simple', req_ngram(rd_eval)), 'C')
+$$;
+
+CREATE OR REPLACE FUNCTION req_detail_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND NEW.req_desc IS NOT DISTINCT FROM OLD.req_desc
+        AND NEW.req_scene IS NOT DISTINCT FROM OLD.req_scene
+        AND NEW.rd_eval IS NOT DISTINCT FROM OLD.rd_eval THEN
+        RETURN NEW;
+    END IF;
+    NEW.search_vector := req_detail_search_vector(NEW.req_desc, NEW.req_scene, NEW.rd_eval);
+    RETURN NEW;
+END
+$$;
+
+ALTER TABLE req_detail ADD COLUMN IF NOT EXISTS search_vector tsvector;
+COMMENT ON COLUMN req_detail.search_vector IS '全文检索向量（需求描述、需求场景、研发评估的二元组，触发器维护）';
+
+DROP TRIGGER IF EXISTS trg_req_detail_search_vector ON req_detail;
+CREATE TRIGGER trg_req_detail_search_vector
+    BEFORE INSERT OR UPDATE OF req_desc, req_scene, rd_eval ON req_detail
+    FOR EACH ROW EXECUTE PROCEDURE req_detail_search_vector_trigger();
+
+-- 回填已有数据
+UPDATE req_detail SET search_vector = req_detail_search_vector(req_desc, req_scene, rd_eval);
+
+CREATE INDEX IF NOT EXISTS idx_req_detail_search_vector ON req_detail USING gin (search_vector);
@@ -0,0 +1,91 @@
+-- 需求列表筛选项计数：按 (状态, 行业, 区域, 产品系列, 负责人部门) 组合聚合的计数表 + 增量表
+-- Database: PostgreSQL 11
+-- 语句级触发器通过过渡表把每条写入语句的净变化追加到增量表（只追加，导入的并发写线程之间没有行锁竞争），
+-- 导入提交后把增量合并进计数表。查询计数表和未合并的增量之和，结果始终与已提交的数据一致。
+-- 空值按空字符串存储，以便作为主键的一部分。
+
+CREATE TABLE IF NOT EXISTS req_list_facet (
+    status VARCHAR(50) NOT NULL DEFAULT '',
+    industry VARCHAR(100) NOT NULL DEFAULT '',
+    region VARCHAR(100) NOT NULL DEFAULT '',
+    product_series VARCHAR(100) NOT NULL DEFAULT '',
+    owner_dept VARCHAR(200) NOT NULL DEFAULT '',
+    cnt BIGINT NOT NULL,
+    PRIMARY KEY (status, industry, region, product_series, owner_dept)
+);
+
+CREATE TABLE IF NOT EXISTS req_list_facet_delta (
+    status VARCHAR(50) NOT NULL DEFAULT '',
+    industry VARCHAR(100) NOT NULL DEFAULT '',
+    region VARCHAR(100) NOT NULL DEFAULT '',
+    product_series VARCHAR(100) NOT NULL DEFAULT '',
+    owner_dept VARCHAR(200) NOT NULL DEFAULT '',
+    cnt BIGINT NOT NULL
+);
+
+COMMENT ON TABLE req_list_facet IS '需求列表筛选项组合计数';
+COMMENT ON TABLE req_list_facet_delta IS '需求列表筛选项组合计数的未合并增量（触发器写入）';
+
+-- 每条语句的净变化：新增 +1，删除 -1，更新为旧值 -1、新值 +1，相互抵消的组合不写入
+CREATE OR REPLACE FUNCTION req_list_facet_delta_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO req_list_facet_delta (status, industry, region, product_series, owner_dept, cnt)
+        SELECT COALESCE(status, ''), COALESCE(industry, ''), COALESCE(region, ''),
+               COALESCE(product_series, ''), COALESCE(owner_dept, ''), COUNT(*)
+        FROM new_rows
+        GROUP BY 1, 2, 3, 4, 5;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO req_list_facet_delta (status, industry, region, product_series, owner_dept, cnt)
+        SELECT COALESCE(status, ''), COALESCE(industry, ''), COALESCE(region, ''),
+               COALESCE(product_series, ''), COALESCE(owner_dept, ''), -COUNT(*)
+        FROM old_rows
+        GROUP BY 1, 2, 3, 4, 5;
+    ELSE
+        INSERT INTO req_list_facet_delta (status, industry, region, product_series, owner_dept, cnt)
+        SELECT COALESCE(status, ''), COALESCE(industry, ''), COALESCE(region, ''),
+               COALESCE(product_series, ''), COALESCE(owner_dept, ''), SUM(cnt)
+        FROM (SELECT status, industry, region, product_series, owner_dept, -1 AS cnt FROM old_rows
+              UNION ALL
+              SELECT status, industry, region, product_series, owner_dept, 1 AS cnt FROM new_rows) d
+        GROUP BY 1, 2, 3, 4, 5
+        HAVING SUM(cnt) <> 0;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION req_list_facet_truncate_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    TRUNCATE req_list_facet, req_list_facet_delta;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_req_list_facet_insert ON req_list;
+DROP TRIGGER IF EXISTS trg_req_list_facet_update ON req_list;
+DROP TRIGGER IF EXISTS trg_req_list_facet_delete ON req_list;
+DROP TRIGGER IF EXISTS trg_req_list_facet_truncate ON req_list;
+CREATE TRIGGER trg_req_list_facet_insert AFTER INSERT ON req_list
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_list_facet_delta_trigger();
+CREATE TRIGGER trg_req_list_facet_update AFTER UPDATE ON req_list
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_list_facet_delta_trigger();
+CREATE TRIGGER trg_req_list_facet_delete AFTER DELETE ON req_list
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_list_facet_delta_trigger();
+CREATE TRIGGER trg_req_list_facet_truncate AFTER TRUNCATE ON req_list
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_list_facet_truncate_trigger();
+
+-- 初始计数
+TRUNCATE req_list_facet, req_list_facet_delta;
+INSERT INTO req_list_facet (status, industry, region, product_series, owner_dept, cnt)
+SELECT COALESCE(status, ''), COALESCE(industry, ''), COALESCE(region, ''),
+       COALESCE(product_series, ''), COALESCE(owner_dept, ''), COUNT(*)
+FROM req_list
+GROUP BY 1, 2, 3, 4, 5;
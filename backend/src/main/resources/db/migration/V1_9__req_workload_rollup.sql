@@ -0,0 +1,102 @@
+-- 工作量统计：按 (提交月份, 负责人部门, 产品线, 区域, 工作量指标) 汇总的月度汇总表
+-- Database: PostgreSQL 11
+-- 汇总表存条数、合计、最小、最大值，粗粒度的分组由汇总表再聚合得到；分位数不能由分组结果合并，按需从明细计算。
+-- 语句级触发器把写入涉及的提交月份记入待刷新月份表，导入提交后只重算这些月份。
+-- 提交时间为空的行归入月份为空的一组。
+
+-- 工作量明细：每行需求的每个非空工作量指标一行，维度空值按空字符串
+CREATE OR REPLACE VIEW req_workload_fact AS
+SELECT l.submit_time,
+       date_trunc('month', l.submit_time)::DATE AS month,
+       COALESCE(l.owner_dept, '') AS owner_dept,
+       COALESCE(l.product_line, '') AS product_line,
+       COALESCE(l.region, '') AS region,
+       w.metric,
+       w.value
+FROM req_list l
+         CROSS JOIN LATERAL (VALUES ('totalWorkload', l.total_workload),
+                                    ('devHqWorkload', l.dev_hq_workload),
+                                    ('devRegionWorkload', l.dev_region_workload),
+                                    ('totalOrderWorkload', l.total_order_workload),
+                                    ('orderHqWorkload', l.order_hq_workload),
+                                    ('orderRegionWorkload', l.order_region_workload),
+                                    ('systemTestWorkload', l.system_test_workload),
+                                    ('integrationTestWorkload', l.integration_test_workload),
+                                    ('learningCostWorkload', l.learning_cost_workload),
+                                    ('processManageWorkload', l.process_manage_workload)) AS w(metric, value)
+WHERE w.value IS NOT NULL;
+
+CREATE TABLE IF NOT EXISTS req_workload_rollup (
+    month DATE,
+    owner_dept VARCHAR(200) NOT NULL DEFAULT '',
+    product_line VARCHAR(100) NOT NULL DEFAULT '',
+    region VARCHAR(100) NOT NULL DEFAULT '',
+    metric VARCHAR(50) NOT NULL,
+    cnt BIGINT NOT NULL,
+    sum_value DECIMAL(18,2) NOT NULL,
+    min_value DECIMAL(10,2) NOT NULL,
+    max_value DECIMAL(10,2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_req_workload_rollup_month ON req_workload_rollup (month);
+
+CREATE TABLE IF NOT EXISTS req_workload_dirty (
+    month DATE
+);
+
+COMMENT ON VIEW req_workload_fact IS '需求工作量明细（每个非空工作量指标一行）';
+COMMENT ON TABLE req_workload_rollup IS '需求工作量月度汇总';
+COMMENT ON TABLE req_workload_dirty IS '需求工作量待刷新月份（触发器写入）';
+
+-- 记录每条语句涉及的提交月份（更新记录新旧两个月份）
+CREATE OR REPLACE FUNCTION req_workload_dirty_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO req_workload_dirty (month)
+        SELECT DISTINCT date_trunc('month', submit_time)::DATE FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO req_workload_dirty (month)
+        SELECT DISTINCT date_trunc('month', submit_time)::DATE FROM old_rows;
+    ELSE
+        INSERT INTO req_workload_dirty (month)
+        SELECT date_trunc('month', submit_time)::DATE FROM old_rows
+        UNION
+        SELECT date_trunc('month', submit_time)::DATE FROM new_rows;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION req_workload_truncate_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    TRUNCATE req_workload_rollup, req_workload_dirty;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_req_workload_insert ON req_list;
+DROP TRIGGER IF EXISTS trg_req_workload_update ON req_list;
+DROP TRIGGER IF EXISTS trg_req_workload_delete ON req_list;
+DROP TRIGGER IF EXISTS trg_req_workload_truncate ON req_list;
+CREATE TRIGGER trg_req_workload_insert AFTER INSERT ON req_list
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_workload_dirty_trigger();
+CREATE TRIGGER trg_req_workload_update AFTER UPDATE ON req_list
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_workload_dirty_trigger();
+CREATE TRIGGER trg_req_workload_delete AFTER DELETE ON req_list
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_workload_dirty_trigger();
+CREATE TRIGGER trg_req_workload_truncate AFTER TRUNCATE ON req_list
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_workload_truncate_trigger();
+
+-- 初始汇总
+TRUNCATE req_workload_rollup, req_workload_dirty;
+INSERT INTO req_workload_rollup (month, owner_dept, product_line, region, metric, cnt, sum_value, min_value, max_value)
+SELECT month, owner_dept, product_line, region, metric, COUNT(*), SUM(value), MIN(value), MAX(value)
+FROM req_workload_fact
+GROUP BY 1, 2, 3, 4, 5;
@@ -1,7 +1,11 @@
 -- 需求管理系统数据库表结构
 -- Database: PostgreSQL 11
 
+-- 文本筛选的三元组索引依赖 pg_trgm 扩展
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- 需求列表表（主表）
+DROP VIEW IF EXISTS req_workload_fact;
 DROP TABLE IF EXISTS req_list;
 CREATE TABLE req_list (
     -- 主键和基本信息
@@ -73,7 +77,8 @@ CREATE TABLE req_list (
     -- 系统字段
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    remark VARCHAR(500)
+    remark VARCHAR(500),
+    content_hash VARCHAR(32)
 );
 
 -- 表注释
@@ -131,12 +136,195 @@ COMMENT ON COLUMN req_list.dev_no IS '开发单号';
 COMMENT ON COLUMN req_list.created_at IS '创建时间';
 COMMENT ON COLUMN req_list.updated_at IS '更新时间';
 COMMENT ON COLUMN req_list.remark IS '备注';
+COMMENT ON COLUMN req_list.content_hash IS '业务字段内容哈希（重复导入时识别未变化的行）';
 
 -- 创建索引
 CREATE INDEX idx_req_list_project_name ON req_list(project_name);
 CREATE INDEX idx_req_list_status ON req_list(status);
 CREATE INDEX idx_req_list_req_owner ON req_list(req_owner);
-CREATE INDEX idx_req_list_submit_time ON req_list(submit_time);
+-- 提交时间 + 单号：列表排序和游标分页
+CREATE INDEX idx_req_list_submit_time_req_no ON req_list(submit_time DESC, req_no DESC);
+-- 行业、区域短值按等值匹配
+CREATE INDEX idx_req_list_industry ON req_list(industry);
+CREATE INDEX idx_req_list_region ON req_list(region);
+-- 文本筛选：pg_trgm 三元组 GIN 索引，支持包含匹配和前缀匹配
+CREATE INDEX idx_req_list_req_no_trgm ON req_list USING gin (req_no gin_trgm_ops);
+CREATE INDEX idx_req_list_project_name_trgm ON req_list USING gin (project_name gin_trgm_ops);
+CREATE INDEX idx_req_list_opportunity_no_trgm ON req_list USING gin (opportunity_no gin_trgm_ops);
+CREATE INDEX idx_req_list_industry_trgm ON req_list USING gin (industry gin_trgm_ops);
+CREATE INDEX idx_req_list_region_trgm ON req_list USING gin (region gin_trgm_ops);
+CREATE INDEX idx_req_list_product_series_trgm ON req_list USING gin (product_series gin_trgm_ops);
+CREATE INDEX idx_req_list_software_version_trgm ON req_list USING gin (software_version gin_trgm_ops);
+CREATE INDEX idx_req_list_req_owner_trgm ON req_list USING gin (req_owner gin_trgm_ops);
+CREATE INDEX idx_req_list_owner_dept_trgm ON req_list USING gin (owner_dept gin_trgm_ops);
+CREATE INDEX idx_req_list_dev_no_trgm ON req_list USING gin (dev_no gin_trgm_ops);
+CREATE INDEX idx_req_list_jkn_no_trgm ON req_list USING gin (jkn_no gin_trgm_ops);
+
+-- 筛选项计数：按 (状态, 行业, 区域, 产品系列, 负责人部门) 组合聚合，语句级触发器把净变化追加到增量表，导入提交后合并
+DROP TABLE IF EXISTS req_list_facet;
+CREATE TABLE req_list_facet (
+    status VARCHAR(50) NOT NULL DEFAULT '',
+    industry VARCHAR(100) NOT NULL DEFAULT '',
+    region VARCHAR(100) NOT NULL DEFAULT '',
+    product_series VARCHAR(100) NOT NULL DEFAULT '',
+    owner_dept VARCHAR(200) NOT NULL DEFAULT '',
+    cnt BIGINT NOT NULL,
+    PRIMARY KEY (status, industry, region, product_series, owner_dept)
+);
+
+DROP TABLE IF EXISTS req_list_facet_delta;
+CREATE TABLE req_list_facet_delta (
+    status VARCHAR(50) NOT NULL DEFAULT '',
+    industry VARCHAR(100) NOT NULL DEFAULT '',
+    region VARCHAR(100) NOT NULL DEFAULT '',
+    product_series VARCHAR(100) NOT NULL DEFAULT '',
+    owner_dept VARCHAR(200) NOT NULL DEFAULT '',
+    cnt BIGINT NOT NULL
+);
+
+COMMENT ON TABLE req_list_facet IS '需求列表筛选项组合计数';
+COMMENT ON TABLE req_list_facet_delta IS '需求列表筛选项组合计数的未合并增量（触发器写入）';
+
+-- 每条语句的净变化：新增 +1，删除 -1，更新为旧值 -1、新值 +1，相互抵消的组合不写入
+CREATE OR REPLACE FUNCTION req_list_facet_delta_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO req_list_facet_delta (status, industry, region, product_series, owner_dept, cnt)
+        SELECT COALESCE(status, ''), COALESCE(industry, ''), COALESCE(region, ''),
+               COALESCE(product_series, ''), COALESCE(owner_dept, ''), COUNT(*)
+        FROM new_rows
+        GROUP BY 1, 2, 3, 4, 5;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO req_list_facet_delta (status, industry, region, product_series, owner_dept, cnt)
+        SELECT COALESCE(status, ''), COALESCE(industry, ''), COALESCE(region, ''),
+               COALESCE(product_series, ''), COALESCE(owner_dept, ''), -COUNT(*)
+        FROM old_rows
+        GROUP BY 1, 2, 3, 4, 5;
+    ELSE
+        INSERT INTO req_list_facet_delta (status, industry, region, product_series, owner_dept, cnt)
+        SELECT COALESCE(status, ''), COALESCE(industry, ''), COALESCE(region, ''),
+               COALESCE(product_series, ''), COALESCE(owner_dept, ''), SUM(cnt)
+        FROM (SELECT status, industry, region, product_series, owner_dept, -1 AS cnt FROM old_rows
+              UNION ALL
+              SELECT status, industry, region, product_series, owner_dept, 1 AS cnt FROM new_rows) d
+        GROUP BY 1, 2, 3, 4, 5
+        HAVING SUM(cnt) <> 0;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION req_list_facet_truncate_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    TRUNCATE req_list_facet, req_list_facet_delta;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_req_list_facet_insert AFTER INSERT ON req_list
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_list_facet_delta_trigger();
+CREATE TRIGGER trg_req_list_facet_update AFTER UPDATE ON req_list
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_list_facet_delta_trigger();
+CREATE TRIGGER trg_req_list_facet_delete AFTER DELETE ON req_list
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_list_facet_delta_trigger();
+CREATE TRIGGER trg_req_list_facet_truncate AFTER TRUNCATE ON req_list
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_list_facet_truncate_trigger();
+
+-- 工作量统计：按 (提交月份, 负责人部门, 产品线, 区域, 工作量指标) 汇总，语句级触发器记录涉及的月份，导入提交后重算这些月份
+-- 工作量明细：每行需求的每个非空工作量指标一行，维度空值按空字符串
+CREATE OR REPLACE VIEW req_workload_fact AS
+SELECT l.submit_time,
+       date_trunc('month', l.submit_time)::DATE AS month,
+       COALESCE(l.owner_dept, '') AS owner_dept,
+       COALESCE(l.product_line, '') AS product_line,
+       COALESCE(l.region, '') AS region,
+       w.metric,
+       w.value
+FROM req_list l
+         CROSS JOIN LATERAL (VALUES ('totalWorkload', l.total_workload),
+                                    ('devHqWorkload', l.dev_hq_workload),
+                                    ('devRegionWorkload', l.dev_region_workload),
+                                    ('totalOrderWorkload', l.total_order_workload),
+                                    ('orderHqWorkload', l.order_hq_workload),
+                                    ('orderRegionWorkload', l.order_region_workload),
+                                    ('systemTestWorkload', l.system_test_workload),
+                                    ('integrationTestWorkload', l.integration_test_workload),
+                                    ('learningCostWorkload', l.learning_cost_workload),
+                                    ('processManageWorkload', l.process_manage_workload)) AS w(metric, value)
+WHERE w.value IS NOT NULL;
+
+DROP TABLE IF EXISTS req_workload_rollup;
+CREATE TABLE req_workload_rollup (
+    month DATE,
+    owner_dept VARCHAR(200) NOT NULL DEFAULT '',
+    product_line VARCHAR(100) NOT NULL DEFAULT '',
+    region VARCHAR(100) NOT NULL DEFAULT '',
+    metric VARCHAR(50) NOT NULL,
+    cnt BIGINT NOT NULL,
+    sum_value DECIMAL(18,2) NOT NULL,
+    min_value DECIMAL(10,2) NOT NULL,
+    max_value DECIMAL(10,2) NOT NULL
+);
+
+CREATE INDEX idx_req_workload_rollup_month ON req_workload_rollup (month);
+
+DROP TABLE IF EXISTS req_workload_dirty;
+CREATE TABLE req_workload_dirty (
+    month DATE
+);
+
+COMMENT ON VIEW req_workload_fact IS '需求工作量明细（每个非空工作量指标一行）';
+COMMENT ON TABLE req_workload_rollup IS '需求工作量月度汇总';
+COMMENT ON TABLE req_workload_dirty IS '需求工作量待刷新月份（触发器写入）';
+
+-- 记录每条语句涉及的提交月份（更新记录新旧两个月份）
+CREATE OR REPLACE FUNCTION req_workload_dirty_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO req_workload_dirty (month)
+        SELECT DISTINCT date_trunc('month', submit_time)::DATE FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO req_workload_dirty (month)
+        SELECT DISTINCT date_trunc('month', submit_time)::DATE FROM old_rows;
+    ELSE
+        INSERT INTO req_workload_dirty (month)
+        SELECT date_trunc('month', submit_time)::DATE FROM old_rows
+        UNION
+        SELECT date_trunc('month', submit_time)::DATE FROM new_rows;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION req_workload_truncate_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    TRUNCATE req_workload_rollup, req_workload_dirty;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_req_workload_insert AFTER INSERT ON req_list
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_workload_dirty_trigger();
+CREATE TRIGGER trg_req_workload_update AFTER UPDATE ON req_list
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_workload_dirty_trigger();
+CREATE TRIGGER trg_req_workload_delete AFTER DELETE ON req_list
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_workload_dirty_trigger();
+CREATE TRIGGER trg_req_workload_truncate AFTER TRUNCATE ON req_list
+    FOR EACH STATEMENT EXECUTE PROCEDURE req_workload_truncate_trigger();
 
 
 -- 需求详情表（从表）
@@ -207,7 +395,9 @@ CREATE TABLE req_detail (
     -- 系统字段
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    remark VARCHAR(500)
+    remark VARCHAR(500),
+    content_hash VARCHAR(32),
+    search_vector tsvector
 );
 
 -- 表注释
@@ -260,12 +450,105 @@ COMMENT ON COLUMN req_detail.dev_no IS '开发单号';
 COMMENT ON COLUMN req_detail.created_at IS '创建时间';
 COMMENT ON COLUMN req_detail.updated_at IS '更新时间';
 COMMENT ON COLUMN req_detail.remark IS '备注';
+COMMENT ON COLUMN req_detail.content_hash IS '业务字段内容哈希（重复导入时识别未变化的行）';
+COMMENT ON COLUMN req_detail.search_vector IS '全文检索向量（需求描述、需求场景、研发评估的二元组，触发器维护）';
 
 -- 创建索引
 CREATE INDEX idx_req_detail_req_no ON req_detail(req_no);
 CREATE INDEX idx_req_detail_req_name ON req_detail(req_name);
 CREATE UNIQUE INDEX idx_req_detail_unique ON req_detail(req_no, req_name);
 
+-- 全文检索：需求描述、需求场景、研发评估按二元组切分，触发器在写入时维护检索向量，GIN 倒排索引
+-- 文本切分为以空格分隔的二元组：转小写，去掉空白和标点，单个字符的文本保留该字符
+-- 去掉的字符逐段列出（与 FullTextQuery.IGNORED_CHARS 原文相同），不用 [[:punct:]]：其范围取决于数据库的 lc_ctype
+CREATE OR REPLACE FUNCTION req_ngram(txt TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT COALESCE(string_agg(substr(s, i, 2), ' ' ORDER BY i), '')
+FROM (SELECT regexp_replace(lower(txt), '[\u0009-\u000D\u0020-\u002F\u003A-\u0040\u005B-\u0060\u007B-\u007E\u00A0-\u00BF\u00D7\u00F7\u2000-\u206F\u3000-\u3004\u3008-\u3020\u3030\uFE30-\uFE6B\uFEFF\uFF01-\uFF0F\uFF1A-\uFF20\uFF3B-\uFF40\uFF5B-\uFF65]+', '', 'g') AS s) t,
+     generate_series(1, GREATEST(length(s) - 1, 1)) AS i
+$$;
+
+-- 检索向量：需求描述权重 A，需求场景 B，研发评估 C
+CREATE OR REPLACE FUNCTION req_detail_search_vector(req_desc TEXT, req_scene TEXT, rd_eval TEXT) RETURNS tsvector
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT setweight(to_tsvector('simple', req_ngram(req_desc)), 'A')
+           || setweight(to_tsvector('simple', req_ngram(req_scene)), 'B')
+           || setweight(to_tsvector('simple', req_ngram(rd_eval)), 'C')
+$$;
+
+CREATE OR REPLACE FUNCTION req_detail_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND NEW.req_desc IS NOT DISTINCT FROM OLD.req_desc
+        AND NEW.req_scene IS NOT DISTINCT FROM OLD.req_scene
+        AND NEW.rd_eval IS NOT DISTINCT FROM OLD.rd_eval THEN
+        RETURN NEW;
+    END IF;
+    NEW.search_vector := req_detail_search_vector(NEW.req_desc, NEW.req_scene, NEW.rd_eval);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER trg_req_detail_search_vector
+    BEFORE INSERT OR UPDATE OF req_desc, req_scene, rd_eval ON req_detail
+    FOR EACH ROW EXECUTE PROCEDURE req_detail_search_vector_trigger();
+
+CREATE INDEX idx_req_detail_search_vector ON req_detail USING gin (search_vector);
+
 -- 外键关联（可选，根据需要是否启用）
 -- ALTER TABLE req_detail ADD CONSTRAINT fk_req_detail_req_no
 --     FOREIGN KEY (req_no) REFERENCES req_list(req_no) ON DELETE CASCADE;
+
+
+-- 导入任务表
+DROP TABLE IF EXISTS import_job;
+CREATE TABLE import_job (
+    id BIGSERIAL PRIMARY KEY,
+    job_type VARCHAR(20) NOT NULL,
+    file_name VARCHAR(500),
+    file_path VARCHAR(1000),
+    file_hash VARCHAR(64),
+    status VARCHAR(20) NOT NULL,
+    total_rows BIGINT,
+    parsed_rows BIGINT,
+    inserted_rows BIGINT,
+    updated_rows BIGINT,
+    unchanged_rows BIGINT,
+    skipped_rows BIGINT,
+    checkpoint_row BIGINT,
+    error_message VARCHAR(1000),
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE import_job IS '导入任务表';
+COMMENT ON COLUMN import_job.id IS '任务ID';
+COMMENT ON COLUMN import_job.job_type IS '任务类型（LIST/DETAIL）';
+COMMENT ON COLUMN import_job.file_name IS '原始文件名';
+COMMENT ON COLUMN import_job.file_path IS '上传文件存储路径';
+COMMENT ON COLUMN import_job.file_hash IS '文件 SHA-256 指纹';
+COMMENT ON COLUMN import_job.status IS '状态（PENDING/RUNNING/SUCCESS/FAILED/CANCELLED）';
+COMMENT ON COLUMN import_job.total_rows IS '数据总行数（不含表头）';
+COMMENT ON COLUMN import_job.parsed_rows IS '已解析行数';
+COMMENT ON COLUMN import_job.inserted_rows IS '新增行数';
+COMMENT ON COLUMN import_job.updated_rows IS '更新行数';
+COMMENT ON COLUMN import_job.unchanged_rows IS '未变化行数';
+COMMENT ON COLUMN import_job.skipped_rows IS '跳过行数';
+COMMENT ON COLUMN import_job.checkpoint_row IS '已提交的最后一行 Excel 行号（CHECKPOINT 写入模式）';
+COMMENT ON COLUMN import_job.error_message IS '失败原因';
+COMMENT ON COLUMN import_job.started_at IS '开始时间';
+COMMENT ON COLUMN import_job.finished_at IS '结束时间';
+COMMENT ON COLUMN import_job.created_at IS '创建时间';
+COMMENT ON COLUMN import_job.updated_at IS '更新时间';
+
+CREATE INDEX idx_import_job_status ON import_job(status);
+CREATE INDEX idx_import_job_file_hash ON import_job(job_type, file_hash);
+-- 同一文件同时只允许一个进行中的任务
+CREATE UNIQUE INDEX idx_import_job_active_file ON import_job(job_type, file_hash)
+    WHERE status IN ('PENDING', 'RUNNING');
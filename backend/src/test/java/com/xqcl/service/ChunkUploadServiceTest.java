@@ -0,0 +1,113 @@
+package com.xqcl.service;
+
+import com.xqcl.config.ExcelImportProperties;
+import com.xqcl.dto.ChunkUploadDTO;
+import com.xqcl.entity.ImportJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分片上传测试
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+class ChunkUploadServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ChunkUploadService service;
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() {
+        importJobService = mock(ImportJobService.class);
+        service = new ChunkUploadService();
+        ReflectionTestUtils.setField(service, "importProperties", new ExcelImportProperties());
+        ReflectionTestUtils.setField(service, "importJobService", importJobService);
+        ReflectionTestUtils.setField(service, "excelUploadDir", uploadDir.toString());
+        service.init();
+    }
+
+    @Test
+    void reverseOrderChunksAssembleOriginalFile() throws Exception {
+        byte[] content = new byte[10 * 1024 + 123];
+        new Random(42).nextBytes(content);
+        int chunkSize = 1024;
+
+        ChunkUploadDTO upload = service.init("data.xlsx", content.length, chunkSize);
+        for (int index = upload.getTotalChunks() - 1; index >= 0; index--) {
+            int from = index * chunkSize;
+            byte[] chunk = Arrays.copyOfRange(content, from, Math.min(content.length, from + chunkSize));
+            service.writeChunk(upload.getUploadId(), index, new ByteArrayInputStream(chunk));
+        }
+
+        ChunkUploadDTO status = service.status(upload.getUploadId());
+        assertEquals(upload.getTotalChunks(), status.getReceivedChunks().size());
+        assertEquals(content.length, status.getReceivedBytes());
+
+        ArgumentCaptor<File> target = ArgumentCaptor.forClass(File.class);
+        when(importJobService.submit(eq(ImportJob.JobType.LIST), eq("data.xlsx"), any(File.class), eq(false))).thenReturn(1L);
+        assertEquals(1L, service.complete(upload.getUploadId(), ImportJob.JobType.LIST, false));
+        verify(importJobService).submit(eq(ImportJob.JobType.LIST), eq("data.xlsx"), target.capture(), eq(false));
+        assertArrayEquals(content, Files.readAllBytes(target.getValue().toPath()));
+    }
+
+    @Test
+    void failedSubmitKeepsUploadForRetry() throws Exception {
+        byte[] content = new byte[3000];
+        new Random(7).nextBytes(content);
+        ChunkUploadDTO upload = service.init("data.xlsx", content.length, 1024);
+        for (int index = 0; index < upload.getTotalChunks(); index++) {
+            int from = index * 1024;
+            byte[] chunk = Arrays.copyOfRange(content, from, Math.min(content.length, from + 1024));
+            service.writeChunk(upload.getUploadId(), index, new ByteArrayInputStream(chunk));
+        }
+
+        // 与 ImportJobService 一致：登记失败时删除交给它的文件
+        when(importJobService.submit(eq(ImportJob.JobType.LIST), eq("data.xlsx"), any(File.class), eq(false)))
+                .thenAnswer(invocation -> {
+                    Files.delete(invocation.getArgument(2, File.class).toPath());
+                    throw new IllegalStateException("导入任务队列已满，请稍后重试");
+                })
+                .thenReturn(2L);
+        assertThrows(IllegalStateException.class,
+                () -> service.complete(upload.getUploadId(), ImportJob.JobType.LIST, false));
+        assertEquals(upload.getTotalChunks(), service.status(upload.getUploadId()).getReceivedChunks().size());
+
+        ArgumentCaptor<File> target = ArgumentCaptor.forClass(File.class);
+        assertEquals(2L, service.complete(upload.getUploadId(), ImportJob.JobType.LIST, false));
+        verify(importJobService, times(2)).submit(eq(ImportJob.JobType.LIST), eq("data.xlsx"), target.capture(), eq(false));
+        assertArrayEquals(content, Files.readAllBytes(target.getValue().toPath()));
+        assertThrows(IllegalArgumentException.class, () -> service.status(upload.getUploadId()));
+    }
+
+    @Test
+    void shortChunkIsRejected() throws Exception {
+        ChunkUploadDTO upload = service.init("data.xlsx", 2048, 1024);
+        assertThrows(IllegalArgumentException.class,
+                () -> service.writeChunk(upload.getUploadId(), 1, new ByteArrayInputStream(new byte[100])));
+        assertEquals(0, service.status(upload.getUploadId()).getReceivedChunks().size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.xqcl.util;
+
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * CSV 读取测试
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+class CsvReaderTest {
+
+    private static List<String[]> read(byte[] bytes) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        CsvReader.read(new ByteArrayInputStream(bytes), (rowIndex, cells) -> {
+            assertEquals(rows.size(), rowIndex);
+            rows.add(cells);
+        });
+        return rows;
+    }
+
+    private static List<String[]> read(String text) throws IOException {
+        return read(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void quotedFieldSpansLines() throws IOException {
+        List<String[]> rows = read("单号,需求描述\nR1,\"第一行\n第二行\"\nR2,无\n");
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[]{"R1", "第一行\n第二行"}, rows.get(1));
+        assertArrayEquals(new String[]{"R2", "无"}, rows.get(2));
+    }
+
+    @Test
+    void doubledQuoteIsEscape() throws IOException {
+        List<String[]> rows = read("a,b\n\"他说\"\"好\"\"\",\"\"\"\"\n");
+        assertArrayEquals(new String[]{"他说\"好\"", "\""}, rows.get(1));
+    }
+
+    @Test
+    void crAndCrlfLineEndings() throws IOException {
+        List<String[]> rows = read("a,b\r\n1,2\r3,4\r\n\r\n5,6");
+        assertEquals(4, rows.size());
+        assertArrayEquals(new String[]{"1", "2"}, rows.get(1));
+        assertArrayEquals(new String[]{"3", "4"}, rows.get(2));
+        assertArrayEquals(new String[]{"5", "6"}, rows.get(3));
+    }
+
+    @Test
+    void emptyFieldsAreNull() throws IOException {
+        List<String[]> rows = read("a,b,c\n1,, \n");
+        assertArrayEquals(new String[]{"1", null, null}, rows.get(1));
+    }
+
+    @Test
+    void utf8BomIsSkipped() throws IOException {
+        byte[] body = "单号,名称\nR1,测试\n".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[body.length + 3];
+        bytes[0] = (byte) 0xEF;
+        bytes[1] = (byte) 0xBB;
+        bytes[2] = (byte) 0xBF;
+        System.arraycopy(body, 0, bytes, 3, body.length);
+        List<String[]> rows = read(bytes);
+        assertArrayEquals(new String[]{"单号", "名称"}, rows.get(0));
+        assertArrayEquals(new String[]{"R1", "测试"}, rows.get(1));
+    }
+
+    @Test
+    void gbkIsDetected() throws IOException {
+        List<String[]> rows = read("单号,负责人所属部门\nR1,研发部\n".getBytes(Charset.forName("GBK")));
+        assertArrayEquals(new String[]{"单号", "负责人所属部门"}, rows.get(0));
+        assertArrayEquals(new String[]{"R1", "研发部"}, rows.get(1));
+    }
+
+    @Test
+    void binaryContentIsRejected() {
+        byte[] bytes = {0x00, 0x01, 0x02, (byte) 0xFF, (byte) 0xFE, 0x00, 0x10};
+        assertThrows(IllegalArgumentException.class, () -> read(bytes));
+    }
+
+    @Test
+    void recognisedNonSpreadsheetFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ExcelImportUtil.FileFormat.of(FileMagic.PDF));
+        assertEquals(ExcelImportUtil.FileFormat.CSV, ExcelImportUtil.FileFormat.of(FileMagic.UNKNOWN));
+    }
+}
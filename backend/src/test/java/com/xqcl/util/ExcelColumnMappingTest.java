@@ -0,0 +1,48 @@
+package com.xqcl.util;
+
+import com.xqcl.entity.ReqList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Excel 列映射测试
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+class ExcelColumnMappingTest {
+
+    @Test
+    void columnsAreMatchedByTitle() {
+        ReqList reqList = ExcelImportUtil.REQ_LIST_COLUMNS
+                .compile(new String[]{"项目名称", " 需求评估单号 ", "未知列"}, null)
+                .apply(new String[]{"项目A", "PG001", "x"});
+        assertEquals("PG001", reqList.getReqNo());
+        assertEquals("项目A", reqList.getProjectName());
+        assertNull(reqList.getOpportunityNo());
+    }
+
+    @Test
+    void missingRequiredColumnIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ExcelImportUtil.REQ_LIST_COLUMNS.compile(new String[]{"项目名称"}, null));
+    }
+
+    @Test
+    void unmatchedHeaderIsRejectedByDefault() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ExcelImportUtil.REQ_LIST_COLUMNS.compile(new String[]{"PG001", "项目A"}, null));
+    }
+
+    @Test
+    void unmatchedHeaderFallsBackToTemplateOrderWhenEnabled() {
+        ReqList reqList = ExcelImportUtil.REQ_LIST_COLUMNS.withPositionalFallback(true)
+                .compile(new String[]{"PG001", "项目A"}, null)
+                .apply(new String[]{"PG002", "项目B"});
+        assertEquals("PG002", reqList.getReqNo());
+        assertEquals("项目B", reqList.getProjectName());
+    }
+}
@@ -0,0 +1,43 @@
+package com.xqcl.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 单元格值转换测试
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+class ExcelValueConverterTest {
+
+    @Test
+    void decimalIsRoundedToTwoPlaces() {
+        assertEquals(new BigDecimal("1234.57"), ExcelValueConverter.toDecimal(" 1,234.567 "));
+        assertEquals(new BigDecimal("0.00"), ExcelValueConverter.toDecimal("0"));
+    }
+
+    @Test
+    void decimalWithinColumnRangeIsKept() {
+        assertEquals(new BigDecimal("99999999.99"), ExcelValueConverter.toDecimal("99999999.99"));
+        assertEquals(new BigDecimal("-99999999.99"), ExcelValueConverter.toDecimal("-99999999.99"));
+    }
+
+    @Test
+    void decimalOutOfColumnRangeIsNull() {
+        assertNull(ExcelValueConverter.toDecimal("123456789"));
+        // 四舍五入后进位到 9 位整数
+        assertNull(ExcelValueConverter.toDecimal("99999999.995"));
+        assertNull(ExcelValueConverter.toDecimal("1E+10"));
+    }
+
+    @Test
+    void blankOrInvalidDecimalIsNull() {
+        assertNull(ExcelValueConverter.toDecimal("  "));
+        assertNull(ExcelValueConverter.toDecimal("N/A"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.xqcl.util;
+
+import cn.hutool.core.io.resource.ResourceUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 全文检索查询词测试
+ *
+ * @author xqcl
+ * @since 2024-01-15
+ */
+class FullTextQueryTest {
+
+    @Test
+    void mixedChineseAndAsciiKeywords() {
+        assertEquals("(订单 <-> 单a <-> ab <-> bc <-> c1 <-> 12) & 查询",
+                FullTextQuery.parse("订单ABC-12  查询").getTsQuery());
+    }
+
+    @Test
+    void fullWidthPunctuationAndSpaceAreIgnored() {
+        assertEquals("(需求 <-> 求评 <-> 评估) & v2",
+                FullTextQuery.parse("《需求》，评估　V2").getTsQuery());
+    }
+
+    @Test
+    void singleCharacterKeywordIsPrefix() {
+        assertEquals("x:* & (接口 <-> 口调 <-> 调用)", FullTextQuery.parse("X 接口/调用").getTsQuery());
+    }
+
+    @Test
+    void ideographicNumberIsKept() {
+        assertEquals("(二〇 <-> 〇二 <-> 二四)", FullTextQuery.parse("二〇二四").getTsQuery());
+    }
+
+    @Test
+    void punctuationOnlyQueryIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> FullTextQuery.parse("，。、 ..."));
+    }
+
+    @Test
+    void databaseFunctionUsesSameCharacterClass() {
+        String pattern = "regexp_replace(lower(txt), '" + FullTextQuery.IGNORED_CHARS + "', '', 'g')";
+        assertTrue(ResourceUtil.readUtf8Str("db/schema.sql").contains(pattern));
+        assertTrue(ResourceUtil.readUtf8Str("db/migration/V1_7__req_detail_fulltext.sql").contains(pattern));
+    }
+}
@@ -42,29 +42,137 @@ export const reqApi = {
     return request.post('/req/list/page', data)
   },
 
+  // 分页查询需求列表摘要（只返回表格展示的列）
+  pageSummary: (data: any) => {
+    return request.post('/req/list/page/summary', data)
+  },
+
+  // 需求列表筛选项计数（每个筛选项应用其余条件，返回条数最多的前 top 个取值）
+  facets: (data: any, top = 20) => {
+    return request.post('/req/list/facets', data, { params: { top } })
+  },
+
+  // 工作量统计（data.groupBy 取 month / ownerDept / productLine / region，withPercentiles 统计分位数）
+  workloadAnalytics: (data: any) => {
+    return request.post('/req/analytics/workload', data)
+  },
+
+  // 游标分页查询需求列表（data.cursor 传上一次返回的 nextCursor/prevCursor）
+  cursorQuery: (data: any) => {
+    return request.post('/req/list/page/cursor', data)
+  },
+
   // 查询需求详情
   getDetail: (reqNo: string) => {
     return request.get(`/req/detail/${reqNo}`)
   },
 
-  // 导入需求列表 Excel
-  importList: (file: File) => {
+  // 全文检索需求详情（需求描述、需求场景、研发评估）
+  searchDetail: (q: string, current = 1, size = 10) => {
+    return request.get('/req/detail/search', { params: { q, current, size } })
+  },
+
+  // 导入需求列表 Excel，force 为 true 时相同文件已导入成功也重新导入
+  importList: (file: File, force = false) => {
     const formData = new FormData()
     formData.append('file', file)
+    formData.append('force', String(force))
     return request.post('/req/import/list', formData, {
       headers: { 'Content-Type': 'multipart/form-data' }
     })
   },
 
-  // 导入需求详情 Excel
-  importDetail: (file: File) => {
+  // 导入需求详情 Excel，force 为 true 时相同文件已导入成功也重新导入
+  importDetail: (file: File, force = false) => {
     const formData = new FormData()
     formData.append('file', file)
+    formData.append('force', String(force))
     return request.post('/req/import/detail', formData, {
       headers: { 'Content-Type': 'multipart/form-data' }
     })
   },
 
+  // 同时导入需求列表和需求详情（两个文件并行导入），checkReference 检查详情的单号是否都在列表中
+  importCombined: (listFile: File, detailFile: File, checkReference = true, force = false) => {
+    const formData = new FormData()
+    formData.append('listFile', listFile)
+    formData.append('detailFile', detailFile)
+    formData.append('checkReference', String(checkReference))
+    formData.append('force', String(force))
+    return request.post('/req/import/combined', formData, {
+      headers: { 'Content-Type': 'multipart/form-data' },
+      timeout: 0
+    })
+  },
+
+  // 提交异步导入任务（type: list / detail），返回任务ID
+  submitImportJob: (type: 'list' | 'detail', file: File, force = false) => {
+    const formData = new FormData()
+    formData.append('file', file)
+    formData.append('force', String(force))
+    return request.post(`/req/import/job/${type}`, formData, {
+      headers: { 'Content-Type': 'multipart/form-data' }
+    })
+  },
+
+  // 分片上传大文件并提交异步导入任务，返回任务ID；传入上次的 uploadId 时只补传缺少的分片
+  uploadChunked: async (
+    type: 'list' | 'detail',
+    file: File,
+    options: {
+      chunkSize?: number
+      uploadId?: string
+      force?: boolean
+      onProgress?: (percent: number, uploadId: string) => void
+    } = {}
+  ) => {
+    const chunkSize = options.chunkSize || 8 * 1024 * 1024
+    const status: any = options.uploadId
+      ? await request.get(`/req/import/job/upload/${options.uploadId}`)
+      : await request.post('/req/import/job/upload', null, {
+          params: { fileName: file.name, totalSize: file.size, chunkSize }
+        })
+    const { uploadId, totalChunks, chunkSize: acceptedSize } = status.data
+    const received = new Set<number>(status.data.receivedChunks)
+
+    for (let index = 0; index < totalChunks; index++) {
+      if (received.has(index)) {
+        continue
+      }
+      const chunk = file.slice(index * acceptedSize, Math.min(file.size, (index + 1) * acceptedSize))
+      // 网络抖动时同一分片重试，重发会覆盖服务端已写入的内容
+      for (let attempt = 1; ; attempt++) {
+        try {
+          await request.put(`/req/import/job/upload/${uploadId}/${index}`, chunk, {
+            headers: { 'Content-Type': 'application/octet-stream' },
+            timeout: 120000
+          })
+          break
+        } catch (error) {
+          if (attempt >= 3) {
+            throw error
+          }
+        }
+      }
+      received.add(index)
+      options.onProgress?.(Math.round((received.size * 100) / totalChunks), uploadId)
+    }
+
+    return request.post(`/req/import/job/upload/${uploadId}/complete`, null, {
+      params: { type, force: options.force ?? false }
+    })
+  },
+
+  // 查询导入任务进度
+  getImportJob: (jobId: number) => {
+    return request.get(`/req/import/job/${jobId}`)
+  },
+
+  // 取消导入任务
+  cancelImportJob: (jobId: number) => {
+    return request.post(`/req/import/job/${jobId}/cancel`)
+  },
+
   // 导出单个需求的 Markdown（返回文件路径）
   exportMarkdown: (reqNo: string) => {
     return request.get(`/req/export/markdown/${reqNo}`)